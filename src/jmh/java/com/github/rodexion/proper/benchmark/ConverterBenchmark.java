@@ -0,0 +1,132 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.benchmark;
+
+import com.github.rodexion.proper.Converter;
+import com.github.rodexion.proper.ConverterProviders;
+import com.github.rodexion.proper.Converters;
+import com.github.rodexion.proper.Proper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of the default converters, used directly, through a converter
+ * chain created by {@link ConverterProviders.Builder}, and through the complete
+ * property read path.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+  private static final String KEY = "bench.converter";
+
+  public enum BenchEnum {
+    Alpha, Beta, Gamma, Delta, Epsilon
+  }
+
+  private static final Map<String, Object[]> inputs = new HashMap<String, Object[]>() {
+    {
+      put("string", new Object[]{String.class, "some-string"});
+      put("byte", new Object[]{Byte.class, "123"});
+      put("short", new Object[]{Short.class, " -1234 "});
+      put("int", new Object[]{Integer.class, "123456"});
+      put("long", new Object[]{Long.class, "1234567890123"});
+      put("float", new Object[]{Float.class, "123.456"});
+      put("double", new Object[]{Double.class, " -123456.789 "});
+      put("char", new Object[]{Character.class, "x"});
+      put("bigDecimal", new Object[]{BigDecimal.class, "12345678901234567890.123"});
+      put("bigInteger", new Object[]{BigInteger.class, "12345678901234567890"});
+      put("file", new Object[]{File.class, "/tmp/some/file.txt"});
+      put("path", new Object[]{Path.class, "/tmp/some/file.txt"});
+      put("enum", new Object[]{BenchEnum.class, " epsilon "});
+    }
+  };
+
+  @Param({"string", "byte", "short", "int", "long", "float", "double",
+          "char", "bigDecimal", "bigInteger", "file", "path", "enum"})
+  public String type;
+
+  private String rawValue;
+  private Proper.Info<Object> info;
+  private Converter<Object> defaultConverter;
+  private Converter<Object> chainedConverter;
+  private Proper.Ty<Object> property;
+
+  @SuppressWarnings("unchecked")
+  @Setup
+  public void setUp() {
+    Class<Object> typeClass = (Class<Object>) inputs.get(type)[0];
+    rawValue = (String) inputs.get(type)[1];
+    info = new Proper.Info<>(KEY, typeClass, null, Collections.<String, Object>emptyMap());
+    defaultConverter = ConverterProviders.defaultConverterProvider().getConverter(typeClass);
+    chainedConverter = ConverterProviders.builder()
+            .add(new Converters.BaseConverter<Thread>(Thread.class) {
+              @Override
+              protected Thread doConvert(String key, String value, Proper.Info<Thread> info) {
+                throw new UnsupportedOperationException();
+              }
+            })
+            .allFrom(ConverterProviders.defaultConverterProvider())
+            .build()
+            .getConverter(typeClass);
+    property = Proper.tyBuilder(KEY, typeClass).converter(defaultConverter).build();
+    System.setProperty(KEY, rawValue);
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.clearProperty(KEY);
+  }
+
+  @Benchmark
+  public Converter.Result<Object> defaultConverter() {
+    return defaultConverter.convert(KEY, rawValue, info);
+  }
+
+  @Benchmark
+  public Converter.Result<Object> chainedConverter() {
+    return chainedConverter.convert(KEY, rawValue, info);
+  }
+
+  @Benchmark
+  public Object propertyRead() {
+    return property.getValue();
+  }
+
+  @Benchmark
+  public Object invalidValue() {
+    return defaultConverter.convert(KEY, "!invalid!", info);
+  }
+}
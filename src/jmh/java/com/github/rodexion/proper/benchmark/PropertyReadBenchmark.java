@@ -0,0 +1,134 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.benchmark;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.PropertyListeners;
+import com.github.rodexion.proper.ValidatorProviders;
+import com.github.rodexion.proper.Validators;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of the complete {@link Proper.Ty#getValue(Object...)} read path,
+ * against the raw JDK system property accessors as a baseline.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyReadBenchmark {
+  private static final String STATIC_KEY = "bench.read.int";
+  private static final String DYNAMIC_KEY = "bench.read.{0}.{1}";
+
+  private Proper.Ty<Integer> staticKeyProp;
+  private Proper.Ty<Integer> dynamicKeyProp;
+  private Proper.Ty<Integer> validatedProp;
+  private Proper.Ty<Integer> listenedProp;
+  private CountingListener listener;
+
+  @Setup
+  public void setUp() {
+    System.setProperty(STATIC_KEY, "1234");
+    System.setProperty("bench.read.a.b", "1234");
+
+    staticKeyProp = Proper.tyBuilder(STATIC_KEY, 0).build();
+    dynamicKeyProp = Proper.tyBuilder(DYNAMIC_KEY, 0).build();
+    validatedProp = Proper.tyBuilder(STATIC_KEY, 0)
+            .validatorProvider(ValidatorProviders.builder()
+                    .add(Validators.<Integer>comparableValidatorBuilder().min(0).build())
+                    .add(Validators.<Integer>comparableValidatorBuilder().max(10000).build())
+                    .add(Validators.<Integer>comparableValidatorBuilder().min(-1).max(100000).build())
+                    .build())
+            .build();
+    listener = new CountingListener();
+    listenedProp = Proper.tyBuilder(STATIC_KEY, 0).propertyListener(listener).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.clearProperty(STATIC_KEY);
+    System.clearProperty("bench.read.a.b");
+  }
+
+  @Benchmark
+  public Integer baselineIntegerGetInteger() {
+    return Integer.getInteger(STATIC_KEY, 0);
+  }
+
+  @Benchmark
+  public String baselineSystemGetProperty() {
+    return System.getProperty(STATIC_KEY);
+  }
+
+  @Benchmark
+  public Integer staticKey() {
+    return staticKeyProp.getValue();
+  }
+
+  @Benchmark
+  public Integer dynamicKey() {
+    return dynamicKeyProp.getValue("a", "b");
+  }
+
+  @Benchmark
+  public Integer validatorChain() {
+    return validatedProp.getValue();
+  }
+
+  @Benchmark
+  public Integer listenerDispatch() {
+    return listenedProp.getValue();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Integer staticKeyContended() {
+    return staticKeyProp.getValue();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Integer dynamicKeyContended() {
+    return dynamicKeyProp.getValue("a", "b");
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Integer baselineIntegerGetIntegerContended() {
+    return Integer.getInteger(STATIC_KEY, 0);
+  }
+
+  private static final class CountingListener extends PropertyListeners.BasePropertyListener {
+    long successes;
+
+    @Override
+    public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+      successes++;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.benchmark;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.Validator;
+import com.github.rodexion.proper.ValidatorProviders;
+import com.github.rodexion.proper.Validators;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of validators created by {@link Validators#comparableValidatorBuilder()},
+ * alone and chained through {@link ValidatorProviders.Builder}.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+  private static final String KEY = "bench.validator";
+
+  @Param({"1", "4", "16"})
+  public int chainLength;
+
+  private final Proper.Info<Integer> info = new Proper.Info<>(KEY, Integer.class, 0,
+          Collections.<String, Object>emptyMap());
+  private Validator<Integer> single;
+  private Validator<Integer> chain;
+  private Integer validValue;
+  private Integer invalidValue;
+
+  @Setup
+  public void setUp() {
+    single = Validators.<Integer>comparableValidatorBuilder().min(0).max(1000).build();
+    ValidatorProviders.Builder builder = ValidatorProviders.builder();
+    for (int i = 0; i < chainLength; i++) {
+      builder.add(Validators.<Integer>comparableValidatorBuilder().min(-i).max(1000 + i).build());
+    }
+    chain = builder.build().getValidator(Integer.class);
+    validValue = 500;
+    invalidValue = 5000;
+  }
+
+  @Benchmark
+  public Validator.Result singleValid() {
+    return single.afterConversion(KEY, validValue, info);
+  }
+
+  @Benchmark
+  public Validator.Result singleInvalid() {
+    return single.afterConversion(KEY, invalidValue, info);
+  }
+
+  @Benchmark
+  public Validator.Result chainBeforeConversion() {
+    return chain.beforeConversion(KEY, "500", info);
+  }
+
+  @Benchmark
+  public Validator.Result chainValid() {
+    return chain.afterConversion(KEY, validValue, info);
+  }
+
+  @Benchmark
+  public Validator.Result chainInvalid() {
+    return chain.afterConversion(KEY, invalidValue, info);
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.benchmark.startup;
+
+import com.github.rodexion.proper.Proper;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Measures how property scanning and validation scale with the classpath size.</p>
+ * <p>For every classpath size given, a synthetic classpath is generated (see {@link SyntheticClasspath}),
+ * and each of the below operations is run several times, every time in a fresh class loader,
+ * so that classes are loaded and properties declared from scratch:</p>
+ * <ul>
+ * <li><code>scan</code>: {@link com.github.rodexion.proper.scanner.ProperScanners#scanner(String)}</li>
+ * <li><code>scanAll</code>: {@link com.github.rodexion.proper.scanner.ProperScanners#scanAll(String)}</li>
+ * <li><code>validate</code>: {@link com.github.rodexion.proper.validator.ProperValidators#validator(String)}</li>
+ * <li><code>validateAll</code>: {@link com.github.rodexion.proper.validator.ProperValidators#validateAll(String)}</li>
+ * </ul>
+ * <p>Wall time, bytes allocated by the benchmark thread and peak heap usage are reported for
+ * each operation, along with the number of results (declarations found by scans, errors found
+ * by validations), and written out as CSV to allow tracking startup cost across releases.</p>
+ * <p>Usage: <code>StartupBenchmark [-classes 100,1000,5000] [-properties 10] [-packages 20]
+ * [-jarPackages 10] [-iterations 3] [-dir build/startup-benchmark] [-out results.csv]</code></p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class StartupBenchmark {
+  private static final String[] OPERATIONS = {"scan", "scanAll", "validate", "validateAll"};
+  private static final String HEADER = "classes,properties,jarPackages,operation,iteration,results,timeMillis,allocatedBytes,peakHeapBytes";
+
+  public static void main(String... args) throws Exception {
+    String classes = "100,1000,5000";
+    int properties = 10;
+    int packages = 20;
+    int jarPackages = 10;
+    int iterations = 3;
+    File dir = new File("build/startup-benchmark");
+    File out = null;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "-classes":
+          classes = args[i + 1];
+          break;
+        case "-properties":
+          properties = Integer.parseInt(args[i + 1]);
+          break;
+        case "-packages":
+          packages = Integer.parseInt(args[i + 1]);
+          break;
+        case "-jarPackages":
+          jarPackages = Integer.parseInt(args[i + 1]);
+          break;
+        case "-iterations":
+          iterations = Integer.parseInt(args[i + 1]);
+          break;
+        case "-dir":
+          dir = new File(args[i + 1]);
+          break;
+        case "-out":
+          out = new File(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+
+    List<String> rows = new ArrayList<>();
+    System.out.println(HEADER);
+    for (String classCount : classes.split(",")) {
+      int totalClasses = Integer.parseInt(classCount.trim());
+      int packageCount = Math.max(1, Math.min(packages, totalClasses));
+      SyntheticClasspath classpath = new SyntheticClasspath(dir, packageCount,
+              Math.max(1, totalClasses / packageCount), properties, jarPackages);
+      List<URL> urls = classpath.generate();
+      for (String operation : OPERATIONS) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+          Measurement m = measure(operation, urls);
+          String row = String.format("%d,%d,%d,%s,%d,%d,%d,%d,%d",
+                  classpath.getPackages() * classpath.getClassesPerPackage(),
+                  classpath.getPropertyCount(),
+                  classpath.getJarPackages(),
+                  operation,
+                  iteration,
+                  m.results,
+                  m.nanos / 1000000,
+                  m.allocatedBytes,
+                  m.peakHeapBytes);
+          System.out.println(row);
+          rows.add(row);
+        }
+      }
+    }
+    if (null != out) {
+      write(out, rows);
+    }
+  }
+
+  private static Measurement measure(String operation, List<URL> urls) throws Exception {
+    List<URL> isolated = new ArrayList<>(urls);
+    isolated.add(new File(SyntheticClasspath.location(Proper.class)).toURI().toURL());
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    try (IsolatedClassLoader loader = new IsolatedClassLoader(isolated.toArray(new URL[isolated.size()]))) {
+      Thread.currentThread().setContextClassLoader(loader);
+      System.gc();
+      resetPeakHeap();
+      long allocatedBefore = allocatedBytes();
+      long start = System.nanoTime();
+      int results = run(operation, loader);
+      Measurement m = new Measurement();
+      m.nanos = System.nanoTime() - start;
+      m.allocatedBytes = allocatedBytes() - allocatedBefore;
+      m.peakHeapBytes = peakHeap();
+      m.results = results;
+      return m;
+    } finally {
+      Thread.currentThread().setContextClassLoader(previous);
+    }
+  }
+
+  private static int run(String operation, ClassLoader loader) throws Exception {
+    String pkg = SyntheticClasspath.BASE_PACKAGE;
+    Class<?> scanners = loader.loadClass("com.github.rodexion.proper.scanner.ProperScanners");
+    Class<?> validators = loader.loadClass("com.github.rodexion.proper.validator.ProperValidators");
+    Method scan = loader.loadClass("com.github.rodexion.proper.scanner.ProperScanner").getMethod("scan");
+    Method validate = loader.loadClass("com.github.rodexion.proper.validator.ProperValidator").getMethod("validate");
+    Object result;
+    switch (operation) {
+      case "scan":
+        result = scan.invoke(scanners.getMethod("scanner", String.class).invoke(null, pkg));
+        return ((List<?>) result.getClass().getMethod("getDeclarations").invoke(result)).size();
+      case "scanAll":
+        result = scan.invoke(scanners.getMethod("scanAll", String.class).invoke(null, pkg));
+        return ((List<?>) result.getClass().getMethod("getDeclarations").invoke(result)).size();
+      case "validate":
+        result = validate.invoke(validators.getMethod("validator", String.class).invoke(null, pkg));
+        return ((List<?>) result.getClass().getMethod("getValidationErrors").invoke(result)).size();
+      case "validateAll":
+        result = validate.invoke(validators.getMethod("validateAll", String.class).invoke(null, pkg));
+        return ((List<?>) result.getClass().getMethod("getValidationErrors").invoke(result)).size();
+      default:
+        throw new IllegalArgumentException(operation);
+    }
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  private static void resetPeakHeap() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long peakHeap() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  private static void write(File out, List<String> rows) throws IOException {
+    File parent = out.getAbsoluteFile().getParentFile();
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Could not create directory " + parent);
+    }
+    try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(out), StandardCharsets.UTF_8))) {
+      writer.println(HEADER);
+      for (String row : rows) {
+        writer.println(row);
+      }
+    }
+  }
+
+  private static final class Measurement {
+    long nanos;
+    long allocatedBytes;
+    long peakHeapBytes;
+    int results;
+  }
+
+  /**
+   * <p>Loads proper and the synthetic classes in isolation (child-first), so that
+   * every measurement starts with no properties declared.</p>
+   */
+  private static final class IsolatedClassLoader extends URLClassLoader {
+    IsolatedClassLoader(URL[] urls) {
+      super(urls, StartupBenchmark.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith("com.github.rodexion.proper.") && !name.startsWith(SyntheticClasspath.BASE_PACKAGE + ".")) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> clazz = findLoadedClass(name);
+        if (null == clazz) {
+          try {
+            clazz = findClass(name);
+          } catch (ClassNotFoundException e) {
+            return super.loadClass(name, resolve);
+          }
+        }
+        if (resolve) {
+          resolveClass(clazz);
+        }
+        return clazz;
+      }
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.benchmark.startup;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.annotations.ProperScannable;
+import lombok.Getter;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * <p>Generates a synthetic classpath of {@link ProperScannable} classes declaring
+ * properties, spread over several packages under {@link #BASE_PACKAGE}.
+ * Some packages are compiled into plain class directories, the rest are packed into jars,
+ * one jar per package.</p>
+ * <p>Generated classpath is reused, if it was already generated with the same parameters.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class SyntheticClasspath {
+  static final String BASE_PACKAGE = "proper.synthetic";
+
+  private final File root;
+  @Getter
+  private final int packages;
+  @Getter
+  private final int classesPerPackage;
+  @Getter
+  private final int propertiesPerClass;
+  @Getter
+  private final int jarPackages;
+
+  SyntheticClasspath(File baseDir, int packages, int classesPerPackage, int propertiesPerClass, int jarPackages) {
+    this.packages = packages;
+    this.classesPerPackage = classesPerPackage;
+    this.propertiesPerClass = propertiesPerClass;
+    this.jarPackages = Math.min(jarPackages, packages);
+    this.root = new File(baseDir, packages + "x" + classesPerPackage + "x" + propertiesPerClass + "-jars" + this.jarPackages);
+  }
+
+  int getPropertyCount() {
+    return packages * classesPerPackage * propertiesPerClass;
+  }
+
+  /**
+   * <p>Generate the classpath, unless already generated.</p>
+   *
+   * @return Class directories and jars making up the classpath (not-null)
+   * @throws IOException If the classpath could not be written
+   */
+  List<URL> generate() throws IOException {
+    File classes = new File(root, "classes");
+    File jars = new File(root, "jars");
+    File done = new File(root, ".done");
+    if (!done.exists()) {
+      deleteRecursively(root);
+      File sources = new File(root, "src");
+      List<File> sourceFiles = new ArrayList<>();
+      for (int p = 0; p < packages; p++) {
+        for (int c = 0; c < classesPerPackage; c++) {
+          sourceFiles.add(writeSource(sources, p, c));
+        }
+      }
+      compile(sourceFiles, classes);
+      for (int p = 0; p < jarPackages; p++) {
+        File packageDir = new File(classes, packagePath(p));
+        jar(packageDir, packagePath(p), new File(jars, packageName(p) + ".jar"));
+        deleteRecursively(packageDir);
+      }
+      if (!done.createNewFile()) {
+        throw new IOException("Could not create " + done);
+      }
+    }
+    List<URL> urls = new ArrayList<>();
+    urls.add(classes.toURI().toURL());
+    for (int p = 0; p < jarPackages; p++) {
+      urls.add(new File(jars, packageName(p) + ".jar").toURI().toURL());
+    }
+    return urls;
+  }
+
+  private File writeSource(File sources, int p, int c) throws IOException {
+    String className = "Props" + c;
+    StringBuilder sb = new StringBuilder()
+            .append("package ").append(packageName(p)).append(";\n\n")
+            .append("@").append(ProperScannable.class.getName()).append("\n")
+            .append("public class ").append(className).append(" {\n");
+    String keyPrefix = packageName(p) + ".c" + c + ".";
+    for (int i = 0; i < propertiesPerClass; i++) {
+      String builder = Proper.class.getName() + ".tyBuilder(\"" + keyPrefix + "p" + i;
+      switch (i % 4) {
+        case 0:
+          sb.append("  public static final int p").append(i).append(" = ")
+                  .append(builder).append("\", 1).build().getValue();\n");
+          break;
+        case 1:
+          sb.append("  public static final long p").append(i).append(" = ")
+                  .append(builder).append("\", 2L).build().getValue();\n");
+          break;
+        case 2:
+          sb.append("  public static final String p").append(i).append(" = ")
+                  .append(builder).append("\", \"three\").build().getValue();\n");
+          break;
+        default:
+          sb.append("  public static final ").append(Proper.class.getName()).append(".Ty<Double> p").append(i)
+                  .append(" = ").append(builder).append(".{0}.{1}\", 4d)\n")
+                  .append("      .attributes(java.util.Collections.<String, Object>singletonMap(")
+                  .append(Proper.class.getName()).append(".ATTRIBUTE_DYNAMIC_KEY_SUBSTITUTIONS, ")
+                  .append("new String[]{\"a,b\", \"c,d\"})).build();\n");
+      }
+    }
+    sb.append("}\n");
+    File file = new File(sources, packagePath(p) + "/" + className + ".java");
+    mkdirs(file.getParentFile());
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+      writer.write(sb.toString());
+    }
+    return file;
+  }
+
+  private static void compile(List<File> sourceFiles, File classes) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (null == compiler) {
+      throw new IllegalStateException("Synthetic classpath generation requires a JDK");
+    }
+    mkdirs(classes);
+    String classpath = new File(location(Proper.class)).getPath();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Boolean ok = compiler.getTask(null, fileManager, null,
+              Arrays.asList("-nowarn", "-classpath", classpath, "-d", classes.getPath()),
+              null, fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+      if (!ok) {
+        throw new IOException("Could not compile synthetic classpath");
+      }
+    }
+  }
+
+  private static void jar(File dir, String entryPrefix, File jarFile) throws IOException {
+    mkdirs(jarFile.getParentFile());
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+      String[] path = entryPrefix.split("/");
+      StringBuilder entry = new StringBuilder();
+      for (String segment : path) {
+        entry.append(segment).append('/');
+        out.putNextEntry(new JarEntry(entry.toString()));
+        out.closeEntry();
+      }
+      File[] files = dir.listFiles();
+      for (File file : null == files ? new File[0] : files) {
+        out.putNextEntry(new JarEntry(entryPrefix + "/" + file.getName()));
+        try (InputStream in = new FileInputStream(file)) {
+          byte[] buffer = new byte[8192];
+          int read;
+          while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+          }
+        }
+        out.closeEntry();
+      }
+    }
+  }
+
+  static String location(Class<?> clazz) {
+    try {
+      return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not locate " + clazz, e);
+    }
+  }
+
+  private static String packageName(int p) {
+    return BASE_PACKAGE + ".p" + p;
+  }
+
+  private static String packagePath(int p) {
+    return packageName(p).replace('.', '/');
+  }
+
+  private static void mkdirs(File dir) throws IOException {
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Could not create directory " + dir);
+    }
+  }
+
+  private static void deleteRecursively(File file) throws IOException {
+    File[] children = file.listFiles();
+    if (null != children) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    if (file.exists() && !file.delete()) {
+      throw new IOException("Could not delete " + file);
+    }
+  }
+}
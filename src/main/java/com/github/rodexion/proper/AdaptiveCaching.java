@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Policy enabling the {@link PropertyBuilder#cacheConversions(boolean) conversion cache}
+ * of properties while they are read frequently.</p>
+ * <p>Reads are counted, and the clock is only sampled every {@link #SAMPLE_READS} reads
+ * to estimate the read rate. A property is promoted to the cached path once its rate
+ * reaches the promotion threshold, and demoted back to converting on every read once
+ * its rate falls under a quarter of it. Promotions and demotions are reported to the
+ * listener of the read which triggered them, if it is a {@link CachePromotionListener}.</p>
+ * <p>Properties use {@link #defaultPolicy()} unless their caching is set explicitly.
+ * Only properties of known immutable types are ever promoted (see {@link #isImmutable(Class)}),
+ * as the cache returns the same value instance to every read.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class AdaptiveCaching {
+  /**
+   * <p>Number of reads between two samples of the read rate (a power of 2).</p>
+   */
+  public static final int SAMPLE_READS = 64;
+
+  private static final AdaptiveCaching disabled = new AdaptiveCaching(Long.MAX_VALUE);
+  private static final AdaptiveCaching defaultPolicy = new AdaptiveCaching(1000);
+
+  private static final Set<Class<?>> immutableTypes = new HashSet<Class<?>>(Arrays.asList(
+          String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+          Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class,
+          File.class, URI.class, UUID.class, Locale.class, Pattern.class, Class.class));
+
+  private final long promoteReadsPerSecond;
+
+  private AdaptiveCaching(long promoteReadsPerSecond) {
+    this.promoteReadsPerSecond = promoteReadsPerSecond;
+  }
+
+  /**
+   * <p>Promote properties read at least 1000 times per second.</p>
+   *
+   * @return Caching policy (not-null)
+   */
+  public static AdaptiveCaching defaultPolicy() {
+    return defaultPolicy;
+  }
+
+  /**
+   * <p>Never promote properties.</p>
+   *
+   * @return Caching policy (not-null)
+   */
+  public static AdaptiveCaching disabled() {
+    return disabled;
+  }
+
+  /**
+   * <p>Promote properties read at least the given number of times per second.</p>
+   *
+   * @param readsPerSecond Promotion threshold (positive)
+   * @return Caching policy (not-null)
+   */
+  public static AdaptiveCaching promoteAbove(long readsPerSecond) {
+    if (readsPerSecond <= 0) {
+      throw new IllegalArgumentException("readsPerSecond has to be positive: " + readsPerSecond);
+    }
+    return new AdaptiveCaching(readsPerSecond);
+  }
+
+  /**
+   * <p>Whether instances of the given type cannot change once created: boxed primitives,
+   * strings, enums and a few well known value types of the JDK.</p>
+   *
+   * @param type Value type (not-null)
+   * @return <code>true</code> if the type is immutable
+   */
+  public static boolean isImmutable(Class<?> type) {
+    return type.isPrimitive() || type.isEnum() || immutableTypes.contains(type)
+            || Path.class.isAssignableFrom(type) || Charset.class.isAssignableFrom(type);
+  }
+
+  /**
+   * @return Reads per second from which properties are promoted
+   */
+  public long getPromoteReadsPerSecond() {
+    return promoteReadsPerSecond;
+  }
+
+  /**
+   * @return Reads per second under which promoted properties are demoted
+   */
+  public long getDemoteReadsPerSecond() {
+    return promoteReadsPerSecond / 4;
+  }
+
+  boolean isEnabled() {
+    return this != disabled;
+  }
+
+  @Override
+  public String toString() {
+    return isEnabled()
+            ? "AdaptiveCaching(promoteReadsPerSecond=" + promoteReadsPerSecond + ')'
+            : "AdaptiveCaching(disabled)";
+  }
+}
@@ -0,0 +1,304 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Base class for validators of converted values whose checks are slow or blocking,
+ * e.g. file system or network checks.</p>
+ * <p>Checks run in an executor ({@link AsyncValidators#sharedExecutor()} by default) and
+ * are bounded by a timeout, counted from the moment the check starts running, so checks
+ * queued behind others in a busy executor get their full time. A check which does not
+ * complete in time is a validation failure, even if the executor ran it in the calling
+ * thread, and so does a check which the executor rejects. Checks submitted to the shared
+ * executor wait for room in its queue instead of being rejected, for at most the timeout.
+ * {@link #validateAsync(String, Object, Proper.Info)} returns the pending check as a future,
+ * while {@link #afterConversion(String, Object, Proper.Info)} waits for it, unless checks are
+ * {@link #deferChecks() deferred} on the current thread. Deferred checks are collected
+ * instead of being waited for, which is how
+ * {@link com.github.rodexion.proper.validator.ProperValidators} runs the checks of all
+ * properties concurrently.</p>
+ *
+ * @param <T> Property conversion target type
+ * @author rodexion
+ * @since 0.1
+ */
+public abstract class AsyncValidator<T> implements Validator<T> {
+  private static final long START_POLL_MILLIS = 100;
+  private static final ThreadLocal<List<Pending>> deferred = new ThreadLocal<>();
+
+  private final Class<T> typeClass;
+  private final long timeoutNanos;
+  private final ExecutorService executor;
+  private final Semaphore permits;
+
+  protected AsyncValidator(Class<T> typeClass, long timeout, TimeUnit unit) {
+    this(typeClass, timeout, unit, AsyncValidators.sharedExecutor());
+  }
+
+  protected AsyncValidator(Class<T> typeClass, long timeout, TimeUnit unit, ExecutorService executor) {
+    this.typeClass = checkNotNull("typeClass", typeClass);
+    this.timeoutNanos = checkNotNull("unit", unit).toNanos(timeout);
+    this.executor = checkNotNull("executor", executor);
+    this.permits = executor == AsyncValidators.sharedExecutor() ? AsyncValidators.sharedPermits() : null;
+  }
+
+  /**
+   * <p>Run the actual check. Called from an executor thread.</p>
+   *
+   * @param key   Property key (not-null)
+   * @param value Converted property value (not-null)
+   * @param info  Property meta data (not-null)
+   * @return Validation result (not-null)
+   * @throws Exception Any exception thrown is a validation failure
+   */
+  protected abstract Result check(String key, T value, Proper.Info<T> info) throws Exception;
+
+  @Override
+  public boolean canValidate(Class<?> type) {
+    return typeClass.equals(type);
+  }
+
+  @Override
+  public Result beforeConversion(String key, String value, Proper.Info<T> info) {
+    return Result.ok();
+  }
+
+  @Override
+  public Result afterConversion(String key, T value, Proper.Info<T> info) {
+    if (null == value) {
+      return Result.ok();
+    }
+    Pending pending = validateAsync(key, value, info);
+    List<Pending> deferredChecks = deferred.get();
+    if (null != deferredChecks) {
+      deferredChecks.add(pending);
+      return Result.ok();
+    }
+    return pending.await();
+  }
+
+  /**
+   * <p>Start the check of the given value.</p>
+   *
+   * @param key   Property key (not-null)
+   * @param value Converted property value (not-null)
+   * @param info  Property meta data (not-null)
+   * @return Pending check (not-null)
+   */
+  public Pending validateAsync(final String key, final T value, final Proper.Info<T> info) {
+    Check check = new Check(new Callable<Result>() {
+      @Override
+      public Result call() throws Exception {
+        return check(key, value, info);
+      }
+    }, permits);
+    long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+    Future<Result> future;
+    try {
+      if (null != permits && !permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+        future = completed(Result.fail(ErrorCode.VALIDATION_TIMED_OUT, key, timeoutMillis));
+      } else {
+        future = executor.submit(check);
+      }
+    } catch (RejectedExecutionException e) {
+      check.release();
+      future = completed(Result.fail(ErrorCode.VALIDATION_CHECK_FAILED, key, e));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future = completed(Result.fail(ErrorCode.VALIDATION_CHECK_FAILED, key, e));
+    }
+    return new Pending(key, future, check, executor, timeoutNanos);
+  }
+
+  private static Future<Result> completed(final Result result) {
+    FutureTask<Result> future = new FutureTask<>(new Callable<Result>() {
+      @Override
+      public Result call() {
+        return result;
+      }
+    });
+    future.run();
+    return future;
+  }
+
+  /**
+   * <p>Collect checks started by this thread instead of waiting for them, until
+   * {@link #stopDeferring()} is called. Validators report deferred checks as successful,
+   * their actual outcome is the one of the collected checks.</p>
+   *
+   * @return List collecting the deferred checks, to be drained by the caller (not-null)
+   */
+  public static List<Pending> deferChecks() {
+    List<Pending> pending = new ArrayList<>();
+    deferred.set(pending);
+    return pending;
+  }
+
+  /**
+   * <p>Stop deferring checks on this thread.</p>
+   */
+  public static void stopDeferring() {
+    deferred.remove();
+  }
+
+  /**
+   * <p>Check which records when it started and completed, and which gives back
+   * its executor permit, if any, once done.</p>
+   */
+  private static final class Check implements Callable<Result> {
+    private final Callable<Result> delegate;
+    private final Semaphore permits;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile long startedAt;
+    private volatile boolean completed;
+    private volatile long completedAt;
+
+    Check(Callable<Result> delegate, Semaphore permits) {
+      this.delegate = delegate;
+      this.permits = permits;
+    }
+
+    @Override
+    public Result call() throws Exception {
+      startedAt = System.nanoTime();
+      started.countDown();
+      try {
+        return delegate.call();
+      } finally {
+        completedAt = System.nanoTime();
+        completed = true;
+        release();
+      }
+    }
+
+    void release() {
+      if (null != permits && released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+
+    boolean isStarted() {
+      return 0 == started.getCount();
+    }
+
+    /**
+     * <p>Wait until the check starts, unless its future is done without it, e.g. when rejected.</p>
+     *
+     * @return {@code false} if the executor terminated without running the check
+     */
+    boolean awaitStart(Future<Result> future, ExecutorService executor) throws InterruptedException {
+      while (!future.isDone()) {
+        if (started.await(START_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+        if (executor.isTerminated()) {
+          return isStarted();
+        }
+      }
+      return true;
+    }
+
+    boolean completedAfter(long deadline) {
+      return completed && completedAt - deadline > 0;
+    }
+  }
+
+  /**
+   * <p>A check in progress, with a deadline counted from the moment it starts running.</p>
+   */
+  public static final class Pending {
+    private final String key;
+    private final Future<Result> future;
+    private final Check check;
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+
+    Pending(String key, Future<Result> future, Check check, ExecutorService executor, long timeoutNanos) {
+      this.key = key;
+      this.future = future;
+      this.check = check;
+      this.executor = executor;
+      this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * @return Future result of the check (not-null)
+     */
+    public Future<Result> getFuture() {
+      return future;
+    }
+
+    /**
+     * <p>Wait for the check to start, then for its outcome, at most until its deadline.
+     * A check which times out is cancelled. A check which completed after its
+     * deadline, e.g. when run by the calling thread, has timed out as well.</p>
+     *
+     * @return Validation result (not-null)
+     */
+    public Result await() {
+      long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+      try {
+        if (!check.awaitStart(future, executor)) {
+          cancel();
+          return Result.fail(ErrorCode.VALIDATION_CHECK_FAILED, key,
+                  new RejectedExecutionException("Executor terminated before running the check"));
+        }
+        long deadline = check.isStarted() ? check.startedAt + timeoutNanos : System.nanoTime();
+        Result result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        return check.completedAfter(deadline)
+                ? Result.fail(ErrorCode.VALIDATION_TIMED_OUT, key, timeoutMillis)
+                : result;
+      } catch (TimeoutException e) {
+        cancel();
+        return Result.fail(ErrorCode.VALIDATION_TIMED_OUT, key, timeoutMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+        return Result.fail(ErrorCode.VALIDATION_CHECK_FAILED, key, e);
+      } catch (ExecutionException e) {
+        return Result.fail(ErrorCode.VALIDATION_CHECK_FAILED, key, e.getCause());
+      }
+    }
+
+    private void cancel() {
+      if (future.cancel(true) && !check.isStarted()) {
+        check.release();
+      }
+    }
+  }
+}
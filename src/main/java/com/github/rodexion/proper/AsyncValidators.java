@@ -0,0 +1,196 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A collection of {@link AsyncValidator} implementations for I/O bound checks.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class AsyncValidators {
+  /**
+   * <p>Maximal number of cached file checks, the cache is cleared when exceeded.</p>
+   */
+  static final int FILE_CHECK_CACHE_SIZE = 4096;
+
+  private static final ConcurrentMap<File, FileCheck> fileChecks = new ConcurrentHashMap<>();
+
+  /**
+   * <p>Maximal number of checks queued in the shared executor.</p>
+   */
+  static final int SHARED_QUEUE_SIZE = 1024;
+
+  /**
+   * <p>Executor shared by async validators by default. It is bounded both in threads
+   * (twice the number of processors, at least 4) and in queued checks
+   * ({@value #SHARED_QUEUE_SIZE}). Async validators wait for room in the queue before
+   * submitting their checks, so that a large number of checks is throttled instead of
+   * rejected. Checks submitted directly to a full queue are rejected. Threads are daemon
+   * threads, and are stopped when idle.</p>
+   *
+   * @return Executor (not-null)
+   */
+  public static ExecutorService sharedExecutor() {
+    return SharedExecutorHolder.executor;
+  }
+
+  /**
+   * <p>Permits for checks in flight in the {@link #sharedExecutor()}, one per slot of its queue.
+   * Its threads take checks from the queue before running them, so holding a permit
+   * guarantees a slot.</p>
+   *
+   * @return Semaphore (not-null)
+   */
+  static Semaphore sharedPermits() {
+    return SharedExecutorHolder.permits;
+  }
+
+  /**
+   * <p>Validator which makes sure a file property refers to an existing readable file or
+   * directory. Outcomes of checks are cached per path and its last modification time.</p>
+   *
+   * @param timeout Check timeout
+   * @param unit    Timeout unit (not-null)
+   * @return Validator instance (not-null)
+   */
+  public static AsyncValidator<File> readableFileValidator(long timeout, TimeUnit unit) {
+    return new AsyncValidator<File>(File.class, timeout, unit) {
+      @Override
+      protected Result check(String key, File value, Proper.Info<File> info) {
+        return checkReadable(value);
+      }
+    };
+  }
+
+  /**
+   * <p>Same as {@link #readableFileValidator(long, TimeUnit)}, for path properties.</p>
+   *
+   * @param timeout Check timeout
+   * @param unit    Timeout unit (not-null)
+   * @return Validator instance (not-null)
+   */
+  public static AsyncValidator<Path> readablePathValidator(long timeout, TimeUnit unit) {
+    return new AsyncValidator<Path>(Path.class, timeout, unit) {
+      @Override
+      protected Result check(String key, Path value, Proper.Info<Path> info) {
+        return checkReadable(value.toFile());
+      }
+    };
+  }
+
+  /**
+   * <p>Validator which makes sure a port property refers to a port that is free
+   * to listen on, on all local addresses.</p>
+   *
+   * @param timeout Check timeout
+   * @param unit    Timeout unit (not-null)
+   * @return Validator instance (not-null)
+   */
+  public static AsyncValidator<Integer> freePortValidator(long timeout, TimeUnit unit) {
+    return new AsyncValidator<Integer>(Integer.class, timeout, unit) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) throws IOException {
+        ServerSocket socket;
+        try {
+          socket = new ServerSocket(value);
+        } catch (IOException e) {
+          return Result.fail(ErrorCode.PORT_IN_USE, value);
+        }
+        socket.close();
+        return Result.ok();
+      }
+    };
+  }
+
+  static Validator.Result checkReadable(File file) {
+    File absoluteFile = file.getAbsoluteFile();
+    long lastModified = absoluteFile.lastModified();
+    FileCheck cached = fileChecks.get(absoluteFile);
+    if (null != cached && cached.lastModified == lastModified) {
+      return cached.result;
+    }
+    Validator.Result result = absoluteFile.exists() && absoluteFile.canRead()
+            ? Validator.Result.ok()
+            : Validator.Result.fail(ErrorCode.FILE_NOT_READABLE, file);
+    if (fileChecks.size() >= FILE_CHECK_CACHE_SIZE) {
+      fileChecks.clear();
+    }
+    fileChecks.put(absoluteFile, new FileCheck(lastModified, result));
+    return result;
+  }
+
+  static int cachedFileCheckCount() {
+    return fileChecks.size();
+  }
+
+  /**
+   * <p>Outcome of a file check, valid while the file is not modified.</p>
+   */
+  private static final class FileCheck {
+    private final long lastModified;
+    private final Validator.Result result;
+
+    FileCheck(long lastModified, Validator.Result result) {
+      this.lastModified = lastModified;
+      this.result = result;
+    }
+  }
+
+  private static final class SharedExecutorHolder {
+    private static final ExecutorService executor;
+    private static final Semaphore permits = new Semaphore(SHARED_QUEUE_SIZE);
+
+    static {
+      int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(SHARED_QUEUE_SIZE), new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "proper-async-validator-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      }, new ThreadPoolExecutor.AbortPolicy());
+      pool.allowCoreThreadTimeOut(true);
+      executor = pool;
+    }
+  }
+
+  private AsyncValidators() {
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Typed key of a custom property attribute.</p>
+ * <p>Every attribute name is registered once, and is assigned a fixed slot
+ * in the compact attribute storage of {@link Proper.Info}. Looking up attributes
+ * with {@link Proper.Info#getAttribute(AttributeKey)} is therefore a plain array access,
+ * instead of a hash lookup by name:</p>
+ * <pre><code>
+ *   static final AttributeKey&lt;String&gt; DESCRIPTION = AttributeKey.of("description", String.class);
+ *   ...
+ *   Proper.tyBuilder("my.key", 1).attribute(DESCRIPTION, "My property").build();
+ *   ...
+ *   String description = property.getInfo().getAttribute(DESCRIPTION);
+ * </code></pre>
+ * <p>Attributes set using plain attribute maps (see {@link PropertyBuilder#attributes(java.util.Map)})
+ * are accessible using attribute keys of the same name as well.</p>
+ *
+ * @param <T> Attribute value type
+ * @author rodexion
+ * @since 0.1
+ */
+public final class AttributeKey<T> {
+  private static final ConcurrentMap<String, AttributeKey<?>> registry = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, Integer> slots = new ConcurrentHashMap<>();
+  /**
+   * <p>Attribute names by slot, replaced whenever a name is added.</p>
+   */
+  private static volatile String[] names = new String[0];
+
+  /**
+   * <p>Attribute name (not-null)</p>
+   */
+  @Getter
+  private final String name;
+  /**
+   * <p>Attribute value type (not-null)</p>
+   */
+  @Getter
+  private final Class<T> type;
+  final int slot;
+
+  private AttributeKey(String name, Class<T> type, int slot) {
+    this.name = name;
+    this.type = type;
+    this.slot = slot;
+  }
+
+  /**
+   * <p>Retrieve the attribute key of the given name, registering it if necessary.</p>
+   *
+   * @param name Attribute name (not-null)
+   * @param type Attribute value type, primitive types are not allowed (not-null)
+   * @param <T>  Attribute value type
+   * @return Attribute key (not-null)
+   * @throws IllegalArgumentException If the key has already been registered with a different type
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> AttributeKey<T> of(String name, Class<T> type) {
+    checkNotNull("name", name);
+    checkNotNull("type", type);
+    if (type.isPrimitive()) {
+      throw new IllegalArgumentException("Attribute type of '" + name + "' has to be a reference type: " + type);
+    }
+    AttributeKey<?> key = registry.get(name);
+    if (null == key) {
+      AttributeKey<?> newKey = new AttributeKey<>(name, type, slotOf(name));
+      key = registry.putIfAbsent(name, newKey);
+      if (null == key) {
+        key = newKey;
+      }
+    }
+    if (!key.type.equals(type)) {
+      throw new IllegalArgumentException("Attribute '" + name + "' is already registered with type " +
+              key.type.getName() + ", not " + type.getName());
+    }
+    return (AttributeKey<T>) key;
+  }
+
+  /**
+   * <p>Retrieve the slot of the given attribute name, assigning it if necessary.
+   * Slots are assigned to all attribute names, including those which are only
+   * ever set using plain attribute maps, and never change.</p>
+   *
+   * @param name Attribute name (not-null)
+   * @return Slot of the attribute name
+   */
+  static int slotOf(String name) {
+    Integer slot = slots.get(name);
+    if (null == slot) {
+      synchronized (slots) {
+        slot = slots.get(name);
+        if (null == slot) {
+          slot = names.length;
+          String[] newNames = Arrays.copyOf(names, slot + 1);
+          newNames[slot] = name;
+          names = newNames;
+          slots.put(name, slot);
+        }
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * @param name Attribute name (not-null)
+   * @return Slot of the attribute name, or -1 if none was assigned yet
+   */
+  static int assignedSlot(String name) {
+    Integer slot = slots.get(name);
+    return null == slot ? -1 : slot;
+  }
+
+  /**
+   * @param slot Slot previously returned by {@link #slotOf(String)}
+   * @return Attribute name of the given slot (not-null)
+   */
+  static String nameOf(int slot) {
+    return names[slot];
+  }
+
+  @Override
+  public String toString() {
+    return "AttributeKey(" + name + ": " + type.getSimpleName() + ')';
+  }
+}
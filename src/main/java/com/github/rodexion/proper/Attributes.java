@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import com.github.rodexion.proper.util.Interner;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>Immutable, compact storage of custom property attributes.</p>
+ * <p>Every attribute name has a fixed slot (see {@link AttributeKey}), and attribute values
+ * are stored in a single array, at the slot of their name. The attribute set is its own
+ * unmodifiable map view, entries are produced from the slots while iterating, in slot order.
+ * Identical attribute sets are interned and shared by all properties declaring them.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class Attributes extends AbstractMap<String, Object> {
+  private static final Interner<Attributes> interner = new Interner<>();
+  /**
+   * <p>Slot value of attributes explicitly set to <code>null</code>.</p>
+   */
+  private static final Object NULL = new Object();
+
+  static final Attributes EMPTY = new Attributes(new Object[0], 0);
+
+  private final Object[] slots;
+  private final int size;
+
+  private Attributes(Object[] slots, int size) {
+    this.slots = slots;
+    this.size = size;
+  }
+
+  /**
+   * <p>Retrieve the shared attribute set equal to the given attribute map.</p>
+   *
+   * @param attributes Attribute map, copied defensively (not-null)
+   * @return Attribute set (not-null)
+   */
+  static Attributes of(Map<String, Object> attributes) {
+    if (attributes.isEmpty()) {
+      return EMPTY;
+    }
+    int[] entrySlots = new int[attributes.size()];
+    int length = 0;
+    int i = 0;
+    for (String name : attributes.keySet()) {
+      entrySlots[i] = AttributeKey.slotOf(name);
+      length = Math.max(length, entrySlots[i++] + 1);
+    }
+    Object[] slots = new Object[length];
+    i = 0;
+    for (Object value : attributes.values()) {
+      slots[entrySlots[i++]] = null == value ? NULL : value;
+    }
+    return interner.intern(new Attributes(slots, attributes.size()));
+  }
+
+  <T> T get(AttributeKey<T> key) {
+    Object value = key.slot < slots.length ? slots[key.slot] : null;
+    return NULL == value ? null : key.getType().cast(value);
+  }
+
+  @Override
+  public Object get(Object name) {
+    Object value = slotValue(name);
+    return NULL == value ? null : value;
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return null != slotValue(name);
+  }
+
+  private Object slotValue(Object name) {
+    int slot = name instanceof String ? AttributeKey.assignedSlot((String) name) : -1;
+    return 0 <= slot && slot < slots.length ? slots[slot] : null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new Iterator<Entry<String, Object>>() {
+          private int next = advance(0);
+
+          private int advance(int from) {
+            while (from < slots.length && null == slots[from]) {
+              from++;
+            }
+            return from;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next < slots.length;
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            int slot = next;
+            next = advance(slot + 1);
+            Object value = slots[slot];
+            return new SimpleImmutableEntry<>(AttributeKey.nameOf(slot), NULL == value ? null : value);
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof Attributes) {
+      return this == o || Arrays.equals(slots, ((Attributes) o).slots);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (null != slots[slot]) {
+        Object value = slots[slot];
+        hash += AttributeKey.nameOf(slot).hashCode() ^ (NULL == value ? 0 : value.hashCode());
+      }
+    }
+    return hash;
+  }
+}
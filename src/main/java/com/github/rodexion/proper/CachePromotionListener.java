@@ -0,0 +1,48 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+/**
+ * <p>Property listener which is also notified when {@link AdaptiveCaching adaptive caching}
+ * promotes or demotes a property. Other listeners are not told about it.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public interface CachePromotionListener extends PropertyListener {
+  /**
+   * <p>Triggered when a frequently read property starts caching converted values
+   * (see {@link AdaptiveCaching}).</p>
+   *
+   * @param info           Property meta data (not-null)
+   * @param readsPerSecond Sampled read rate
+   */
+  void cachePromoted(Proper.Info<?> info, long readsPerSecond);
+
+  /**
+   * <p>Triggered when a property stops caching converted values, as it is no longer
+   * read frequently (see {@link AdaptiveCaching}).</p>
+   *
+   * @param info           Property meta data (not-null)
+   * @param readsPerSecond Sampled read rate
+   */
+  void cacheDemoted(Proper.Info<?> info, long readsPerSecond);
+}
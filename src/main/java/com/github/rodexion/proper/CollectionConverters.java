@@ -0,0 +1,476 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import com.github.rodexion.proper.util.CharRanges;
+import com.github.rodexion.proper.util.NumberParser;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * <p>Converters of delimited values to lists, sets, maps and arrays
+ * (see {@link Converters#collectionConverter(Class, ConverterProvider)}).</p>
+ * <p>Raw values are tokenized in place, elements are only copied out of the raw value
+ * to be handed over to their element converter, and integral primitive arrays are parsed
+ * without copying at all. Each converter remembers its last conversion, failed or not, so
+ * repeated reads of an unchanged value do not parse again. Failures are reported as failed
+ * results with an {@link ErrorCode}, without throwing exceptions.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class CollectionConverters {
+  /**
+   * <p>Marks a failed parse, as <code>null</code> may be a converted element.</p>
+   */
+  private static final Object FAILED = new Object();
+
+  static boolean isCollectionType(Class<?> type) {
+    return type.isArray() || List.class.equals(type) || Collection.class.equals(type) ||
+            Iterable.class.equals(type) || Set.class.equals(type) || Map.class.equals(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> Converter<T> converterFor(Class<T> type, ConverterProvider elementProvider) {
+    if (type.isArray()) {
+      return (Converter<T>) new ArrayConverter(type, elementProvider);
+    } else if (Set.class.equals(type)) {
+      return (Converter<T>) new SetConverter(type, elementProvider);
+    } else if (Map.class.equals(type)) {
+      return (Converter<T>) new MapConverter(type, elementProvider);
+    } else if (isCollectionType(type)) {
+      return (Converter<T>) new ListConverter(type, elementProvider);
+    }
+    return Converters.voidConverter();
+  }
+
+  /**
+   * <p>Remembers the last conversion, and resolves element converters
+   * once per property.</p>
+   */
+  private static abstract class MemoizingConverter implements Converter<Object> {
+    private final Class<?> type;
+    private final ConverterProvider elementProvider;
+    private volatile Memo memo;
+    private volatile Elements elements;
+
+    MemoizingConverter(Class<?> type, ConverterProvider elementProvider) {
+      this.type = type;
+      this.elementProvider = elementProvider;
+    }
+
+    @Override
+    public boolean canConvert(Class<?> type) {
+      return this.type.equals(type);
+    }
+
+    @Override
+    public Result<Object> convert(String key, String value, Proper.Info<Object> info) {
+      if (null == value) {
+        return Result.fail(ErrorCode.CONVERSION_FAILED, null, info.getKey(), info.getType().getCanonicalName());
+      }
+      Memo last = memo;
+      if (null == last || last.info != info || !last.value.equals(value)) {
+        Parsing parsing = new Parsing(key, value, info);
+        Object converted = parse(parsing, elementsOf(info));
+        last = FAILED == converted
+                ? new Memo(info, value, null, parsing.failure)
+                : new Memo(info, value, converted, null);
+        memo = last;
+      }
+      return null == last.failure ? Result.ok(share(last.converted)) : last.failure;
+    }
+
+    /**
+     * <p>Parse the whole raw value.</p>
+     *
+     * @return Converted value, or {@link #FAILED} with the failure set on the parsing
+     */
+    abstract Object parse(Parsing parsing, Elements elements);
+
+    /**
+     * <p>Prepare a converted value to be handed out. Immutable values are shared as is.</p>
+     */
+    Object share(Object converted) {
+      return converted;
+    }
+
+    abstract Class<?> elementType(Proper.Info<?> info);
+
+    Class<?> keyType(Proper.Info<?> info) {
+      return String.class;
+    }
+
+    private Elements elementsOf(Proper.Info<?> info) {
+      Elements current = elements;
+      if (null == current || current.info != info) {
+        current = new Elements(info,
+                element(keyType(info), info, elementProvider),
+                element(elementType(info), info, elementProvider));
+        elements = current;
+      }
+      return current;
+    }
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "(type=" + type + ')';
+    }
+  }
+
+  private static final class ListConverter extends MemoizingConverter {
+    ListConverter(Class<?> type, ConverterProvider elementProvider) {
+      super(type, elementProvider);
+    }
+
+    @Override
+    Class<?> elementType(Proper.Info<?> info) {
+      return attributeOr(info, Converters.ELEMENT_TYPE, String.class);
+    }
+
+    @Override
+    Object parse(Parsing parsing, Elements elements) {
+      List<Object> list = new ArrayList<>(elementCount(parsing.value, elementDelimiter(parsing.info)));
+      return parseElements(parsing, elements.value, list) ? Collections.unmodifiableList(list) : FAILED;
+    }
+  }
+
+  private static final class SetConverter extends MemoizingConverter {
+    SetConverter(Class<?> type, ConverterProvider elementProvider) {
+      super(type, elementProvider);
+    }
+
+    @Override
+    Class<?> elementType(Proper.Info<?> info) {
+      return attributeOr(info, Converters.ELEMENT_TYPE, String.class);
+    }
+
+    @Override
+    Object parse(Parsing parsing, Elements elements) {
+      Set<Object> set = new LinkedHashSet<>();
+      return parseElements(parsing, elements.value, set) ? Collections.unmodifiableSet(set) : FAILED;
+    }
+  }
+
+  private static final class MapConverter extends MemoizingConverter {
+    MapConverter(Class<?> type, ConverterProvider elementProvider) {
+      super(type, elementProvider);
+    }
+
+    @Override
+    Class<?> keyType(Proper.Info<?> info) {
+      return attributeOr(info, Converters.MAP_KEY_TYPE, String.class);
+    }
+
+    @Override
+    Class<?> elementType(Proper.Info<?> info) {
+      return attributeOr(info, Converters.ELEMENT_TYPE, String.class);
+    }
+
+    @Override
+    Object parse(Parsing parsing, Elements elements) {
+      String value = parsing.value;
+      char entryDelimiter = attributeOr(parsing.info, Converters.ENTRY_DELIMITER, ';');
+      char separator = attributeOr(parsing.info, Converters.KEY_VALUE_SEPARATOR, '=');
+      Map<Object, Object> map = new LinkedHashMap<>();
+      int end = CharRanges.trimEnd(value, 0, value.length());
+      int start = CharRanges.trimStart(value, 0, end);
+      int index = 0;
+      while (start < end) {
+        int entryEnd = CharRanges.indexOf(value, entryDelimiter, start, end);
+        if (entryEnd < 0) {
+          entryEnd = end;
+        }
+        int sep = CharRanges.indexOf(value, separator, start, entryEnd);
+        if (sep < 0) {
+          return parsing.fail(ErrorCode.ENTRY_SEPARATOR_MISSING, index, separator);
+        }
+        Object mapKey = elements.key.convert(parsing, start, sep, index);
+        if (FAILED == mapKey) {
+          return FAILED;
+        }
+        Object mapValue = elements.value.convert(parsing, sep + 1, entryEnd, index);
+        if (FAILED == mapValue) {
+          return FAILED;
+        }
+        map.put(mapKey, mapValue);
+        index++;
+        start = entryEnd + 1;
+      }
+      return Collections.unmodifiableMap(map);
+    }
+  }
+
+  private static final class ArrayConverter extends MemoizingConverter {
+    private final Class<?> componentType;
+
+    ArrayConverter(Class<?> type, ConverterProvider elementProvider) {
+      super(type, elementProvider);
+      this.componentType = type.getComponentType();
+    }
+
+    @Override
+    Class<?> elementType(Proper.Info<?> info) {
+      return componentType;
+    }
+
+    @Override
+    Object parse(Parsing parsing, Elements elements) {
+      String value = parsing.value;
+      char delimiter = elementDelimiter(parsing.info);
+      int end = CharRanges.trimEnd(value, 0, value.length());
+      int start = CharRanges.trimStart(value, 0, end);
+      Object array = Array.newInstance(componentType, elementCount(value, delimiter));
+      int index = 0;
+      while (start < end) {
+        int elementEnd = CharRanges.indexOf(value, delimiter, start, end);
+        if (elementEnd < 0) {
+          elementEnd = end;
+        }
+        if (!setElement(parsing, array, index, start, elementEnd, elements.value)) {
+          return FAILED;
+        }
+        index++;
+        start = elementEnd + 1;
+      }
+      return array;
+    }
+
+    private boolean setElement(Parsing parsing, Object array, int index, int from, int to, Element<?> element) {
+      String value = parsing.value;
+      int f = CharRanges.trimStart(value, from, to);
+      int t = CharRanges.trimEnd(value, f, to);
+      long min;
+      long max;
+      if (int.class.equals(componentType)) {
+        min = Integer.MIN_VALUE;
+        max = Integer.MAX_VALUE;
+      } else if (long.class.equals(componentType)) {
+        min = Long.MIN_VALUE;
+        max = Long.MAX_VALUE;
+      } else if (short.class.equals(componentType)) {
+        min = Short.MIN_VALUE;
+        max = Short.MAX_VALUE;
+      } else if (byte.class.equals(componentType)) {
+        min = Byte.MIN_VALUE;
+        max = Byte.MAX_VALUE;
+      } else {
+        Object converted = element.convert(parsing, from, to, index);
+        if (FAILED == converted) {
+          return false;
+        }
+        if (null == converted && componentType.isPrimitive()) {
+          parsing.fail(ErrorCode.ELEMENT_CONVERSION_FAILED, index,
+                  Converter.Result.fail(ErrorCode.CONVERSION_FAILED, null, parsing.key, componentType.getName()));
+          return false;
+        }
+        Array.set(array, index, converted);
+        return true;
+      }
+      NumberParser parser = parsing.numbers();
+      if (parser.parseLong(value, f, t, min, max) != NumberParser.OK) {
+        parsing.fail(ErrorCode.ELEMENT_CONVERSION_FAILED, index,
+                Converter.Result.fail(ErrorCode.CONVERSION_FAILED, value.substring(f, t), parsing.key,
+                        componentType.getName()));
+        return false;
+      }
+      long parsed = parser.getLongValue();
+      if (int.class.equals(componentType)) {
+        ((int[]) array)[index] = (int) parsed;
+      } else if (long.class.equals(componentType)) {
+        ((long[]) array)[index] = parsed;
+      } else if (short.class.equals(componentType)) {
+        ((short[]) array)[index] = (short) parsed;
+      } else {
+        ((byte[]) array)[index] = (byte) parsed;
+      }
+      return true;
+    }
+
+    @Override
+    Object share(Object converted) {
+      //Arrays are mutable, hand out copies of the parsed array
+      int length = Array.getLength(converted);
+      Object copy = Array.newInstance(componentType, length);
+      System.arraycopy(converted, 0, copy, 0, length);
+      return copy;
+    }
+  }
+
+  /**
+   * @return <code>false</code> if an element has failed, with the failure set on the parsing
+   */
+  private static boolean parseElements(Parsing parsing, Element<?> element, Collection<Object> out) {
+    String value = parsing.value;
+    char delimiter = elementDelimiter(parsing.info);
+    int end = CharRanges.trimEnd(value, 0, value.length());
+    int start = CharRanges.trimStart(value, 0, end);
+    int index = 0;
+    while (start < end) {
+      int elementEnd = CharRanges.indexOf(value, delimiter, start, end);
+      if (elementEnd < 0) {
+        elementEnd = end;
+      }
+      Object converted = element.convert(parsing, start, elementEnd, index);
+      if (FAILED == converted) {
+        return false;
+      }
+      out.add(converted);
+      index++;
+      start = elementEnd + 1;
+    }
+    return true;
+  }
+
+  /**
+   * @return Number of elements in the raw value, none for blank values, ignoring a trailing delimiter
+   */
+  private static int elementCount(String value, char delimiter) {
+    int end = CharRanges.trimEnd(value, 0, value.length());
+    int start = CharRanges.trimStart(value, 0, end);
+    if (start == end) {
+      return 0;
+    }
+    int count = CharRanges.count(value, delimiter, start, end) + 1;
+    return value.charAt(end - 1) == delimiter ? count - 1 : count;
+  }
+
+  private static char elementDelimiter(Proper.Info<?> info) {
+    return attributeOr(info, Converters.ELEMENT_DELIMITER, ',');
+  }
+
+  private static <V> V attributeOr(Proper.Info<?> info, AttributeKey<V> key, V defaultValue) {
+    V value = info.getAttribute(key);
+    return null == value ? defaultValue : value;
+  }
+
+  private static <E> Element<E> element(Class<E> type, Proper.Info<?> owner, ConverterProvider provider) {
+    Proper.Info<E> info = new Proper.Info<>(owner.getKey(), type, null, Collections.<String, Object>emptyMap());
+    return new Element<>(info, provider.getConverter(type));
+  }
+
+  /**
+   * <p>Converter of a single element, given by its range within the raw value.</p>
+   */
+  private static final class Element<E> {
+    private final Proper.Info<E> info;
+    private final Converter<E> converter;
+
+    Element(Proper.Info<E> info, Converter<E> converter) {
+      this.info = info;
+      this.converter = converter;
+    }
+
+    /**
+     * @return Converted element, or {@link #FAILED} with the failure set on the parsing
+     */
+    Object convert(Parsing parsing, int from, int to, int index) {
+      String value = parsing.value;
+      int f = CharRanges.trimStart(value, from, to);
+      String element = value.substring(f, CharRanges.trimEnd(value, f, to));
+      Converter.Result<E> result = converter.convert(parsing.key, element, info);
+      if (result.isOk()) {
+        return result.getValue();
+      } else if (result.isSkip() && info.getType().isAssignableFrom(String.class)) {
+        return element;
+      }
+      return parsing.fail(ErrorCode.ELEMENT_CONVERSION_FAILED, index,
+              result.isSkip() ? Converter.Result.fail(ErrorCode.NO_CONVERTER) : result);
+    }
+  }
+
+  /**
+   * <p>Key and value element converters resolved for a property.</p>
+   */
+  private static final class Elements {
+    private final Proper.Info<?> info;
+    private final Element<?> key;
+    private final Element<?> value;
+
+    Elements(Proper.Info<?> info, Element<?> key, Element<?> value) {
+      this.info = info;
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * <p>State of a single conversion: the raw value, the number parser shared by its
+   * elements, and the failure, if any.</p>
+   */
+  private static final class Parsing {
+    private final String key;
+    private final String value;
+    private final Proper.Info<?> info;
+    private NumberParser numbers;
+    private Converter.Result<Object> failure;
+
+    Parsing(String key, String value, Proper.Info<?> info) {
+      this.key = key;
+      this.value = value;
+      this.info = info;
+    }
+
+    NumberParser numbers() {
+      if (null == numbers) {
+        numbers = new NumberParser();
+      }
+      return numbers;
+    }
+
+    /**
+     * <p>Record a failure of the whole value, whose arguments are the value, key and type
+     * name of the property, followed by the given ones.</p>
+     *
+     * @return {@link #FAILED}
+     */
+    Object fail(ErrorCode errorCode, Object... args) {
+      Object[] errorArgs = new Object[3 + args.length];
+      errorArgs[0] = value;
+      errorArgs[1] = info.getKey();
+      errorArgs[2] = info.getType().getCanonicalName();
+      System.arraycopy(args, 0, errorArgs, 3, args.length);
+      failure = Converter.Result.fail(errorCode, errorArgs);
+      return FAILED;
+    }
+  }
+
+  /**
+   * <p>Last conversion, either converted or failed.</p>
+   */
+  private static final class Memo {
+    private final Proper.Info<?> info;
+    private final String value;
+    private final Object converted;
+    private final Converter.Result<Object> failure;
+
+    Memo(Proper.Info<?> info, String value, Object converted, Converter.Result<Object> failure) {
+      this.info = info;
+      this.value = value;
+      this.converted = converted;
+      this.failure = failure;
+    }
+  }
+
+  private CollectionConverters() {
+  }
+}
@@ -46,9 +46,9 @@ public class ConversionException extends RuntimeException {
   }
 
   public static String couldNotConvertMessage(String value, String key, String typeName) {
-    return String.format("Could not convert property: key=\"%s\" value=\"%s\" type=\"%s\"",
-            key,
-            value,
-            typeName);
+    //Plain concatenation, String.format is needlessly expensive for failing reads
+    return "Could not convert property: key=\"" + key +
+            "\" value=\"" + value +
+            "\" type=\"" + typeName + '"';
   }
 }
@@ -20,8 +20,13 @@
 
 package com.github.rodexion.proper;
 
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
 import com.github.rodexion.proper.util.Opt;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
 
 /**
  * * <p>Used for converting properties from String type to
@@ -30,12 +35,40 @@ import lombok.Data;
  * @param <T> Conversion target type
  */
 public interface Converter<T> {
-  @Data
+  /**
+   * <p>Outcome of a conversion. Failures keep an {@link ErrorCode} and its arguments,
+   * the error message is only formatted once requested.</p>
+   */
+  @Getter
   public static class Result<T> {
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final Result<?> SKIP = new Result<>(null, false, true, null, NO_ARGS);
+
     private final T value;
     private final boolean ok;
     private final boolean skip;
-    private final String errorMessage;
+    /**
+     * <p>Error code of a failed conversion (maybe-null)</p>
+     */
+    private final ErrorCode errorCode;
+    @Getter(AccessLevel.NONE)
+    private final Object[] errorArgs;
+    @Getter(AccessLevel.NONE)
+    private String errorMessage;
+
+    public Result(T value, boolean ok, boolean skip, String errorMessage) {
+      this(value, ok, skip, null == errorMessage ? null : ErrorCode.MESSAGE,
+              null == errorMessage ? NO_ARGS : new Object[]{errorMessage});
+      this.errorMessage = errorMessage;
+    }
+
+    private Result(T value, boolean ok, boolean skip, ErrorCode errorCode, Object[] errorArgs) {
+      this.value = value;
+      this.ok = ok;
+      this.skip = skip;
+      this.errorCode = errorCode;
+      this.errorArgs = errorArgs;
+    }
 
     /**
      * <p>A successful result</p>
@@ -45,7 +78,7 @@ public interface Converter<T> {
      * @return Result object (not-null)
      */
     public static final <T> Result<T> ok(T value) {
-      return new Result<>(value, true, false, null);
+      return new Result<>(value, true, false, null, NO_ARGS);
     }
 
     /**
@@ -59,6 +92,18 @@ public interface Converter<T> {
       return new Result<>(null, false, false, errorMessage);
     }
 
+    /**
+     * <p>An unsuccessful result, with the error message formatted on demand.</p>
+     *
+     * @param errorCode Error that had caused the failure (not-null)
+     * @param errorArgs Error message arguments (not-null)
+     * @param <T>       Conversion target type
+     * @return Result object (not-null)
+     */
+    public static final <T> Result<T> fail(ErrorCode errorCode, Object... errorArgs) {
+      return new Result<>(null, false, false, checkNotNull("errorCode", errorCode), errorArgs);
+    }
+
     /**
      * <p>An indication that the current converter is not in charge
      * of handling this kind of property conversion. Conversion should
@@ -67,8 +112,9 @@ public interface Converter<T> {
      * @param <T> Conversion target type
      * @return Result object (not-null)
      */
+    @SuppressWarnings("unchecked")
     public static final <T> Result<T> skip() {
-      return new Result<>(null, false, true, null);
+      return (Result<T>) SKIP;
     }
 
     /**
@@ -88,6 +134,58 @@ public interface Converter<T> {
     public boolean isFailure() {
       return !ok && !skip;
     }
+
+    /**
+     * <p>Error message of a failed conversion, formatted on first request.</p>
+     *
+     * @return Error message (maybe-null)
+     */
+    public String getErrorMessage() {
+      if (null == errorMessage && null != errorCode) {
+        errorMessage = errorCode.format(errorArgs);
+      }
+      return errorMessage;
+    }
+
+    /**
+     * @return Copy of the error message arguments (not-null)
+     */
+    public Object[] getErrorArgs() {
+      return errorArgs.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Result)) {
+        return false;
+      }
+      Result<?> that = (Result<?>) o;
+      return ok == that.ok &&
+              skip == that.skip &&
+              (null == value ? null == that.value : value.equals(that.value)) &&
+              errorCode == that.errorCode &&
+              Arrays.equals(errorArgs, that.errorArgs);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = null == value ? 0 : value.hashCode();
+      result = 31 * result + (ok ? 1 : 0);
+      result = 31 * result + (skip ? 1 : 0);
+      result = 31 * result + (null == errorCode ? 0 : errorCode.hashCode());
+      return 31 * result + Arrays.hashCode(errorArgs);
+    }
+
+    @Override
+    public String toString() {
+      return "Converter.Result(value=" + value +
+              ", ok=" + ok +
+              ", skip=" + skip +
+              ", errorMessage=" + getErrorMessage() + ')';
+    }
   }
 
   boolean canConvert(Class<?> type);
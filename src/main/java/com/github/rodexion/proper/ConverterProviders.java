@@ -76,6 +76,42 @@ public class ConverterProviders {
     return new DefaultConverterProvider();
   }
 
+  /**
+   * <p>Provides converters of delimited values to lists, sets, maps and arrays, whose elements
+   * are converted by the given provider (see {@link Converters#collectionConverter(Class, ConverterProvider)}).
+   * Collection types are supported by {@link #defaultConverterProvider()} as well.</p>
+   *
+   * @param elementProvider Provider of element converters (not-null)
+   * @return Converter provider object (not-null)
+   */
+  public static ConverterProvider collectionConverterProvider(final ConverterProvider elementProvider) {
+    checkNotNull("elementProvider", elementProvider);
+    return new ConverterProvider() {
+      @Override
+      public <T> Converter<T> getConverter(Class<T> forType) {
+        return null == forType ? Converters.<T>voidConverter() : Converters.collectionConverter(forType, elementProvider);
+      }
+    };
+  }
+
+  /**
+   * <p>Provides converters of value types which parse themselves (see
+   * {@link Converters#reflectiveConverter(Class)}). Converters are created once per type
+   * and kept by the returned provider, so the provider should be shared rather than
+   * created per property. Combine with the default provider for the basic types:</p>
+   * <pre><code>
+   *   ConverterProviders.builder()
+   *           .allFrom(ConverterProviders.defaultConverterProvider())
+   *           .allFrom(ConverterProviders.reflectiveConverterProvider())
+   *           .build();
+   * </code></pre>
+   *
+   * @return Converter provider object (not-null)
+   */
+  public static ConverterProvider reflectiveConverterProvider() {
+    return new ReflectiveConverters.CachingProvider();
+  }
+
   /**
    * <p>Provides void converter.</p>
    *
@@ -106,6 +142,8 @@ public class ConverterProviders {
           if (Enum.class.isAssignableFrom(forType)) {
             //noinspection RedundantCast
             converterOpt = Opt.some((Converter<T>) (Converter) Converters.enumConverter());
+          } else if (CollectionConverters.isCollectionType(forType)) {
+            converterOpt = Opt.some(Converters.collectionConverter(forType, this));
           }
         }
         if (!converterOpt.isNone()) {
@@ -181,6 +219,12 @@ public class ConverterProviders {
               converterChain.add((Converter<T>) converter);
             }
           }
+          //Trivial chains are not wrapped, so that reads do not go through an extra call
+          if (converterChain.isEmpty()) {
+            return Converters.voidConverter();
+          } else if (converterChain.size() == 1) {
+            return converterChain.get(0);
+          }
           return new Converter<T>() {
             @Override
             public boolean canConvert(Class<?> type) {
@@ -189,8 +233,8 @@ public class ConverterProviders {
 
             @Override
             public Result<T> convert(String key, String value, Proper.Info<T> info) {
-              for (Converter<T> converter : converterChain) {
-                Result<?> result = converter.convert(key, value, info);
+              for (int i = 0; i < converterChain.size(); i++) {
+                Result<?> result = converterChain.get(i).convert(key, value, info);
                 if (!result.isSkip()) {
                   return (Result<T>) result;
                 }
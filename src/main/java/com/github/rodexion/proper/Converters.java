@@ -22,7 +22,10 @@ package com.github.rodexion.proper;
 
 import static com.github.rodexion.proper.ConversionException.couldNotConvertMessage;
 
+import com.github.rodexion.proper.util.CharRanges;
+import com.github.rodexion.proper.util.NumberParser;
 import com.github.rodexion.proper.util.Opt;
+import com.github.rodexion.proper.util.Preconditions;
 import com.github.rodexion.proper.util.PrimitiveTypeUtil;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -41,6 +44,32 @@ import java.nio.file.Paths;
  * @since 0.1
  */
 public class Converters {
+  /**
+   * <p>Element type of list, set and map value conversions
+   * (see {@link #collectionConverter(Class, ConverterProvider)}), <code>String</code> by default.</p>
+   */
+  @SuppressWarnings("unchecked")
+  public static final AttributeKey<Class<?>> ELEMENT_TYPE =
+          (AttributeKey<Class<?>>) (AttributeKey<?>) AttributeKey.of("_element_type", Class.class);
+  /**
+   * <p>Key type of map conversions, <code>String</code> by default.</p>
+   */
+  @SuppressWarnings("unchecked")
+  public static final AttributeKey<Class<?>> MAP_KEY_TYPE =
+          (AttributeKey<Class<?>>) (AttributeKey<?>) AttributeKey.of("_map_key_type", Class.class);
+  /**
+   * <p>Delimiter of list, set and array elements, <code>','</code> by default.</p>
+   */
+  public static final AttributeKey<Character> ELEMENT_DELIMITER = AttributeKey.of("_element_delimiter", Character.class);
+  /**
+   * <p>Delimiter of map entries, <code>';'</code> by default.</p>
+   */
+  public static final AttributeKey<Character> ENTRY_DELIMITER = AttributeKey.of("_entry_delimiter", Character.class);
+  /**
+   * <p>Separator of map entry keys and values, <code>'='</code> by default.</p>
+   */
+  public static final AttributeKey<Character> KEY_VALUE_SEPARATOR = AttributeKey.of("_key_value_separator", Character.class);
+
   private static final Converter<?> voidConverter = new Converter<Object>() {
     @Override
     public boolean canConvert(Class<?> type) {
@@ -89,10 +118,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Byte> byteConverter() {
-    return new NumberBaseConverter<Byte>(Byte.class) {
+    return new ParsedNumberConverter<Byte>(Byte.class) {
+      @Override
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseLong(s, from, to, Byte.MIN_VALUE, Byte.MAX_VALUE);
+      }
+
       @Override
-      Byte parseNumber(String value) {
-        return Byte.parseByte(value);
+      Byte valueOf(NumberParser parser) {
+        return (byte) parser.getLongValue();
       }
     };
   }
@@ -103,10 +137,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Short> shortConverter() {
-    return new NumberBaseConverter<Short>(Short.class) {
+    return new ParsedNumberConverter<Short>(Short.class) {
       @Override
-      Short parseNumber(String value) {
-        return Short.parseShort(value);
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseLong(s, from, to, Short.MIN_VALUE, Short.MAX_VALUE);
+      }
+
+      @Override
+      Short valueOf(NumberParser parser) {
+        return (short) parser.getLongValue();
       }
     };
   }
@@ -117,10 +156,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Integer> intConverter() {
-    return new NumberBaseConverter<Integer>(Integer.class) {
+    return new ParsedNumberConverter<Integer>(Integer.class) {
+      @Override
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseLong(s, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      }
+
       @Override
-      Integer parseNumber(String value) {
-        return Integer.parseInt(value);
+      Integer valueOf(NumberParser parser) {
+        return (int) parser.getLongValue();
       }
     };
   }
@@ -131,10 +175,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Long> longConverter() {
-    return new NumberBaseConverter<Long>(Long.class) {
+    return new ParsedNumberConverter<Long>(Long.class) {
+      @Override
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseLong(s, from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+      }
+
       @Override
-      Long parseNumber(String value) {
-        return Long.parseLong(value);
+      Long valueOf(NumberParser parser) {
+        return parser.getLongValue();
       }
     };
   }
@@ -145,10 +194,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Float> floatConverter() {
-    return new NumberBaseConverter<Float>(Float.class) {
+    return new ParsedNumberConverter<Float>(Float.class) {
+      @Override
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseFloat(s, from, to);
+      }
+
       @Override
-      Float parseNumber(String value) {
-        return Float.parseFloat(value);
+      Float valueOf(NumberParser parser) {
+        return parser.getFloatValue();
       }
     };
   }
@@ -159,10 +213,15 @@ public class Converters {
    * @return Converter object (not-null)
    */
   public static Converter<Double> doubleConverter() {
-    return new NumberBaseConverter<Double>(Double.class) {
+    return new ParsedNumberConverter<Double>(Double.class) {
       @Override
-      Double parseNumber(String value) {
-        return Double.parseDouble(value);
+      int parse(NumberParser parser, CharSequence s, int from, int to) {
+        return parser.parseDouble(s, from, to);
+      }
+
+      @Override
+      Double valueOf(NumberParser parser) {
+        return parser.getDoubleValue();
       }
     };
   }
@@ -285,6 +344,47 @@ public class Converters {
     };
   }
 
+  /**
+   * <p>Converter of delimited values to <code>List</code> (also used for <code>Collection</code>
+   * and <code>Iterable</code>), <code>Set</code>, <code>Map</code> and arrays, e.g.
+   * <code>"a, b, c"</code> or <code>"k1=v1; k2=v2"</code>. Lists, sets and maps are
+   * unmodifiable, arrays are copied on every read.</p>
+   * <p>Elements are converted by converters of the given provider. Element types and delimiters
+   * are configured using property attributes ({@link #ELEMENT_TYPE}, {@link #MAP_KEY_TYPE},
+   * {@link #ELEMENT_DELIMITER}, {@link #ENTRY_DELIMITER}, {@link #KEY_VALUE_SEPARATOR}).
+   * Array element types are those of the array:</p>
+   * <pre><code>
+   *   Proper.tyBuilder("ports", List.class).attribute(Converters.ELEMENT_TYPE, Integer.class)
+   *   Proper.tyBuilder("ports", int[].class)
+   * </code></pre>
+   *
+   * @param type            Collection type (not-null)
+   * @param elementProvider Provider of element converters (not-null)
+   * @param <T>             Conversion target type
+   * @return Converter object, or {@link #voidConverter()} if the type is not a supported collection type (not-null)
+   */
+  public static <T> Converter<T> collectionConverter(Class<T> type, ConverterProvider elementProvider) {
+    return CollectionConverters.converterFor(
+            Preconditions.checkNotNull("type", type),
+            Preconditions.checkNotNull("elementProvider", elementProvider));
+  }
+
+  /**
+   * <p>Converter of value types which parse themselves, using the first of their public
+   * <code>static valueOf(String)</code>, <code>static parse(CharSequence)</code>,
+   * <code>static of(String)</code> methods or <code>(String)</code> constructor.
+   * The factory is looked up once and invoked through a method handle, without reflection
+   * on conversion. Exceptions thrown by the factory are conversion failures.</p>
+   *
+   * @param type Value type (not-null)
+   * @param <T>  Conversion target type
+   * @return Converter object, or {@link #voidConverter()} if the type has no such factory (not-null)
+   * @see ConverterProviders#reflectiveConverterProvider()
+   */
+  public static <T> Converter<T> reflectiveConverter(Class<T> type) {
+    return ReflectiveConverters.converterFor(Preconditions.checkNotNull("type", type));
+  }
+
   private static void checkNotNull(Object value, Proper.Info<?> info) {
     if (null == value) {
       throw new ConversionException(null, info, new NullPointerException("value is null"));
@@ -313,15 +413,16 @@ public class Converters {
       try {
         return parseNumber(v);
       } catch (NumberFormatException e) {
-        throw new ConversionException(couldNotConvertMessage(value,
-                info.getKey(),
-                typeClass2.getOr(getTypeClass()).getCanonicalName()),
-                e);
+        throw new ConversionException(couldNotConvertMessage(value, info.getKey(), typeName()), e);
       }
     }
 
     abstract T parseNumber(String value);
 
+    String typeName() {
+      return typeClass2.getOr(getTypeClass()).getCanonicalName();
+    }
+
 
     @Override
     public String toString() {
@@ -332,6 +433,46 @@ public class Converters {
     }
   }
 
+  /**
+   * <p>Number converter parsing primitive numbers with {@link NumberParser}, so that
+   * invalid values are rejected without throwing and catching exceptions.</p>
+   */
+  private static abstract class ParsedNumberConverter<T> extends NumberBaseConverter<T> {
+    ParsedNumberConverter(Class<T> typeClass) {
+      super(typeClass);
+    }
+
+    @Override
+    public Result<T> convert(String key, String value, Proper.Info<T> info) {
+      if (null == value) {
+        return super.convert(key, value, info);
+      }
+      int to = CharRanges.trimEnd(value, 0, value.length());
+      int from = CharRanges.trimStart(value, 0, to);
+      NumberParser parser = new NumberParser();
+      if (parse(parser, value, from, to) != NumberParser.OK) {
+        return fail(ErrorCode.CONVERSION_FAILED, value, info.getKey(), typeName());
+      }
+      return ok(valueOf(parser));
+    }
+
+    @Override
+    final T parseNumber(String value) {
+      NumberParser parser = new NumberParser();
+      if (parse(parser, value, 0, value.length()) != NumberParser.OK) {
+        throw new NumberFormatException("For input string: \"" + value + '"');
+      }
+      return valueOf(parser);
+    }
+
+    /**
+     * @return Status code of {@link NumberParser}
+     */
+    abstract int parse(NumberParser parser, CharSequence s, int from, int to);
+
+    abstract T valueOf(NumberParser parser);
+  }
+
   /**
    * <p>Base class for creating custom converter objects.</p>
    *
@@ -349,6 +490,10 @@ public class Converters {
       return Result.fail(errorMessage);
     }
 
+    public final Result<T> fail(ErrorCode errorCode, Object... errorArgs) {
+      return Result.fail(errorCode, errorArgs);
+    }
+
     @Override
     public boolean canConvert(Class<?> type) {
       return type.equals(typeClass);
@@ -0,0 +1,41 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import java.util.SortedMap;
+
+/**
+ * <p>Property source which can list its properties, e.g. to resolve
+ * {@link PropertyGroup property groups}.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public interface EnumerablePropertySource extends PropertySource {
+  /**
+   * <p>All properties of the source, sorted by key. The same map instance is returned
+   * as long as the properties do not change, so that callers may cache what they
+   * derive from it.</p>
+   *
+   * @return Immutable sorted properties (not-null)
+   */
+  SortedMap<String, String> getProperties();
+}
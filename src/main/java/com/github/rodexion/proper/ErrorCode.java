@@ -0,0 +1,225 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import lombok.Getter;
+
+/**
+ * <p>Kind of a conversion or validation failure, able to format the error
+ * message of the failure from its arguments.</p>
+ * <p>Failed {@link Converter.Result}s and {@link Validator.Result}s only keep the error code
+ * and its arguments, the error message is not formatted until it is actually requested,
+ * e.g. by a {@link PropertyListener} which {@link FailureDetailsListener#wantsFailureDetails() wants it}.
+ * Custom error codes are created by implementing {@link #format(Object[])}:</p>
+ * <pre><code>
+ *   static final ErrorCode NOT_EVEN = new ErrorCode("not_even") {
+ *     public String format(Object[] args) {
+ *       return args[0] + " is not even";
+ *     }
+ *   };
+ *   ...
+ *   return Result.fail(NOT_EVEN, value);
+ * </code></pre>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public abstract class ErrorCode {
+  /**
+   * <p>Preformatted error message. Arguments: message.</p>
+   */
+  public static final ErrorCode MESSAGE = new ErrorCode("message") {
+    @Override
+    public String format(Object[] args) {
+      return String.valueOf(args[0]);
+    }
+  };
+
+  /**
+   * <p>Value could not be converted. Arguments: value, key, type name.</p>
+   */
+  public static final ErrorCode CONVERSION_FAILED = new ErrorCode("conversion_failed") {
+    @Override
+    public String format(Object[] args) {
+      return ConversionException.couldNotConvertMessage((String) args[0], (String) args[1], (String) args[2]);
+    }
+  };
+
+  /**
+   * <p>Element of a delimited value could not be converted. Arguments: value, key, type name,
+   * element index, failed result of the element conversion.</p>
+   */
+  public static final ErrorCode ELEMENT_CONVERSION_FAILED = new ErrorCode("element_conversion_failed") {
+    @Override
+    public String format(Object[] args) {
+      return ConversionException.couldNotConvertMessage((String) args[0], (String) args[1], (String) args[2]) +
+              ": element " + args[3] + ": " + ((Converter.Result<?>) args[4]).getErrorMessage();
+    }
+  };
+
+  /**
+   * <p>Map entry has no key-value separator. Arguments: value, key, type name, entry index, separator.</p>
+   */
+  public static final ErrorCode ENTRY_SEPARATOR_MISSING = new ErrorCode("entry_separator_missing") {
+    @Override
+    public String format(Object[] args) {
+      return ConversionException.couldNotConvertMessage((String) args[0], (String) args[1], (String) args[2]) +
+              ": entry " + args[3] + " has no '" + args[4] + "' separator";
+    }
+  };
+
+  /**
+   * <p>No converter is able to convert the value. No arguments.</p>
+   */
+  public static final ErrorCode NO_CONVERTER = new ErrorCode("no_converter") {
+    @Override
+    public String format(Object[] args) {
+      return "No suitable converter found";
+    }
+  };
+
+  /**
+   * <p>Required property is missing. Arguments: key.</p>
+   */
+  public static final ErrorCode REQUIRED_PROPERTY_MISSING = new ErrorCode("required_property_missing") {
+    @Override
+    public String format(Object[] args) {
+      return "Required property '" + args[0] + "' was not found.";
+    }
+  };
+
+  /**
+   * <p>Value is below its lower bound. Arguments: value, bound.</p>
+   */
+  public static final ErrorCode LESS_THAN_MIN = new ErrorCode("less_than_min") {
+    @Override
+    public String format(Object[] args) {
+      return args[0] + " is less than " + args[1];
+    }
+  };
+
+  /**
+   * <p>Value is above its upper bound. Arguments: value, bound.</p>
+   */
+  public static final ErrorCode GREATER_THAN_MAX = new ErrorCode("greater_than_max") {
+    @Override
+    public String format(Object[] args) {
+      return args[0] + " is greater than " + args[1];
+    }
+  };
+
+  /**
+   * <p>Value does not match a pattern. Arguments: value, pattern.</p>
+   */
+  public static final ErrorCode PATTERN_MISMATCH = new ErrorCode("pattern_mismatch") {
+    @Override
+    public String format(Object[] args) {
+      return "'" + args[0] + "' does not match pattern '" + args[1] + "'";
+    }
+  };
+
+  /**
+   * <p>Value is too short or too long. Arguments: value, length, min length, max length.</p>
+   */
+  public static final ErrorCode LENGTH_OUT_OF_RANGE = new ErrorCode("length_out_of_range") {
+    @Override
+    public String format(Object[] args) {
+      return "Length " + args[1] + " of '" + args[0] + "' is not between " + args[2] + " and " + args[3];
+    }
+  };
+
+  /**
+   * <p>Value contains a character which is not allowed. Arguments: value, character index.</p>
+   */
+  public static final ErrorCode DISALLOWED_CHARACTER = new ErrorCode("disallowed_character") {
+    @Override
+    public String format(Object[] args) {
+      String value = (String) args[0];
+      int index = (Integer) args[1];
+      return "Character '" + value.charAt(index) + "' at index " + index + " of '" + value + "' is not allowed";
+    }
+  };
+
+  /**
+   * <p>Asynchronous check did not complete in time. Arguments: key, timeout in milliseconds.</p>
+   */
+  public static final ErrorCode VALIDATION_TIMED_OUT = new ErrorCode("validation_timed_out") {
+    @Override
+    public String format(Object[] args) {
+      return "Validation of '" + args[0] + "' timed out after " + args[1] + "ms";
+    }
+  };
+
+  /**
+   * <p>Asynchronous check has thrown an exception. Arguments: key, exception.</p>
+   */
+  public static final ErrorCode VALIDATION_CHECK_FAILED = new ErrorCode("validation_check_failed") {
+    @Override
+    public String format(Object[] args) {
+      return "Validation of '" + args[0] + "' failed: " + args[1];
+    }
+  };
+
+  /**
+   * <p>File does not exist or is not readable. Arguments: file.</p>
+   */
+  public static final ErrorCode FILE_NOT_READABLE = new ErrorCode("file_not_readable") {
+    @Override
+    public String format(Object[] args) {
+      return "File '" + args[0] + "' does not exist or is not readable";
+    }
+  };
+
+  /**
+   * <p>Port can not be listened on. Arguments: port.</p>
+   */
+  public static final ErrorCode PORT_IN_USE = new ErrorCode("port_in_use") {
+    @Override
+    public String format(Object[] args) {
+      return "Port " + args[0] + " is not free";
+    }
+  };
+
+  /**
+   * <p>Unique name of the error code (not-null)</p>
+   */
+  @Getter
+  private final String name;
+
+  protected ErrorCode(String name) {
+    this.name = checkNotNull("name", name);
+  }
+
+  /**
+   * <p>Format error message.</p>
+   *
+   * @param args Error arguments, as passed along with this code (not-null)
+   * @return Error message (not-null)
+   */
+  public abstract String format(Object[] args);
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
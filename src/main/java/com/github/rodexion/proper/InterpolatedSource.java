@@ -0,0 +1,295 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <p>Property source whose values may refer to other properties of the source with
+ * <code>${key}</code> placeholders, or <code>${key:default}</code> to fall back to a default
+ * value when the key is missing, e.g. <code>base.dir=${app.home}/data</code>. Placeholders
+ * of missing keys without defaults are kept as they are.</p>
+ * <p>Values are parsed once, and resolved when the source is {@link #update(Map) updated},
+ * so a lookup is a single hash lookup. Updates only resolve again the changed keys, and the
+ * keys depending on them, directly or not. Cyclic references are rejected by updates, which
+ * then leave the source unchanged.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class InterpolatedSource implements EnumerablePropertySource {
+  private State state = new State(Collections.<String, String>emptyMap(), Collections.<String, Template>emptyMap(),
+          Collections.<String, Set<String>>emptyMap(), Collections.<String, String>emptyMap());
+  private volatile Map<String, String> resolved = state.resolved;
+  private volatile SortedMap<String, String> sorted = Collections.unmodifiableSortedMap(new TreeMap<String, String>());
+
+  InterpolatedSource() {
+  }
+
+  /**
+   * <p>Create a source interpolating the given properties.</p>
+   *
+   * @param properties Raw property values (not-null)
+   * @return Interpolated source (not-null)
+   * @throws IllegalArgumentException If there are cyclic references
+   */
+  public static InterpolatedSource of(Map<String, String> properties) {
+    InterpolatedSource source = new InterpolatedSource();
+    source.update(properties);
+    return source;
+  }
+
+  @Override
+  public String getProperty(String key) {
+    return resolved.get(key);
+  }
+
+  /**
+   * @return Resolved properties, the same instance until the next update changing them (not-null)
+   */
+  @Override
+  public SortedMap<String, String> getProperties() {
+    return sorted;
+  }
+
+  Map<String, String> getResolved() {
+    return resolved;
+  }
+
+  /**
+   * <p>Replace the raw properties, and resolve again those whose value or dependencies changed.</p>
+   *
+   * @param properties New raw property values (not-null)
+   * @return Keys which were resolved again (not-null)
+   * @throws IllegalArgumentException If there are cyclic references
+   */
+  public synchronized Set<String> update(Map<String, String> properties) {
+    Map<String, String> raw = new HashMap<>(checkNotNull("properties", properties));
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, String> entry : raw.entrySet()) {
+      if (!entry.getValue().equals(state.raw.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String key : state.raw.keySet()) {
+      if (!raw.containsKey(key)) {
+        changed.add(key);
+      }
+    }
+    if (changed.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    Map<String, Template> templates = new HashMap<>(state.templates);
+    Map<String, Set<String>> dependents = copyOf(state.dependents);
+    for (String key : changed) {
+      Template previous = templates.remove(key);
+      if (null != previous) {
+        for (String reference : previous.references) {
+          Set<String> keys = dependents.get(reference);
+          keys.remove(key);
+          if (keys.isEmpty()) {
+            dependents.remove(reference);
+          }
+        }
+      }
+      String value = raw.get(key);
+      if (null != value) {
+        Template template = Template.parse(value);
+        templates.put(key, template);
+        for (String reference : template.references) {
+          Set<String> keys = dependents.get(reference);
+          if (null == keys) {
+            keys = new HashSet<>();
+            dependents.put(reference, keys);
+          }
+          keys.add(key);
+        }
+      }
+    }
+
+    Set<String> affected = dependentsOf(changed, dependents);
+    Map<String, String> values = new HashMap<>(state.resolved);
+    values.keySet().removeAll(affected);
+    Resolver resolver = new Resolver(raw, templates, values);
+    for (String key : affected) {
+      if (raw.containsKey(key)) {
+        resolver.resolve(key);
+      }
+    }
+    state = new State(raw, templates, dependents, Collections.unmodifiableMap(values));
+    resolved = state.resolved;
+    sorted = Collections.unmodifiableSortedMap(new TreeMap<>(values));
+    return Collections.unmodifiableSet(affected);
+  }
+
+  private static Map<String, Set<String>> copyOf(Map<String, Set<String>> dependents) {
+    Map<String, Set<String>> copy = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : dependents.entrySet()) {
+      copy.put(entry.getKey(), new HashSet<>(entry.getValue()));
+    }
+    return copy;
+  }
+
+  private static Set<String> dependentsOf(Set<String> changed, Map<String, Set<String>> dependents) {
+    Set<String> affected = new HashSet<>(changed);
+    Deque<String> pending = new ArrayDeque<>(changed);
+    while (!pending.isEmpty()) {
+      Set<String> keys = dependents.get(pending.pop());
+      if (null != keys) {
+        for (String key : keys) {
+          if (affected.add(key)) {
+            pending.push(key);
+          }
+        }
+      }
+    }
+    return affected;
+  }
+
+  @Override
+  public String toString() {
+    return "InterpolatedSource(properties=" + resolved.size() + ')';
+  }
+
+  /**
+   * <p>Immutable snapshot of the source.</p>
+   */
+  private static final class State {
+    private final Map<String, String> raw;
+    private final Map<String, Template> templates;
+    /**
+     * <p>Keys referring to each key</p>
+     */
+    private final Map<String, Set<String>> dependents;
+    private final Map<String, String> resolved;
+
+    State(Map<String, String> raw, Map<String, Template> templates,
+          Map<String, Set<String>> dependents, Map<String, String> resolved) {
+      this.raw = raw;
+      this.templates = templates;
+      this.dependents = dependents;
+      this.resolved = resolved;
+    }
+  }
+
+  /**
+   * <p>Resolves keys depth first, reusing the values of keys which were not affected.</p>
+   */
+  private static final class Resolver {
+    private final Map<String, String> raw;
+    private final Map<String, Template> templates;
+    private final Map<String, String> values;
+    private final Set<String> resolving = new LinkedHashSet<>();
+
+    Resolver(Map<String, String> raw, Map<String, Template> templates, Map<String, String> values) {
+      this.raw = raw;
+      this.templates = templates;
+      this.values = values;
+    }
+
+    String resolve(String key) {
+      String value = values.get(key);
+      if (null != value) {
+        return value;
+      }
+      if (!resolving.add(key)) {
+        List<String> cycle = new ArrayList<>(resolving);
+        cycle = cycle.subList(cycle.indexOf(key), cycle.size());
+        throw new IllegalArgumentException("Cyclic property references: " + cycle + " -> " + key);
+      }
+      Template template = templates.get(key);
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < template.parts.length; i++) {
+        if (i % 2 == 0) {
+          sb.append(template.parts[i]);
+        } else {
+          String reference = template.parts[i];
+          if (raw.containsKey(reference)) {
+            sb.append(resolve(reference));
+          } else if (null != template.defaults[i / 2]) {
+            sb.append(template.defaults[i / 2]);
+          } else {
+            sb.append("${").append(reference).append('}');
+          }
+        }
+      }
+      resolving.remove(key);
+      value = sb.toString();
+      values.put(key, value);
+      return value;
+    }
+  }
+
+  /**
+   * <p>Parsed value: literals at even positions of {@link #parts}, referenced keys at odd ones.</p>
+   */
+  private static final class Template {
+    private final String[] parts;
+    private final String[] defaults;
+    private final List<String> references;
+
+    private Template(List<String> parts, List<String> defaults) {
+      this.parts = parts.toArray(new String[parts.size()]);
+      this.defaults = defaults.toArray(new String[defaults.size()]);
+      List<String> references = new ArrayList<>();
+      for (int i = 1; i < this.parts.length; i += 2) {
+        references.add(this.parts[i]);
+      }
+      this.references = references;
+    }
+
+    static Template parse(String value) {
+      List<String> parts = new ArrayList<>();
+      List<String> defaults = new ArrayList<>();
+      int literalStart = 0;
+      int start = value.indexOf("${");
+      while (start >= 0) {
+        int end = value.indexOf('}', start + 2);
+        if (end < 0) {
+          break;
+        }
+        String placeholder = value.substring(start + 2, end);
+        int colon = placeholder.indexOf(':');
+        parts.add(value.substring(literalStart, start));
+        parts.add(colon < 0 ? placeholder : placeholder.substring(0, colon));
+        defaults.add(colon < 0 ? null : placeholder.substring(colon + 1));
+        literalStart = end + 1;
+        start = value.indexOf("${", literalStart);
+      }
+      parts.add(value.substring(literalStart));
+      return new Template(parts, defaults);
+    }
+  }
+}
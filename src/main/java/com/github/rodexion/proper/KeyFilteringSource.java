@@ -0,0 +1,39 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+/**
+ * <p>Property source which can tell cheaply that a key is absent, without looking it up.</p>
+ * <p>Properties reading from such a source do not look up keys known to be absent.
+ * Properties without validators then return their default value right away, without notifying
+ * {@link PropertyListener#notFound(String, Proper.Info)}. Validated properties read the key
+ * as missing, so that their validators can still reject it.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public interface KeyFilteringSource extends PropertySource {
+  /**
+   * @param key Formatted property key (not-null)
+   * @return <code>false</code> if the key is definitely absent, <code>true</code> if it may be present
+   */
+  boolean mightContain(String key);
+}
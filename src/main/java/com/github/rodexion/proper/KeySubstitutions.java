@@ -0,0 +1,220 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import java.util.*;
+
+/**
+ * <p>Set of argument tuples to substitute into a dynamic property key, for
+ * validation purposes (see {@link Proper#DYNAMIC_KEY_VALUES}).</p>
+ * <p>Substitutions are either declared as a set of possible values per key
+ * placeholder, in which case all combinations of the values are generated lazily:</p>
+ * <pre><code>
+ *   //Validates "region.{0}.shard.{1}" for all 40 x 512 region/shard combinations
+ *   KeySubstitutions.product(regions, shards)
+ * </code></pre>
+ * <p>or as an explicit list of tuples (see {@link #tuples(java.util.Collection)}).
+ * In both cases duplicate tuples are validated only once.</p>
+ * <p>Tuples are addressed by index, so that ranges of tuples can be generated
+ * and validated independently, e.g. in parallel.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class KeySubstitutions {
+  private static final KeySubstitutions NONE = new KeySubstitutions(null,
+          Collections.singletonList(new Object[0]), 1);
+
+  /**
+   * <p>Distinct values per placeholder, or <code>null</code> for explicit tuples</p>
+   */
+  private final Object[][] values;
+  /**
+   * <p>Distinct explicit tuples, or <code>null</code> for a product of values</p>
+   */
+  private final List<Object[]> tuples;
+  private final long size;
+
+  private KeySubstitutions(Object[][] values, List<Object[]> tuples, long size) {
+    this.values = values;
+    this.tuples = tuples;
+    this.size = size;
+  }
+
+  /**
+   * <p>Single substitution without any arguments, used for properties with static keys.</p>
+   *
+   * @return Substitutions object (not-null)
+   */
+  public static KeySubstitutions none() {
+    return NONE;
+  }
+
+  /**
+   * <p>All combinations of the given values, one collection of values per
+   * key placeholder, in placeholder order. Duplicate values are ignored.</p>
+   *
+   * @param valuesPerPlaceholder Possible values of each placeholder (not-null)
+   * @return Substitutions object (not-null)
+   * @throws ArithmeticException If the number of combinations exceeds <code>Long.MAX_VALUE</code>
+   */
+  public static KeySubstitutions product(Collection<?>... valuesPerPlaceholder) {
+    checkNotNull("valuesPerPlaceholder", valuesPerPlaceholder);
+    Object[][] values = new Object[valuesPerPlaceholder.length][];
+    long size = 1;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new LinkedHashSet<>(checkNotNull("valuesPerPlaceholder[" + i + "]", valuesPerPlaceholder[i])).toArray();
+      if (values[i].length != 0 && size > Long.MAX_VALUE / values[i].length) {
+        throw new ArithmeticException("Too many key substitutions");
+      }
+      size *= values[i].length;
+    }
+    return new KeySubstitutions(values, null, size);
+  }
+
+  /**
+   * <p>Explicit list of argument tuples. Duplicate tuples are ignored.</p>
+   *
+   * @param tuples Argument tuples (not-null)
+   * @return Substitutions object (not-null)
+   */
+  public static KeySubstitutions tuples(Collection<Object[]> tuples) {
+    Set<List<Object>> distinct = new LinkedHashSet<>();
+    for (Object[] tuple : checkNotNull("tuples", tuples)) {
+      distinct.add(Arrays.asList(tuple.clone()));
+    }
+    List<Object[]> list = new ArrayList<>(distinct.size());
+    for (List<Object> tuple : distinct) {
+      list.add(tuple.toArray());
+    }
+    return new KeySubstitutions(null, list, list.size());
+  }
+
+  /**
+   * @return Number of distinct argument tuples
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * <p>Generate argument tuple at the given index.</p>
+   *
+   * @param index Tuple index in range of <code>[0, size())</code>
+   * @return Newly allocated tuple (not-null)
+   */
+  public Object[] get(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+    }
+    if (null != tuples) {
+      return tuples.get((int) index).clone();
+    }
+    Object[] tuple = new Object[values.length];
+    long rest = index;
+    for (int i = values.length - 1; i >= 0; i--) {
+      tuple[i] = values[i][(int) (rest % values[i].length)];
+      rest /= values[i].length;
+    }
+    return tuple;
+  }
+
+  /**
+   * <p>Lazily generate all tuples in the given index range.</p>
+   *
+   * @param from First tuple index (inclusive)
+   * @param to   Last tuple index (exclusive)
+   * @return Iterator of newly allocated tuples (not-null)
+   */
+  public Iterator<Object[]> iterator(final long from, final long to) {
+    if (from < 0 || to > size || from > to) {
+      throw new IndexOutOfBoundsException("from=" + from + ", to=" + to + ", size=" + size);
+    }
+    return new Iterator<Object[]>() {
+      private long next = from;
+      private int[] digits;
+
+      @Override
+      public boolean hasNext() {
+        return next < to;
+      }
+
+      @Override
+      public Object[] next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (null != tuples) {
+          return tuples.get((int) next++).clone();
+        }
+        if (null == digits) {
+          digits = digitsOf(next);
+        } else {
+          increment(digits);
+        }
+        next++;
+        Object[] tuple = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+          tuple[i] = values[i][digits[i]];
+        }
+        return tuple;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  private int[] digitsOf(long index) {
+    int[] digits = new int[values.length];
+    long rest = index;
+    for (int i = values.length - 1; i >= 0; i--) {
+      digits[i] = (int) (rest % values[i].length);
+      rest /= values[i].length;
+    }
+    return digits;
+  }
+
+  private void increment(int[] digits) {
+    for (int i = digits.length - 1; i >= 0; i--) {
+      if (++digits[i] < values[i].length) {
+        return;
+      }
+      digits[i] = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (null != tuples) {
+      return "KeySubstitutions(tuples=" + tuples.size() + ')';
+    }
+    StringBuilder sb = new StringBuilder("KeySubstitutions(product=");
+    for (int i = 0; i < values.length; i++) {
+      sb.append(i == 0 ? "" : " x ").append(values[i].length);
+    }
+    return sb.append(')').toString();
+  }
+}
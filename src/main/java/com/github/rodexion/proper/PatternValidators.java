@@ -0,0 +1,215 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Validators of raw property values (see {@link Validators#patternValidator(String)},
+ * {@link Validators#lengthValidator(int, int)} and {@link Validators#charsetValidator(String)}).</p>
+ * <p>Patterns are compiled once, and shared between validators through a bounded
+ * least-recently-used cache. Every thread matches with its own {@link Matcher},
+ * reset to each validated value instead of being created per read.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class PatternValidators {
+  static final int PATTERN_CACHE_SIZE = 256;
+
+  private static final Map<String, Pattern> patterns = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+      return size() > PATTERN_CACHE_SIZE;
+    }
+  };
+
+  /**
+   * <p>Compile a pattern, or get the one compiled before.</p>
+   *
+   * @param regex Regular expression (not-null)
+   * @return Compiled pattern (not-null)
+   * @throws java.util.regex.PatternSyntaxException If the expression is invalid
+   */
+  static Pattern compile(String regex) {
+    synchronized (patterns) {
+      Pattern pattern = patterns.get(regex);
+      if (null == pattern) {
+        pattern = Pattern.compile(regex);
+        patterns.put(regex, pattern);
+      }
+      return pattern;
+    }
+  }
+
+  static int cachedPatternCount() {
+    synchronized (patterns) {
+      return patterns.size();
+    }
+  }
+
+  /**
+   * <p>Base of validators checking the raw value before conversion.
+   * Missing values are left to {@link Validators#requiredKeyValidator()}.</p>
+   */
+  private static abstract class RawValueValidator<T> implements Validator<T> {
+    @Override
+    public boolean canValidate(Class<?> type) {
+      return true;
+    }
+
+    @Override
+    public Result beforeConversion(String key, String value, Proper.Info<T> info) {
+      return null == value ? Result.ok() : validate(value);
+    }
+
+    @Override
+    public Result afterConversion(String key, T value, Proper.Info<T> info) {
+      return Result.ok();
+    }
+
+    abstract Result validate(String value);
+  }
+
+  static final class PatternValidator<T> extends RawValueValidator<T> {
+    private final Pattern pattern;
+    private final ThreadLocal<Matcher> matchers;
+
+    PatternValidator(final Pattern pattern) {
+      this.pattern = pattern;
+      this.matchers = new ThreadLocal<Matcher>() {
+        @Override
+        protected Matcher initialValue() {
+          return pattern.matcher("");
+        }
+      };
+    }
+
+    @Override
+    Result validate(String value) {
+      Matcher matcher = matchers.get().reset(value);
+      boolean matches = matcher.matches();
+      //Do not keep the value reachable from the thread
+      matcher.reset("");
+      return matches ? Result.ok() : Result.fail(ErrorCode.PATTERN_MISMATCH, value, pattern.pattern());
+    }
+
+    @Override
+    public String toString() {
+      return "PatternValidator(pattern=" + pattern.pattern() + ')';
+    }
+  }
+
+  static final class LengthValidator<T> extends RawValueValidator<T> {
+    private final int min;
+    private final int max;
+
+    LengthValidator(int min, int max) {
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    Result validate(String value) {
+      int length = value.length();
+      return length < min || length > max
+              ? Result.fail(ErrorCode.LENGTH_OUT_OF_RANGE, value, length, min, max)
+              : Result.ok();
+    }
+
+    @Override
+    public String toString() {
+      return "LengthValidator(min=" + min + ", max=" + max + ')';
+    }
+  }
+
+  static final class CharsetValidator<T> extends RawValueValidator<T> {
+    private final String allowed;
+    /**
+     * <p>Allowed characters below 128, one bit per character.</p>
+     */
+    private final long[] ascii = new long[2];
+    /**
+     * <p>Allowed ranges above 127, as pairs of inclusive bounds.</p>
+     */
+    private final char[] ranges;
+
+    CharsetValidator(String allowed) {
+      this.allowed = allowed;
+      char[] ranges = new char[0];
+      int length = allowed.length();
+      for (int i = 0; i < length; i++) {
+        char from = allowed.charAt(i);
+        char to = from;
+        if (i + 2 < length && allowed.charAt(i + 1) == '-') {
+          to = allowed.charAt(i + 2);
+          if (to < from) {
+            throw new IllegalArgumentException("Invalid character range: " + from + '-' + to);
+          }
+          i += 2;
+        }
+        for (char c = from; c <= to && c < 128; c++) {
+          ascii[c >> 6] |= 1L << c;
+        }
+        if (to >= 128) {
+          ranges = Arrays.copyOf(ranges, ranges.length + 2);
+          ranges[ranges.length - 2] = (char) Math.max(from, 128);
+          ranges[ranges.length - 1] = to;
+        }
+      }
+      this.ranges = ranges;
+    }
+
+    @Override
+    Result validate(String value) {
+      for (int i = 0; i < value.length(); i++) {
+        if (!isAllowed(value.charAt(i))) {
+          return Result.fail(ErrorCode.DISALLOWED_CHARACTER, value, i);
+        }
+      }
+      return Result.ok();
+    }
+
+    private boolean isAllowed(char c) {
+      if (c < 128) {
+        return (ascii[c >> 6] & (1L << c)) != 0;
+      }
+      for (int i = 0; i < ranges.length; i += 2) {
+        if (c >= ranges[i] && c <= ranges[i + 1]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public String toString() {
+      return "CharsetValidator(allowed=" + allowed + ')';
+    }
+  }
+
+  private PatternValidators() {
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <p>Property source made of layers, e.g. base, environment and host specific properties,
+ * where each layer overrides the ones declared before it:</p>
+ * <pre><code>
+ *   ProfileSource source = ProfileSource.builder()
+ *         .layer("base", new File("conf/base.properties"))
+ *         .layer("prod", new File("conf/prod.properties"))
+ *         .layer("host", hostOverrides)
+ *         .build();
+ * </code></pre>
+ * <p>Layers are merged into a single immutable map, so a lookup is one hash lookup whatever
+ * the number of layers. The merge is only redone by {@link #reload()} when a layer has
+ * changed since the previous merge: a file layer whose modification time or size changed, or a map
+ * layer replaced through {@link #setLayer(String, Map)}. A missing or unreadable file is an
+ * empty layer.</p>
+ * <p>Merged values may refer to each other once {@link Builder#interpolate() interpolation}
+ * is enabled, and are then resolved by an {@link InterpolatedSource}. A reload introducing
+ * cyclic references fails, and keeps the previous values.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class ProfileSource implements EnumerablePropertySource {
+  private final List<Layer> layers;
+  private final long[] mergedVersions;
+  private final InterpolatedSource interpolated;
+  private volatile Map<String, String> merged = Collections.emptyMap();
+  private volatile SortedMap<String, String> sorted;
+
+  private ProfileSource(List<Layer> layers, boolean interpolate) {
+    this.layers = layers;
+    this.mergedVersions = new long[layers.size()];
+    this.interpolated = interpolate ? new InterpolatedSource() : null;
+    merge();
+  }
+
+  /**
+   * <p>Creates new profile source builder.</p>
+   *
+   * @return Profile source builder (not-null)
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public String getProperty(String key) {
+    return merged.get(key);
+  }
+
+  /**
+   * @return Merged properties of all layers, the same instance until a reload changes them (not-null)
+   */
+  @Override
+  public SortedMap<String, String> getProperties() {
+    return sorted;
+  }
+
+  /**
+   * <p>Replace the properties of a map layer, and merge again.</p>
+   *
+   * @param name       Layer name (not-null)
+   * @param properties New layer properties (not-null)
+   * @throws IllegalArgumentException If there is no map layer with the given name,
+   *                                  or if interpolated values have cyclic references
+   */
+  public void setLayer(String name, Map<String, String> properties) {
+    checkNotNull("properties", properties);
+    for (Layer layer : layers) {
+      if (layer.name.equals(name) && layer instanceof MapLayer) {
+        ((MapLayer) layer).set(properties);
+        reload();
+        return;
+      }
+    }
+    throw new IllegalArgumentException("No map layer named " + name);
+  }
+
+  /**
+   * <p>Merge the layers again, if any of them changed since the last merge.</p>
+   *
+   * @return <code>true</code> if the layers were merged again
+   * @throws IllegalArgumentException If interpolated values have cyclic references
+   */
+  public synchronized boolean reload() {
+    for (int i = 0; i < layers.size(); i++) {
+      if (layers.get(i).version() != mergedVersions[i]) {
+        merge();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private synchronized void merge() {
+    long[] versions = new long[layers.size()];
+    Map<String, String> properties = new HashMap<>();
+    for (int i = 0; i < layers.size(); i++) {
+      Layer layer = layers.get(i);
+      versions[i] = layer.version();
+      properties.putAll(layer.load());
+    }
+    if (null != interpolated) {
+      interpolated.update(properties);
+      merged = interpolated.getResolved();
+      sorted = interpolated.getProperties();
+    } else {
+      merged = Collections.unmodifiableMap(properties);
+      sorted = Collections.unmodifiableSortedMap(new TreeMap<>(properties));
+    }
+    System.arraycopy(versions, 0, mergedVersions, 0, versions.length);
+  }
+
+  @Override
+  public String toString() {
+    List<String> names = new ArrayList<>();
+    for (Layer layer : layers) {
+      names.add(layer.name);
+    }
+    return "ProfileSource(layers=" + names + ", properties=" + merged.size() + ')';
+  }
+
+  private static abstract class Layer {
+    final String name;
+
+    Layer(String name) {
+      this.name = name;
+    }
+
+    /**
+     * <p>Changes whenever the layer content changes.</p>
+     */
+    abstract long version();
+
+    abstract Map<String, String> load();
+  }
+
+  private static final class MapLayer extends Layer {
+    private volatile Map<String, String> properties;
+    private volatile long version;
+
+    MapLayer(String name, Map<String, String> properties) {
+      super(name);
+      this.properties = new HashMap<>(properties);
+    }
+
+    synchronized void set(Map<String, String> properties) {
+      this.properties = new HashMap<>(properties);
+      version++;
+    }
+
+    @Override
+    long version() {
+      return version;
+    }
+
+    @Override
+    Map<String, String> load() {
+      return properties;
+    }
+  }
+
+  private static final class FileLayer extends Layer {
+    private final File file;
+
+    FileLayer(String name, File file) {
+      super(name);
+      this.file = file;
+    }
+
+    @Override
+    long version() {
+      //Length too, as modification times may be as coarse as seconds
+      return file.lastModified() * 31 + file.length();
+    }
+
+    @Override
+    Map<String, String> load() {
+      Properties properties = new Properties();
+      try (InputStream in = new FileInputStream(file)) {
+        properties.load(in);
+      } catch (IOException e) {
+        return Collections.emptyMap();
+      }
+      Map<String, String> loaded = new HashMap<>();
+      for (String key : properties.stringPropertyNames()) {
+        loaded.put(key, properties.getProperty(key));
+      }
+      return loaded;
+    }
+  }
+
+  /**
+   * <p>A tool for creating profile sources.</p>
+   *
+   * @see #builder()
+   */
+  public static final class Builder {
+    private final List<Layer> layers = new ArrayList<>();
+    private boolean interpolate = false;
+
+    Builder() {
+    }
+
+    /**
+     * <p>Add a layer of fixed properties, which may be replaced later
+     * with {@link ProfileSource#setLayer(String, Map)}.</p>
+     *
+     * @param name       Layer name (not-null)
+     * @param properties Layer properties (not-null)
+     * @return this builder object (not-null)
+     */
+    public Builder layer(String name, Map<String, String> properties) {
+      layers.add(new MapLayer(checkNotNull("name", name), checkNotNull("properties", properties)));
+      return this;
+    }
+
+    /**
+     * <p>Add a layer read from a properties file.</p>
+     *
+     * @param name Layer name (not-null)
+     * @param file Properties file (not-null)
+     * @return this builder object (not-null)
+     */
+    public Builder layer(String name, File file) {
+      layers.add(new FileLayer(checkNotNull("name", name), checkNotNull("file", file)));
+      return this;
+    }
+
+    /**
+     * <p>Resolve <code>${key}</code> placeholders of merged values (see {@link InterpolatedSource}).</p>
+     *
+     * @return this builder object (not-null)
+     */
+    public Builder interpolate() {
+      this.interpolate = true;
+      return this;
+    }
+
+    /**
+     * <p>Create the source, and merge its layers.</p>
+     *
+     * @return Profile source (not-null)
+     * @throws IllegalArgumentException If interpolated values have cyclic references
+     */
+    public ProfileSource build() {
+      return new ProfileSource(Collections.unmodifiableList(new ArrayList<>(layers)), interpolate);
+    }
+  }
+}
@@ -22,6 +22,9 @@ package com.github.rodexion.proper;
 
 import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
 
+import com.github.rodexion.proper.profile.PropertyProfile;
+import com.github.rodexion.proper.profile.Stage;
+import com.github.rodexion.proper.profile.StageClock;
 import lombok.*;
 
 import java.text.MessageFormat;
@@ -65,12 +68,35 @@ public class Proper {
    */
   public static String DYNAMIC_KEY_SUBSTITUTIONS_DELIMITER = ",";
 
+  /**
+   * <p>Typed key of the {@link #ATTRIBUTE_DYNAMIC_KEY_SUBSTITUTIONS} attribute.</p>
+   */
+  public static final AttributeKey<Object> DYNAMIC_KEY_SUBSTITUTIONS =
+          AttributeKey.of(ATTRIBUTE_DYNAMIC_KEY_SUBSTITUTIONS, Object.class);
+
+  /**
+   * <p>Special property attribute for specifying possible values of each dynamic key
+   * placeholder, to be used for validation purposes.</p>
+   * <p>In contrast to {@link #ATTRIBUTE_DYNAMIC_KEY_SUBSTITUTIONS}, all combinations of the
+   * given values are validated, without listing each of them. For example, to validate
+   * <code>"region.{0}.shard.{1}"</code> for each region and shard:</p>
+   * <pre><code>
+   *   Proper.tyBuilder("region.{0}.shard.{1}", 1)
+   *         .attribute(Proper.DYNAMIC_KEY_VALUES, KeySubstitutions.product(regions, shards))
+   * </code></pre>
+   */
+  public static final AttributeKey<KeySubstitutions> DYNAMIC_KEY_VALUES =
+          AttributeKey.of("_dynamic_key_values", KeySubstitutions.class);
+
   /**
    * <p>Basic property information holder</p>
    * <p>Note: Hash code and equals implementations are only based on the
    * {@link #key} value.</p>
+   * <p>Keys and attribute sets are interned, so that properties declared with
+   * identical attributes share a single attribute storage.</p>
    */
-  @Data
+  @Getter
+  @ToString
   @EqualsAndHashCode(of = {"key"})
   public static final class Info<T> {
     /**
@@ -85,28 +111,117 @@ public class Proper {
      * <p>Default value used when property is not set, or conversion/validation has failed (maybe null)</p>
      */
     private final T defaultValue;
+    @Getter(AccessLevel.NONE)
+    private final Attributes attributes;
+
+    public Info(String key, Class<T> type, T defaultValue, Map<String, Object> attributes) {
+      this.key = checkNotNull("key", key).intern();
+      this.type = type;
+      this.defaultValue = defaultValue;
+      this.attributes = Attributes.of(checkNotNull("attributes", attributes));
+    }
+
     /**
-     * <p>Custom property attributes (not-null)</p>
+     * <p>Custom property attributes (not-null, unmodifiable)</p>
+     *
+     * @return Attributes map by name
      */
-    private final Map<String, Object> attributes;
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    /**
+     * <p>Retrieve the value of a custom property attribute without a hash lookup.</p>
+     *
+     * @param key Attribute key (not-null)
+     * @param <V> Attribute value type
+     * @return Attribute value, or <code>null</code> if not set (maybe-null)
+     * @throws ClassCastException If the attribute was set to a value of an incompatible type
+     */
+    public <V> V getAttribute(AttributeKey<V> key) {
+      return attributes.get(key);
+    }
   }
 
   /**
    * <p>Note: Hash code and equals implementations are only based on the {@link #info},
    * which in turn is only based on its {@link Info#key} field.</p>
    */
-  @AllArgsConstructor
-  @ToString
+  @ToString(exclude = {"staticKey", "pipeline", "keyFilter"})
   @EqualsAndHashCode(of = {"info"})
   public static final class Ty<T> implements LazyValue<T> {
+    private static final Object[] NO_ARGS = new Object[0];
+
     /**
      * <p>Basic property information (not-null)</p>
      */
     @Getter
     private final Proper.Info<T> info;
-    private final Converter<T> converter;
-    private final Validator<T> validator;
+    /**
+     * <p>Listener notified of reads made without an explicit listener (not-null)</p>
+     */
+    @Getter
     private final PropertyListener propertyListener;
+    private final PropertySource propertySource;
+    /**
+     * <p>Property source, if it can tell absent keys</p>
+     */
+    private final KeyFilteringSource keyFilter;
+    private final PropertyProfile profile;
+    private final ReadPipeline<T> pipeline;
+    /**
+     * <p>Key formatted without any arguments, or <code>null</code> if the key
+     * is not a valid {@link MessageFormat} pattern.</p>
+     */
+    private final String staticKey;
+
+    /**
+     * <p>Property reading system properties, with the defaults of {@link PropertyBuilder}
+     * otherwise. Prefer {@link Proper#tyBuilder(String, Class)} to set them.</p>
+     *
+     * @param info             Basic property information (not-null)
+     * @param converter        Value converter (not-null)
+     * @param validator        Value validator (not-null)
+     * @param propertyListener Listener notified of reads made without an explicit listener (not-null)
+     */
+    public Ty(Proper.Info<T> info,
+              Converter<T> converter,
+              Validator<T> validator,
+              PropertyListener propertyListener) {
+      this(info, converter, validator, propertyListener, PropertySources.systemProperties(),
+              PropertyProfile.NONE, false, AdaptiveCaching.defaultPolicy());
+    }
+
+    Ty(Proper.Info<T> info,
+       Converter<T> converter,
+       Validator<T> validator,
+       PropertyListener propertyListener,
+       PropertySource propertySource,
+       PropertyProfile profile,
+       boolean cacheConversions,
+       AdaptiveCaching adaptiveCaching) {
+      this.info = info;
+      this.propertyListener = propertyListener;
+      this.propertySource = propertySource;
+      this.keyFilter = propertySource instanceof KeyFilteringSource ? (KeyFilteringSource) propertySource : null;
+      this.profile = profile;
+      this.pipeline = new ReadPipeline<>(info, converter, validator, propertyListener, cacheConversions,
+              adaptiveCaching);
+      this.staticKey = formatStaticKey(info.getKey());
+    }
+
+    /**
+     * <p>Retrieves the current system property value, after applying
+     * any conversion and/or validation rules declared (maybe null)</p>
+     * <p>Failure to find the appropriate converter for this
+     * property type, or to validate the property will return the
+     * default value (see {@link com.github.rodexion.proper.Proper.Info#getDefaultValue()})</p>
+     *
+     * @return Current value for this system property, or the default value
+     */
+    public T getValue() {
+      return getValue(propertyListener, NO_ARGS);
+    }
 
     /**
      * <p>Retrieves the current system property value, after applying
@@ -117,6 +232,7 @@ public class Proper {
      *
      * @return Current value for this system property, or the default value
      */
+    @Override
     public T getValue(Object... args) {
       return getValue(propertyListener, args);
     }
@@ -132,43 +248,58 @@ public class Proper {
      * @return Current value for this system property, or the default value
      */
     public T getValue(PropertyListener propertyListener, Object... args) {
-      String key = MessageFormat.format(info.getKey(), args);
-      String value = System.getProperty(key);
-      if (null == value) {
-        propertyListener.notFound(key, info);
-      }
-      Validator.Result validationBefore = validator.beforeConversion(key, value, info);
-      if (!validationBefore.isOk()) {
-        propertyListener.validationBeforeConversionFailed(key, value, validationBefore.getErrorMessage(), info);
-        return info.getDefaultValue();
+      StageClock clock = profile.start();
+      try {
+        return getValue(propertyListener, clock, args);
+      } finally {
+        clock.stop();
       }
-      if (null == value) {
-        return info.getDefaultValue();
-      }
-      Converter.Result<T> result = converter.convert(key, value, info);
-      if (result.isFailure()) {
-        propertyListener.conversionFailed(key, value, result.getErrorMessage(), info);
-        return info.getDefaultValue();
-      } else if (result.isSkip()) {
-        //Maybe value does not need conversion
-        if (info.getType().isAssignableFrom(String.class)) {
-          return safeStringCast(value);
-        } else {
-          propertyListener.conversionFailed(key, value, "No suitable converter found", info);
+    }
+
+    private T getValue(PropertyListener propertyListener, StageClock clock, Object... args) {
+      String key = formatKey(args);
+      clock.lap(Stage.KEY_FORMAT);
+      String value;
+      if (null != keyFilter && !keyFilter.mightContain(key)) {
+        clock.lap(Stage.LOOKUP);
+        if (!pipeline.isValidated()) {
+          return info.getDefaultValue();
         }
+        //Validators may reject absent keys (e.g. required keys)
+        value = null;
+      } else {
+        value = propertySource.getProperty(key);
+        clock.lap(Stage.LOOKUP);
       }
-      Validator.Result validationAfter = validator.afterConversion(key, result.getValue(), info);
-      if (!validationAfter.isOk()) {
-        propertyListener.validationAfterConversionFailed(key, result.getValue(), validationAfter.getErrorMessage(), info);
-        return info.getDefaultValue();
+      return pipeline.read(key, value, propertyListener, clock);
+    }
+
+    /**
+     * <p>Read the given raw value as if it had been looked up, e.g. to validate
+     * a value before it is written.</p>
+     */
+    T readValue(String key, String value, PropertyListener propertyListener) {
+      return pipeline.read(key, value, propertyListener, StageClock.NOOP);
+    }
+
+    String formatKey(Object[] args) {
+      if (args.length == 0 && null != staticKey) {
+        return staticKey;
       }
-      propertyListener.success(key, value, result.getValue(), info);
-      return result.getValue();
+      return MessageFormat.format(info.getKey(), args);
+    }
+
+    ReadPipeline<T> getPipeline() {
+      return pipeline;
     }
 
-    @SuppressWarnings("unchecked")
-    private T safeStringCast(String value) {
-      return (T) value;
+    private static String formatStaticKey(String key) {
+      try {
+        return MessageFormat.format(key, NO_ARGS);
+      } catch (IllegalArgumentException e) {
+        //Invalid pattern, will be reported on every read as before
+        return null;
+      }
     }
   }
 
@@ -206,6 +337,21 @@ public class Proper {
     return new PropertyBuilder<>(checkNotNull("key", key), checkNotNull("typeClass", typeClass), null);
   }
 
+  /**
+   * <p>Initialises a builder of a group of properties sharing the given key prefix,
+   * pre-configured with the default converter set
+   * (see {@link com.github.rodexion.proper.ConverterProviders#defaultConverterProvider()})</p>
+   *
+   * @param prefix    Key prefix, e.g. <code>pool.</code> (not null)
+   * @param typeClass Value type class (not null)
+   * @param <T>       Value type
+   * @return Property group builder object
+   */
+  public static <T> PropertyGroup.Builder<T> groupBuilder(String prefix, Class<T> typeClass) {
+    return new PropertyGroup.Builder<>(checkNotNull("prefix", prefix), checkNotNull("typeClass", typeClass))
+            .converterProvider(ConverterProviders.defaultConverterProvider());
+  }
+
   private Proper() {
   }
 }
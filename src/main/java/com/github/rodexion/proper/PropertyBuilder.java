@@ -24,9 +24,20 @@ import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
 
 import com.github.rodexion.proper.bus.InternalBuilderBus;
 import com.github.rodexion.proper.bus.ProperLocation;
+import com.github.rodexion.proper.profile.ReadProfiler;
+import com.github.rodexion.proper.refresh.LiveBoolean;
+import com.github.rodexion.proper.refresh.LiveDouble;
+import com.github.rodexion.proper.refresh.LiveInt;
+import com.github.rodexion.proper.refresh.LiveLong;
+import com.github.rodexion.proper.refresh.LiveValue;
+import com.github.rodexion.proper.refresh.PropertyPublisher;
+import com.github.rodexion.proper.refresh.RefreshScheduler;
+import com.github.rodexion.proper.util.PrimitiveTypeUtil;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * <p>Main instantiation point for custom property declarations.</p>
@@ -46,7 +57,11 @@ public class PropertyBuilder<T> {
   private Converter<T> converter = Converters.voidConverter();
   private Validator<T> validator = Validators.voidValidator();
   private PropertyListener propertyListener = PropertyListeners.voidListener();
+  private PropertySource propertySource = PropertySources.systemProperties();
   private Map<String, Object> attributes = Collections.emptyMap();
+  private ReadProfiler profiler = ReadProfiler.disabled();
+  private boolean cacheConversions = false;
+  private AdaptiveCaching adaptiveCaching = AdaptiveCaching.defaultPolicy();
 
   PropertyBuilder(String key, Class<T> typeClass, T defaultValue) {
     this.key = key;
@@ -111,13 +126,85 @@ public class PropertyBuilder<T> {
   }
 
   /**
-   * <p>Set attributes associated with this property.</p>
+   * <p>Set the source property values are looked up in
+   * ({@link PropertySources#systemProperties()} by default). Reads of keys which a
+   * {@link KeyFilteringSource} knows to be absent return the default value right away.</p>
+   *
+   * @param propertySource Property source object (not-null)
+   * @return this builder (not-null)
+   */
+  public PropertyBuilder<T> propertySource(PropertySource propertySource) {
+    this.propertySource = checkNotNull("propertySource", propertySource);
+    return this;
+  }
+
+  /**
+   * <p>Set attributes associated with this property, replacing any attributes
+   * set previously.</p>
    *
    * @param attributes Attribute map (not-null)
    * @return this builder (not-null)
    */
   public PropertyBuilder<T> attributes(Map<String, Object> attributes) {
-    this.attributes = checkNotNull("attributes", attributes);
+    this.attributes = new LinkedHashMap<>(checkNotNull("attributes", attributes));
+    return this;
+  }
+
+  /**
+   * <p>Set a single attribute associated with this property.</p>
+   *
+   * @param key   Attribute key (not-null)
+   * @param value Attribute value (maybe-null)
+   * @param <V>   Attribute value type
+   * @return this builder (not-null)
+   */
+  public <V> PropertyBuilder<T> attribute(AttributeKey<V> key, V value) {
+    Map<String, Object> newAttributes = new LinkedHashMap<>(attributes);
+    newAttributes.put(checkNotNull("key", key).getName(), value);
+    this.attributes = newAttributes;
+    return this;
+  }
+
+  /**
+   * <p>Enable or disable caching of converted values (disabled by default).</p>
+   * <p>When enabled, the property keeps the last successfully converted value, and
+   * reuses it for as long as the system property value does not change. Reads served
+   * from the cache do not allocate, validators and the property listener are still
+   * invoked on every read.</p>
+   * <p>Only enable caching for immutable property types, as the same value instance
+   * is returned by every read. Setting caching explicitly disables {@link #adaptiveCaching(AdaptiveCaching)}.</p>
+   *
+   * @param cacheConversions <code>true</code> to cache converted values
+   * @return this builder (not-null)
+   */
+  public PropertyBuilder<T> cacheConversions(boolean cacheConversions) {
+    this.cacheConversions = cacheConversions;
+    this.adaptiveCaching = AdaptiveCaching.disabled();
+    return this;
+  }
+
+  /**
+   * <p>Set the policy caching converted values while the property is read frequently
+   * ({@link AdaptiveCaching#defaultPolicy()} by default).</p>
+   *
+   * @param adaptiveCaching Caching policy (not-null)
+   * @return this builder (not-null)
+   */
+  public PropertyBuilder<T> adaptiveCaching(AdaptiveCaching adaptiveCaching) {
+    this.adaptiveCaching = checkNotNull("adaptiveCaching", adaptiveCaching);
+    this.cacheConversions = false;
+    return this;
+  }
+
+  /**
+   * <p>Set a profiler measuring the latency of each stage of this property's reads.
+   * Profiling is disabled by default.</p>
+   *
+   * @param profiler Read profiler object (not-null)
+   * @return this builder (not-null)
+   */
+  public PropertyBuilder<T> profiler(ReadProfiler profiler) {
+    this.profiler = checkNotNull("profiler", profiler);
     return this;
   }
 
@@ -127,9 +214,89 @@ public class PropertyBuilder<T> {
    * @return property object (not-null)
    */
   public Proper.Ty<T> build() {
-    Proper.Ty<T> property = new Proper.Ty<>(new Proper.Info<>(key, typeClass, defaultValue, attributes),
-            converter, validator, propertyListener);
+    Proper.Info<T> info = new Proper.Info<>(key, typeClass, defaultValue, attributes);
+    Proper.Ty<T> property = new Proper.Ty<>(info, converter, validator, propertyListener,
+            propertySource, profiler.register(info), cacheConversions, adaptiveCaching);
     InternalBuilderBus.firePropertyBuilt(property, location);
     return property;
   }
+
+  /**
+   * <p>Create property declaration object, and bind it to a live holder refreshed
+   * by the given scheduler (see {@link RefreshScheduler#bind(Proper.Ty)}).</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @return Live holder (not-null)
+   */
+  public LiveValue<T> bind(RefreshScheduler scheduler) {
+    return checkNotNull("scheduler", scheduler).bind(build());
+  }
+
+  /**
+   * <p>Same as {@link #bind(RefreshScheduler)}, for <code>int</code> properties.</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the property is not an integer property
+   */
+  public LiveInt bindInt(RefreshScheduler scheduler) {
+    return checkNotNull("scheduler", scheduler).bindInt(buildAs(Integer.class));
+  }
+
+  /**
+   * <p>Same as {@link #bind(RefreshScheduler)}, for <code>long</code> properties.</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the property is not a long property
+   */
+  public LiveLong bindLong(RefreshScheduler scheduler) {
+    return checkNotNull("scheduler", scheduler).bindLong(buildAs(Long.class));
+  }
+
+  /**
+   * <p>Same as {@link #bind(RefreshScheduler)}, for <code>double</code> properties.</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the property is not a double property
+   */
+  public LiveDouble bindDouble(RefreshScheduler scheduler) {
+    return checkNotNull("scheduler", scheduler).bindDouble(buildAs(Double.class));
+  }
+
+  /**
+   * <p>Same as {@link #bind(RefreshScheduler)}, for <code>boolean</code> properties.</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the property is not a boolean property
+   */
+  public LiveBoolean bindBoolean(RefreshScheduler scheduler) {
+    return checkNotNull("scheduler", scheduler).bindBoolean(buildAs(Boolean.class));
+  }
+
+  /**
+   * <p>Create property declaration object, and publish its changes
+   * (see {@link RefreshScheduler#publisher(Proper.Ty, Executor)}).</p>
+   *
+   * @param scheduler Refresh scheduler (not-null)
+   * @param executor  Executor calling subscribers (not-null)
+   * @return Property publisher (not-null)
+   */
+  public PropertyPublisher<T> publisher(RefreshScheduler scheduler, Executor executor) {
+    return checkNotNull("scheduler", scheduler).publisher(build(), executor);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <V> Proper.Ty<V> buildAs(Class<V> boxedClass) {
+    Class<?> primitiveClass = Boolean.class.equals(boxedClass)
+            ? boolean.class
+            : PrimitiveTypeUtil.getPrimitiveClass(boxedClass);
+    if (!boxedClass.equals(typeClass) && !typeClass.equals(primitiveClass)) {
+      throw new IllegalStateException("Property " + key + " of type " + typeClass.getName()
+              + " cannot be bound as " + boxedClass.getSimpleName());
+    }
+    return (Proper.Ty<V>) build();
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.profile.StageClock;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * <p>All properties sharing a key prefix (and optionally a suffix), resolved together
+ * into a map from the varying part of their keys to their converted values:</p>
+ * <pre><code>
+ *   PropertyGroup&lt;Integer&gt; poolSizes = Proper.groupBuilder("pool.", Integer.class).suffix(".size").build();
+ *   ...
+ *   Map&lt;String, Integer&gt; sizes = poolSizes.getValues(); //e.g. {"orders": 10, "users": 4} for pool.orders.size
+ * </code></pre>
+ * <p>Keys are found in one pass over the range of the sorted
+ * {@link EnumerablePropertySource#getProperties() properties of the source} starting
+ * with the prefix. Values are converted and validated as for {@link Proper.Ty properties},
+ * those failing are reported to the listener and left out of the map. The map is cached,
+ * and only built again once the properties under the prefix have changed.</p>
+ *
+ * @param <T> Value type
+ * @author rodexion
+ * @since 0.1
+ */
+public final class PropertyGroup<T> {
+  private final String prefix;
+  private final String suffix;
+  private final EnumerablePropertySource propertySource;
+  private final PropertyListener propertyListener;
+  private final ReadPipeline<T> pipeline;
+  private volatile Snapshot<T> snapshot;
+
+  private PropertyGroup(Builder<T> builder) {
+    this.prefix = builder.prefix;
+    this.suffix = builder.suffix;
+    this.propertySource = builder.propertySource;
+    this.propertyListener = builder.propertyListener;
+    Proper.Info<T> info = new Proper.Info<>(prefix + '*' + suffix, builder.typeClass, null,
+            Collections.<String, Object>emptyMap());
+    this.pipeline = new ReadPipeline<>(info, builder.converter, builder.validator, builder.propertyListener, false,
+            AdaptiveCaching.disabled());
+  }
+
+  /**
+   * @return Key prefix of the group (not-null)
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * @return Key suffix of the group, empty if none (not-null)
+   */
+  public String getSuffix() {
+    return suffix;
+  }
+
+  /**
+   * <p>Values of all valid properties of the group, by the part of their keys between
+   * the prefix and the suffix, in key order.</p>
+   *
+   * @return Immutable map of values (not-null)
+   */
+  public Map<String, T> getValues() {
+    SortedMap<String, String> properties = propertySource.getProperties();
+    Snapshot<T> current = snapshot;
+    if (null != current && current.properties == properties) {
+      return current.values;
+    }
+    SortedMap<String, String> range = properties.subMap(prefix, prefix + Character.MAX_VALUE);
+    Map<String, T> values = null != current && current.range.equals(range)
+            ? current.values
+            : resolve(range);
+    snapshot = new Snapshot<>(properties, range, values);
+    return values;
+  }
+
+  private Map<String, T> resolve(SortedMap<String, String> range) {
+    Map<String, T> values = new LinkedHashMap<>();
+    for (Map.Entry<String, String> entry : range.entrySet()) {
+      String key = entry.getKey();
+      if (key.length() <= prefix.length() + suffix.length() || !key.endsWith(suffix)) {
+        continue;
+      }
+      T value = pipeline.read(key, entry.getValue(), propertyListener, StageClock.NOOP);
+      if (null != value) {
+        values.put(key.substring(prefix.length(), key.length() - suffix.length()), value);
+      }
+    }
+    return Collections.unmodifiableMap(values);
+  }
+
+  @Override
+  public String toString() {
+    return "PropertyGroup(prefix=" + prefix + ", suffix=" + suffix + ", source=" + propertySource + ')';
+  }
+
+  /**
+   * <p>Values resolved from a given state of the source.</p>
+   */
+  private static final class Snapshot<T> {
+    private final SortedMap<String, String> properties;
+    private final SortedMap<String, String> range;
+    private final Map<String, T> values;
+
+    Snapshot(SortedMap<String, String> properties, SortedMap<String, String> range, Map<String, T> values) {
+      this.properties = properties;
+      this.range = range;
+      this.values = values;
+    }
+  }
+
+  /**
+   * <p>A tool for creating property groups.</p>
+   *
+   * @param <T> Value type
+   * @see Proper#groupBuilder(String, Class)
+   */
+  public static final class Builder<T> {
+    private final String prefix;
+    private final Class<T> typeClass;
+    private String suffix = "";
+    private Converter<T> converter = Converters.voidConverter();
+    private Validator<T> validator = Validators.voidValidator();
+    private PropertyListener propertyListener = PropertyListeners.voidListener();
+    private EnumerablePropertySource propertySource = PropertySources.systemProperties();
+
+    Builder(String prefix, Class<T> typeClass) {
+      this.prefix = prefix;
+      this.typeClass = typeClass;
+    }
+
+    /**
+     * <p>Only include keys ending with the given suffix, which is not part
+     * of the names in the resolved map.</p>
+     *
+     * @param suffix Key suffix (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> suffix(String suffix) {
+      this.suffix = checkNotNull("suffix", suffix);
+      return this;
+    }
+
+    /**
+     * <p>Set a converter to be used for values of this group.</p>
+     *
+     * @param converter Converter object (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> converter(Converter<T> converter) {
+      this.converter = checkNotNull("converter", converter);
+      return this;
+    }
+
+    /**
+     * <p>Set a converter provider to retrieve the converter of this group's values.</p>
+     *
+     * @param converterProvider Converter provider object (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> converterProvider(ConverterProvider converterProvider) {
+      this.converter = checkNotNull("converterProvider", converterProvider).getConverter(typeClass);
+      return this;
+    }
+
+    /**
+     * <p>Set a validator to be used for values of this group.</p>
+     *
+     * @param validator Validator object (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> validator(Validator<T> validator) {
+      this.validator = checkNotNull("validator", validator);
+      return this;
+    }
+
+    /**
+     * <p>Set a property listener notified of each resolved property.</p>
+     *
+     * @param propertyListener Property listener object (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> propertyListener(PropertyListener propertyListener) {
+      this.propertyListener = checkNotNull("propertyListener", propertyListener);
+      return this;
+    }
+
+    /**
+     * <p>Set the source properties are listed from
+     * ({@link PropertySources#systemProperties()} by default). Listed system properties
+     * only change on {@link PropertySources#reloadSystemProperties()}.</p>
+     *
+     * @param propertySource Property source object (not-null)
+     * @return this builder (not-null)
+     */
+    public Builder<T> propertySource(EnumerablePropertySource propertySource) {
+      this.propertySource = checkNotNull("propertySource", propertySource);
+      return this;
+    }
+
+    /**
+     * <p>Create the property group.</p>
+     *
+     * @return Property group (not-null)
+     */
+    public PropertyGroup<T> build() {
+      return new PropertyGroup<>(this);
+    }
+  }
+}
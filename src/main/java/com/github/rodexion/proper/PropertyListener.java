@@ -22,6 +22,9 @@ package com.github.rodexion.proper;
 
 /**
  * <p>Listener of property declaration, conversion and validation events.</p>
+ * <p>Error messages of failed conversions and validations are formatted for listeners, unless
+ * they are {@link FailureDetailsListener}s which do not want failure details: those receive
+ * the {@link ErrorCode#getName() error code name} in place of the message.</p>
  *
  * @author rodexion
  * @since 0.1
@@ -27,7 +27,12 @@ package com.github.rodexion.proper;
  * @since 0.1
  */
 public class PropertyListeners {
-  private static final PropertyListener voidListener = new BasePropertyListener();
+  private static final PropertyListener voidListener = new BasePropertyListener() {
+    @Override
+    public boolean wantsFailureDetails() {
+      return false;
+    }
+  };
 
   /**
    * <p>Creates a property listener that does nothing.</p>
@@ -41,7 +46,7 @@ public class PropertyListeners {
   /**
    * <p>Base class for creating custom property listeners.</p>
    */
-  public static class BasePropertyListener implements PropertyListener {
+  public static class BasePropertyListener implements FailureDetailsListener, CachePromotionListener {
 
     @Override
     public void notFound(String key, Proper.Info<?> info) {
@@ -62,6 +67,19 @@ public class PropertyListeners {
     @Override
     public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
     }
+
+    @Override
+    public void cachePromoted(Proper.Info<?> info, long readsPerSecond) {
+    }
+
+    @Override
+    public void cacheDemoted(Proper.Info<?> info, long readsPerSecond) {
+    }
+
+    @Override
+    public boolean wantsFailureDetails() {
+      return true;
+    }
   }
 
   private PropertyListeners() {
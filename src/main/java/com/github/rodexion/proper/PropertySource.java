@@ -0,0 +1,38 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+/**
+ * <p>Where property values are looked up, system properties by default
+ * (see {@link PropertySources}).</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public interface PropertySource {
+  /**
+   * <p>Look up the raw value of a property.</p>
+   *
+   * @param key Formatted property key (not-null)
+   * @return Property value, or <code>null</code> if not present (maybe-null)
+   */
+  String getProperty(String key);
+}
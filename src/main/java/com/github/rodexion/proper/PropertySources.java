@@ -0,0 +1,239 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A collection of {@link PropertySource} implementations.</p>
+ * <p>Sources are stacked with {@link #firstOf(PropertySource...)}, e.g. to let system
+ * properties override environment variables:</p>
+ * <pre><code>
+ *   Proper.tyBuilder("db.pool.max-size", 10)
+ *         .propertySource(PropertySources.firstOf(PropertySources.systemProperties(), PropertySources.environment()))
+ *         .build();
+ * </code></pre>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertySources {
+  /**
+   * <p>Maximal number of keys whose environment lookups are remembered,
+   * the memo is cleared when exceeded.</p>
+   */
+  static final int RESOLVED_KEY_CACHE_SIZE = 4096;
+
+  private static final SystemProperties systemProperties = new SystemProperties();
+
+  /**
+   * <p>Source reading {@link System#getProperty(String) system properties}.
+   * This is the default source of properties.</p>
+   * <p>Single properties are always read as they currently are. Listed properties
+   * (e.g. the values of {@link PropertyGroup property groups}) are a sorted snapshot of the
+   * system properties, taken on first use and then only by {@link #reloadSystemProperties()}:
+   * properties set or removed meanwhile are not listed until the next reload.</p>
+   *
+   * @return Property source (not-null)
+   */
+  public static EnumerablePropertySource systemProperties() {
+    return systemProperties;
+  }
+
+  /**
+   * <p>Take a new snapshot of the listed {@link #systemProperties() system properties}.
+   * This copies and sorts all system properties, so it costs O(n) in their number;
+   * call it when properties are known to have changed, or periodically, e.g. with
+   * {@link com.github.rodexion.proper.refresh.RefreshScheduler#reloadSystemProperties()}.
+   * The snapshot, and thus what was derived from it, is kept if nothing changed.</p>
+   */
+  public static void reloadSystemProperties() {
+    systemProperties.reload();
+  }
+
+  /**
+   * <p>Source reading the environment variables of the process, with relaxed names
+   * (see {@link #relaxed(Map)}).</p>
+   *
+   * @return Property source (not-null)
+   */
+  public static PropertySource environment() {
+    return EnvironmentHolder.environment;
+  }
+
+  /**
+   * <p>Source reading a fixed set of variables with relaxed names: dots and dashes are
+   * equivalent to underscores, and case is ignored, so that <code>db.pool.max-size</code>
+   * finds <code>DB_POOL_MAX_SIZE</code>. Variable names are normalized once, when the
+   * source is created, and the outcome of every key lookup is remembered, so that
+   * repeated lookups of a key are a single hash lookup.</p>
+   * <p>When several variables normalize to the same name, the one whose name is
+   * already in the normalized form wins.</p>
+   *
+   * @param variables Variables, e.g. {@link System#getenv()} (not-null)
+   * @return Property source (not-null)
+   */
+  public static PropertySource relaxed(Map<String, String> variables) {
+    return new RelaxedSource(checkNotNull("variables", variables));
+  }
+
+  /**
+   * <p>Source looking up properties in the given sources, in order,
+   * until a value is found.</p>
+   *
+   * @param sources Sources, by decreasing precedence (not-null)
+   * @return Property source (not-null)
+   */
+  public static PropertySource firstOf(PropertySource... sources) {
+    final PropertySource[] chain = checkNotNull("sources", sources).clone();
+    for (PropertySource source : chain) {
+      checkNotNull("source", source);
+    }
+    if (chain.length == 1) {
+      return chain[0];
+    }
+    return new PropertySource() {
+      @Override
+      public String getProperty(String key) {
+        for (PropertySource source : chain) {
+          String value = source.getProperty(key);
+          if (null != value) {
+            return value;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public String toString() {
+        return "FirstOf" + Arrays.toString(chain);
+      }
+    };
+  }
+
+  /**
+   * <p>Normalize a relaxed name: dots and dashes to underscores, and upper case.</p>
+   */
+  static String normalize(String name) {
+    char[] chars = new char[name.length()];
+    for (int i = 0; i < chars.length; i++) {
+      char c = name.charAt(i);
+      chars[i] = c == '.' || c == '-' ? '_' : Character.toUpperCase(c);
+    }
+    return new String(chars);
+  }
+
+  private static final class RelaxedSource implements PropertySource {
+    private static final String MISSING = new String("missing");
+
+    private final Map<String, String> index;
+    private final ConcurrentMap<String, String> resolved = new ConcurrentHashMap<>();
+
+    RelaxedSource(Map<String, String> variables) {
+      Map<String, String> index = new HashMap<>();
+      for (Map.Entry<String, String> variable : variables.entrySet()) {
+        String name = normalize(variable.getKey());
+        if (name.equals(variable.getKey()) || !index.containsKey(name)) {
+          index.put(name, variable.getValue());
+        }
+      }
+      this.index = Collections.unmodifiableMap(index);
+    }
+
+    @Override
+    public String getProperty(String key) {
+      String value = resolved.get(key);
+      if (null == value) {
+        value = index.get(normalize(key));
+        if (null == value) {
+          value = MISSING;
+        }
+        if (resolved.size() >= RESOLVED_KEY_CACHE_SIZE) {
+          resolved.clear();
+        }
+        resolved.put(key, value);
+      }
+      return MISSING == value ? null : value;
+    }
+
+    @Override
+    public String toString() {
+      return "RelaxedSource(variables=" + index.size() + ')';
+    }
+  }
+
+  private static final class SystemProperties implements EnumerablePropertySource {
+    private volatile SortedMap<String, String> properties;
+
+    @Override
+    public String getProperty(String key) {
+      return System.getProperty(key);
+    }
+
+    @Override
+    public SortedMap<String, String> getProperties() {
+      SortedMap<String, String> current = properties;
+      if (null == current) {
+        current = reload();
+      }
+      return current;
+    }
+
+    /**
+     * <p>Take a new snapshot, keeping the previous one if nothing changed.</p>
+     */
+    synchronized SortedMap<String, String> reload() {
+      Properties system = System.getProperties();
+      SortedMap<String, String> sorted = new TreeMap<>();
+      for (String key : system.stringPropertyNames()) {
+        sorted.put(key, system.getProperty(key));
+      }
+      SortedMap<String, String> current = properties;
+      if (null == current || !current.equals(sorted)) {
+        current = Collections.unmodifiableSortedMap(sorted);
+        properties = current;
+      }
+      return current;
+    }
+
+    @Override
+    public String toString() {
+      return "SystemProperties";
+    }
+  }
+
+  private static final class EnvironmentHolder {
+    private static final PropertySource environment = relaxed(System.getenv());
+  }
+
+  private PropertySources() {
+  }
+}
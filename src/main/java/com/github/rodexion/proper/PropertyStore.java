@@ -0,0 +1,356 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.util.BloomFilter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>Writable property source, changed through transactions:</p>
+ * <pre><code>
+ *   PropertyStore store = new PropertyStore();
+ *   Proper.Ty&lt;Integer&gt; minSize = Proper.tyBuilder("pool.min", 1).propertySource(store).build();
+ *   ...
+ *   store.begin()
+ *        .set(minSize, "4")
+ *        .set(maxSize, "16")
+ *        .commit();
+ * </code></pre>
+ * <p>A transaction stages its changes, and only applies them on {@link Transaction#commit()},
+ * once every value written through a property passed that property's conversion and
+ * validation. All changes of a transaction are then published at once, by replacing the
+ * immutable state of the store, and its epoch is bumped: readers either see all of the
+ * changes or none of them. Listeners receive one {@link Batch} per commit.</p>
+ * <p>Present keys are tracked by a {@link BloomFilter}, so that reads of absent keys, e.g.
+ * of rarely overridden dynamic keys, return the default value without a lookup (see
+ * {@link KeyFilteringSource}). Keys added by commits are added to the filter, which is
+ * rebuilt, twice as large, once more keys were added than it was sized for.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class PropertyStore implements EnumerablePropertySource, KeyFilteringSource {
+  static final int MIN_FILTER_KEYS = 64;
+  static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private volatile State state;
+  private volatile BloomFilter filter;
+  /**
+   * <p>Keys added to the filter, guarded by the store</p>
+   */
+  private int filterKeys;
+
+  /**
+   * <p>Create an empty store.</p>
+   */
+  public PropertyStore() {
+    this(Collections.<String, String>emptyMap());
+  }
+
+  /**
+   * <p>Create a store with the given initial properties, at epoch 0.</p>
+   *
+   * @param properties Initial properties (not-null)
+   */
+  public PropertyStore(Map<String, String> properties) {
+    this.state = new State(0, new HashMap<>(checkNotNull("properties", properties)));
+    rebuildFilter(state.properties);
+  }
+
+  private void rebuildFilter(Map<String, String> properties) {
+    BloomFilter filter = new BloomFilter(Math.max(MIN_FILTER_KEYS, properties.size() * 2), FILTER_FALSE_POSITIVE_RATE);
+    for (String key : properties.keySet()) {
+      filter.add(key);
+    }
+    this.filterKeys = properties.size();
+    this.filter = filter;
+  }
+
+  @Override
+  public boolean mightContain(String key) {
+    return filter.mightContain(key);
+  }
+
+  @Override
+  public String getProperty(String key) {
+    return state.properties.get(key);
+  }
+
+  @Override
+  public SortedMap<String, String> getProperties() {
+    return state.sorted();
+  }
+
+  /**
+   * @return Number of commits which changed the store
+   */
+  public long getEpoch() {
+    return state.epoch;
+  }
+
+  /**
+   * <p>Start a transaction. Nothing is applied until it is committed.</p>
+   *
+   * @return Transaction (not-null)
+   */
+  public Transaction begin() {
+    return new Transaction();
+  }
+
+  /**
+   * @param listener Listener of committed changes (not-null)
+   */
+  public void addListener(Listener listener) {
+    listeners.add(checkNotNull("listener", listener));
+  }
+
+  /**
+   * @param listener Listener to remove (not-null)
+   */
+  public void removeListener(Listener listener) {
+    listeners.remove(listener);
+  }
+
+  private synchronized long apply(Map<String, String> staged) {
+    State current = state;
+    Map<String, String> properties = new HashMap<>(current.properties);
+    Map<String, String> changes = new LinkedHashMap<>();
+    for (Map.Entry<String, String> entry : staged.entrySet()) {
+      String key = entry.getKey();
+      String value = entry.getValue();
+      String previous = null == value ? properties.remove(key) : properties.put(key, value);
+      if (null == value ? null != previous : !value.equals(previous)) {
+        changes.put(key, value);
+      }
+      if (null != value && null == previous) {
+        //Before publishing, so that readers of the new state never skip the key
+        addToFilter(key, properties);
+      }
+    }
+    if (changes.isEmpty()) {
+      return current.epoch;
+    }
+    State next = new State(current.epoch + 1, properties);
+    state = next;
+    Batch batch = new Batch(next.epoch, Collections.unmodifiableMap(changes));
+    for (Listener listener : listeners) {
+      listener.committed(batch);
+    }
+    return next.epoch;
+  }
+
+  private void addToFilter(String key, Map<String, String> properties) {
+    if (filterKeys >= filter.getExpectedKeys()) {
+      rebuildFilter(properties);
+    } else {
+      filter.add(key);
+      filterKeys++;
+    }
+  }
+
+  @Override
+  public String toString() {
+    State current = state;
+    return "PropertyStore(epoch=" + current.epoch + ", properties=" + current.properties.size() + ')';
+  }
+
+  /**
+   * <p>Listener of committed changes. Called by the committing thread, once the changes
+   * are visible, and in commit order.</p>
+   */
+  public interface Listener {
+    /**
+     * @param batch Changes of one commit (not-null)
+     */
+    void committed(Batch batch);
+  }
+
+  /**
+   * <p>Changes published by one commit.</p>
+   */
+  public static final class Batch {
+    private final long epoch;
+    private final Map<String, String> changes;
+
+    Batch(long epoch, Map<String, String> changes) {
+      this.epoch = epoch;
+      this.changes = changes;
+    }
+
+    /**
+     * @return Epoch of the store after the commit
+     */
+    public long getEpoch() {
+      return epoch;
+    }
+
+    /**
+     * @return New values by key, <code>null</code> for removed keys (not-null)
+     */
+    public Map<String, String> getChanges() {
+      return changes;
+    }
+
+    @Override
+    public String toString() {
+      return "Batch(epoch=" + epoch + ", changes=" + changes + ')';
+    }
+  }
+
+  /**
+   * <p>Changes staged for a single commit. Not thread safe.</p>
+   */
+  public final class Transaction {
+    private final Map<String, String> staged = new LinkedHashMap<>();
+    private final Map<String, Proper.Ty<?>> properties = new HashMap<>();
+    private boolean committed;
+
+    Transaction() {
+    }
+
+    /**
+     * <p>Stage a value of the given property, validated on commit.</p>
+     *
+     * @param property Property (not-null)
+     * @param value    Raw value (not-null)
+     * @param args     Key arguments, for keys with placeholders
+     * @return this transaction (not-null)
+     */
+    public Transaction set(Proper.Ty<?> property, String value, Object... args) {
+      String key = checkNotNull("property", property).formatKey(args);
+      stage(key, checkNotNull("value", value));
+      properties.put(key, property);
+      return this;
+    }
+
+    /**
+     * <p>Stage a value of a key with no declared property, applied without validation.</p>
+     *
+     * @param key   Property key (not-null)
+     * @param value Raw value (not-null)
+     * @return this transaction (not-null)
+     */
+    public Transaction set(String key, String value) {
+      stage(checkNotNull("key", key), checkNotNull("value", value));
+      properties.remove(key);
+      return this;
+    }
+
+    /**
+     * <p>Stage the removal of a key.</p>
+     *
+     * @param key Property key (not-null)
+     * @return this transaction (not-null)
+     */
+    public Transaction remove(String key) {
+      stage(checkNotNull("key", key), null);
+      properties.remove(key);
+      return this;
+    }
+
+    private void stage(String key, String value) {
+      if (committed) {
+        throw new IllegalStateException("Transaction already committed");
+      }
+      staged.put(key, value);
+    }
+
+    /**
+     * <p>Validate the staged values, then publish all changes at once.</p>
+     *
+     * @return Epoch of the store after the commit
+     * @throws ValidationException   If any staged value is invalid, nothing is applied then
+     * @throws IllegalStateException If the transaction was already committed
+     */
+    public long commit() {
+      if (committed) {
+        throw new IllegalStateException("Transaction already committed");
+      }
+      Map<String, String> errors = new LinkedHashMap<>();
+      FailureRecorder recorder = new FailureRecorder();
+      for (Map.Entry<String, Proper.Ty<?>> entry : properties.entrySet()) {
+        recorder.error = null;
+        entry.getValue().readValue(entry.getKey(), staged.get(entry.getKey()), recorder);
+        if (null != recorder.error) {
+          errors.put(entry.getKey(), recorder.error);
+        }
+      }
+      if (!errors.isEmpty()) {
+        throw new ValidationException(errors);
+      }
+      committed = true;
+      return apply(staged);
+    }
+  }
+
+  private static final class FailureRecorder extends PropertyListeners.BasePropertyListener {
+    private String error;
+
+    @Override
+    public void validationBeforeConversionFailed(String key, String value, String validationError, Proper.Info<?> info) {
+      error = validationError;
+    }
+
+    @Override
+    public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+      error = conversionError;
+    }
+
+    @Override
+    public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+      error = validationError;
+    }
+  }
+
+  /**
+   * <p>Immutable state, replaced by every commit. The sorted view is built on first use.</p>
+   */
+  private static final class State {
+    private final long epoch;
+    private final Map<String, String> properties;
+    private volatile SortedMap<String, String> sorted;
+
+    State(long epoch, Map<String, String> properties) {
+      this.epoch = epoch;
+      this.properties = properties;
+    }
+
+    SortedMap<String, String> sorted() {
+      SortedMap<String, String> result = sorted;
+      if (null == result) {
+        result = Collections.unmodifiableSortedMap(new TreeMap<>(properties));
+        sorted = result;
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import com.github.rodexion.proper.profile.Stage;
+import com.github.rodexion.proper.profile.StageClock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * <p>Read path of a property (lookup result to returned value), specialized when
+ * the property is built to the stages it actually has.</p>
+ * <p>Each stage is a {@link MethodHandle} bound to the converter, validator and listener
+ * of the property, and to its {@link Proper.Info}, so that every property has its own chain
+ * of stages instead of sharing interface calls with all other properties. Void stages are
+ * constant handles: properties without validators never call a validator, and the void
+ * converter is never called. Listener stages are guarded by a test of the listener of the
+ * read, calling the bound listener of the property when it is the one reading, and any other
+ * listener through its interface. Neither is called for the
+ * {@link PropertyListeners#voidListener()}. Stage laps of the profiler are kept as they were,
+ * dropped stages take no time.</p>
+ * <p>The conversion cache is either fixed, or switched on and off by {@link AdaptiveCaching}.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class ReadPipeline<T> {
+  private static final MethodType BEFORE_CONVERSION =
+          MethodType.methodType(Validator.Result.class, String.class, String.class);
+  private static final MethodType CONVERSION =
+          MethodType.methodType(Converter.Result.class, String.class, String.class);
+  private static final MethodType AFTER_CONVERSION =
+          MethodType.methodType(Validator.Result.class, String.class, Object.class);
+  private static final MethodType NOT_FOUND =
+          MethodType.methodType(void.class, PropertyListener.class, String.class);
+  private static final MethodType RAW_VALUE_FAILED =
+          MethodType.methodType(void.class, PropertyListener.class, String.class, String.class, String.class);
+  private static final MethodType VALUE_FAILED =
+          MethodType.methodType(void.class, PropertyListener.class, String.class, Object.class, String.class);
+  private static final MethodType SUCCESS =
+          MethodType.methodType(void.class, PropertyListener.class, String.class, String.class, Object.class);
+  /**
+   * <p>Lookup of this class rather than the public one, which resolves the stage
+   * interfaces from the bootstrap class loader</p>
+   */
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodHandle IS_SAME = staticHandle("isSame",
+          MethodType.methodType(boolean.class, Object.class, Object.class));
+
+  final Proper.Info<T> info;
+  private final boolean converting;
+  private final boolean validated;
+  /**
+   * <p>Stage handles, <code>(String key, String value)Validator.Result</code> and so on,
+   * with the listener of the read as first argument of listener stages</p>
+   */
+  private final MethodHandle beforeConversion;
+  private final MethodHandle conversion;
+  private final MethodHandle afterConversion;
+  private final MethodHandle notFound;
+  private final MethodHandle validationBeforeConversionFailed;
+  private final MethodHandle conversionFailed;
+  private final MethodHandle validationAfterConversionFailed;
+  private final MethodHandle success;
+  /**
+   * <p>Caching policy, <code>null</code> when caching is fixed</p>
+   */
+  private final AdaptiveCaching adaptiveCaching;
+  private volatile boolean cacheConversions;
+  private volatile Conversion<T> lastConversion;
+  /**
+   * <p>Read counter, racy on purpose: lost increments only delay the next sample</p>
+   */
+  private int reads;
+  private long sampledAtNanos = System.nanoTime();
+
+  ReadPipeline(Proper.Info<T> info,
+               Converter<T> converter,
+               Validator<T> validator,
+               PropertyListener propertyListener,
+               boolean cacheConversions,
+               AdaptiveCaching adaptiveCaching) {
+    this.info = info;
+    this.converting = converter != Converters.voidConverter();
+    this.validated = validator != Validators.voidValidator();
+    this.conversion = converting
+            ? stage(Converter.class, converter, "convert", CONVERSION, info)
+            : constant(CONVERSION, Converter.Result.skip());
+    this.beforeConversion = validated
+            ? stage(Validator.class, validator, "beforeConversion", BEFORE_CONVERSION, info)
+            : constant(BEFORE_CONVERSION, Validator.Result.ok());
+    this.afterConversion = validated
+            ? stage(Validator.class, validator, "afterConversion", AFTER_CONVERSION, info)
+            : constant(AFTER_CONVERSION, Validator.Result.ok());
+    this.notFound = listenerStage(propertyListener, "notFound", NOT_FOUND, info);
+    this.validationBeforeConversionFailed = listenerStage(propertyListener, "validationBeforeConversionFailed",
+            RAW_VALUE_FAILED, info);
+    this.conversionFailed = listenerStage(propertyListener, "conversionFailed", RAW_VALUE_FAILED, info);
+    this.validationAfterConversionFailed = listenerStage(propertyListener, "validationAfterConversionFailed",
+            VALUE_FAILED, info);
+    this.success = listenerStage(propertyListener, "success", SUCCESS, info);
+    this.cacheConversions = cacheConversions;
+    this.adaptiveCaching = adaptiveCaching.isEnabled() && AdaptiveCaching.isImmutable(info.getType())
+            ? adaptiveCaching
+            : null;
+  }
+
+  /**
+   * @return <code>false</code> when the property has no validators, and validation is skipped
+   */
+  boolean isValidated() {
+    return validated;
+  }
+
+  /**
+   * @return <code>false</code> when the property has the void converter, and conversion is skipped
+   */
+  boolean isConverting() {
+    return converting;
+  }
+
+  /**
+   * <p>Turn the looked up value into the value of the property.</p>
+   *
+   * @param key      Formatted property key (not-null)
+   * @param value    Looked up value (maybe-null)
+   * @param listener Listener of this read (not-null)
+   * @param clock    Stage clock of this read (not-null)
+   * @return Property value (maybe-null)
+   */
+  T read(String key, String value, PropertyListener listener, StageClock clock) {
+    try {
+      return readStages(key, value, listener, clock);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      //Stages do not declare checked exceptions
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T readStages(String key, String value, PropertyListener listener, StageClock clock) throws Throwable {
+    boolean listening = listener != PropertyListeners.voidListener();
+    if (null != adaptiveCaching && (++reads & (AdaptiveCaching.SAMPLE_READS - 1)) == 0) {
+      sampleReadRate(listener instanceof CachePromotionListener ? (CachePromotionListener) listener : null);
+    }
+    if (null == value) {
+      if (listening) {
+        notFound.invokeExact(listener, key);
+      }
+      clock.lap(Stage.LISTENER);
+    }
+    Validator.Result validationBefore = (Validator.Result) beforeConversion.invokeExact(key, value);
+    clock.lap(Stage.VALIDATION);
+    if (!validationBefore.isOk()) {
+      if (listening) {
+        validationBeforeConversionFailed.invokeExact(listener, key, value, errorOf(listener, validationBefore));
+      }
+      clock.lap(Stage.LISTENER);
+      return info.getDefaultValue();
+    }
+    if (null == value) {
+      return info.getDefaultValue();
+    }
+    T convertedValue;
+    Conversion<T> cached = lastConversion;
+    if (null != cached && cached.isFor(key, value)) {
+      convertedValue = cached.value;
+      clock.lap(Stage.CONVERSION);
+    } else {
+      Converter.Result<T> result = (Converter.Result<T>) conversion.invokeExact(key, value);
+      clock.lap(Stage.CONVERSION);
+      if (result.isFailure()) {
+        if (listening) {
+          conversionFailed.invokeExact(listener, key, value, errorOf(listener, result));
+        }
+        clock.lap(Stage.LISTENER);
+        return info.getDefaultValue();
+      } else if (result.isSkip()) {
+        //Maybe value does not need conversion
+        if (info.getType().isAssignableFrom(String.class)) {
+          return (T) value;
+        } else {
+          if (listening) {
+            conversionFailed.invokeExact(listener, key, value,
+                    errorOf(listener, Converter.Result.<T>fail(ErrorCode.NO_CONVERTER)));
+          }
+          clock.lap(Stage.LISTENER);
+        }
+      } else if (cacheConversions) {
+        lastConversion = new Conversion<>(key, value, result.getValue());
+      }
+      convertedValue = result.getValue();
+    }
+    Validator.Result validationAfter = (Validator.Result) afterConversion.invokeExact(key, (Object) convertedValue);
+    clock.lap(Stage.VALIDATION);
+    if (!validationAfter.isOk()) {
+      if (listening) {
+        validationAfterConversionFailed.invokeExact(listener, key, (Object) convertedValue,
+                errorOf(listener, validationAfter));
+      }
+      clock.lap(Stage.LISTENER);
+      return info.getDefaultValue();
+    }
+    if (listening) {
+      success.invokeExact(listener, key, value, (Object) convertedValue);
+    }
+    clock.lap(Stage.LISTENER);
+    return convertedValue;
+  }
+
+  /**
+   * <p>Handle of the given stage method, bound to the given target and property info.</p>
+   *
+   * @param type Stage type, the parameters of the stage method without the trailing info
+   */
+  private static MethodHandle stage(Class<?> owner, Object target, String name, MethodType type,
+                                    Proper.Info<?> info) {
+    MethodHandle method = virtualHandle(owner, name, type.appendParameterTypes(Proper.Info.class));
+    return MethodHandles.insertArguments(method.bindTo(target), type.parameterCount(), info);
+  }
+
+  /**
+   * <p>Handle of the given listener method, calling the bound property listener when it is
+   * the listener of the read (first argument), or the listener of the read otherwise.</p>
+   */
+  private static MethodHandle listenerStage(PropertyListener propertyListener, String name, MethodType type,
+                                            Proper.Info<?> info) {
+    MethodHandle method = virtualHandle(PropertyListener.class, name,
+            type.dropParameterTypes(0, 1).appendParameterTypes(Proper.Info.class));
+    MethodHandle anyListener = MethodHandles.insertArguments(method, type.parameterCount(), info);
+    MethodHandle boundListener = MethodHandles.dropArguments(
+            anyListener.bindTo(propertyListener), 0, PropertyListener.class);
+    MethodHandle isBoundListener = MethodHandles.dropArguments(
+            IS_SAME.bindTo(propertyListener).asType(MethodType.methodType(boolean.class, PropertyListener.class)),
+            1, type.dropParameterTypes(0, 1).parameterList());
+    return MethodHandles.guardWithTest(isBoundListener, boundListener, anyListener);
+  }
+
+  private static MethodHandle constant(MethodType type, Object value) {
+    return MethodHandles.dropArguments(MethodHandles.constant(type.returnType(), value), 0, type.parameterList());
+  }
+
+  private static MethodHandle virtualHandle(Class<?> owner, String name, MethodType type) {
+    try {
+      return LOOKUP.findVirtual(owner, name, type);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Stage method " + owner.getName() + "." + name + " not found", e);
+    }
+  }
+
+  private static MethodHandle staticHandle(String name, MethodType type) {
+    try {
+      return LOOKUP.findStatic(ReadPipeline.class, name, type);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Stage method " + name + " not found", e);
+    }
+  }
+
+  private static boolean isSame(Object listener, Object otherListener) {
+    return listener == otherListener;
+  }
+
+  /**
+   * <p>Promote or demote the property, based on the time the last sample of reads took.</p>
+   */
+  private synchronized void sampleReadRate(CachePromotionListener listener) {
+    long now = System.nanoTime();
+    long readsPerSecond = AdaptiveCaching.SAMPLE_READS * 1000000000L / Math.max(1, now - sampledAtNanos);
+    sampledAtNanos = now;
+    if (!cacheConversions && readsPerSecond >= adaptiveCaching.getPromoteReadsPerSecond()) {
+      cacheConversions = true;
+      if (null != listener) {
+        listener.cachePromoted(info, readsPerSecond);
+      }
+    } else if (cacheConversions && readsPerSecond < adaptiveCaching.getDemoteReadsPerSecond()) {
+      cacheConversions = false;
+      lastConversion = null;
+      if (null != listener) {
+        listener.cacheDemoted(info, readsPerSecond);
+      }
+    }
+  }
+
+  private static String errorOf(PropertyListener propertyListener, Converter.Result<?> result) {
+    return null == result.getErrorCode() || wantsFailureDetails(propertyListener)
+            ? result.getErrorMessage()
+            : result.getErrorCode().getName();
+  }
+
+  private static String errorOf(PropertyListener propertyListener, Validator.Result result) {
+    return null == result.getErrorCode() || wantsFailureDetails(propertyListener)
+            ? result.getErrorMessage()
+            : result.getErrorCode().getName();
+  }
+
+  private static boolean wantsFailureDetails(PropertyListener propertyListener) {
+    return !(propertyListener instanceof FailureDetailsListener)
+            || ((FailureDetailsListener) propertyListener).wantsFailureDetails();
+  }
+
+  /**
+   * <p>Last successful conversion, reused while the raw value does not change.</p>
+   */
+  private static final class Conversion<T> {
+    private final String key;
+    private final String rawValue;
+    private final T value;
+
+    Conversion(String key, String rawValue, T value) {
+      this.key = key;
+      this.rawValue = rawValue;
+      this.value = value;
+    }
+
+    boolean isFor(String key, String rawValue) {
+      return (this.rawValue == rawValue || this.rawValue.equals(rawValue)) &&
+              (this.key == key || this.key.equals(key));
+    }
+  }
+}
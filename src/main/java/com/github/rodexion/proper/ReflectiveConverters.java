@@ -0,0 +1,158 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Converters of value types which know how to parse themselves
+ * (see {@link Converters#reflectiveConverter(Class)}).</p>
+ * <p>The factory method or constructor is looked up once per type and bound to a
+ * {@link MethodHandle} adapted to <code>(String)Object</code>, so that conversions
+ * are exact handle invocations instead of {@link Method#invoke(Object, Object...)} calls,
+ * with neither argument arrays nor access checks per call.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+final class ReflectiveConverters {
+  /**
+   * <p>Names and parameter types of static factory methods, in order of preference.</p>
+   */
+  private static final String[] FACTORY_NAMES = {"valueOf", "parse", "of"};
+  private static final Class<?>[] FACTORY_PARAMETERS = {String.class, CharSequence.class, String.class};
+  private static final MethodType CONVERSION_TYPE = MethodType.methodType(Object.class, String.class);
+
+  static <T> Converter<T> converterFor(Class<T> type) {
+    MethodHandle factory = findFactory(type);
+    return null == factory ? Converters.<T>voidConverter() : new HandleConverter<>(type, factory);
+  }
+
+  /**
+   * <p>Caches converters per type, including the absence of one.</p>
+   */
+  static final class CachingProvider implements ConverterProvider {
+    private final ConcurrentMap<Class<?>, Converter<?>> converters = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Converter<T> getConverter(Class<T> forType) {
+      if (null == forType) {
+        return Converters.voidConverter();
+      }
+      Converter<?> converter = converters.get(forType);
+      if (null == converter) {
+        converter = converterFor(forType);
+        Converter<?> raced = converters.putIfAbsent(forType, converter);
+        if (null != raced) {
+          converter = raced;
+        }
+      }
+      return (Converter<T>) converter;
+    }
+  }
+
+  private static MethodHandle findFactory(Class<?> type) {
+    if (type.isPrimitive() || type.isArray() || type.isInterface() || !Modifier.isPublic(type.getModifiers())) {
+      return null;
+    }
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    for (int i = 0; i < FACTORY_NAMES.length; i++) {
+      Method method = findStaticMethod(type, FACTORY_NAMES[i], FACTORY_PARAMETERS[i]);
+      if (null != method) {
+        try {
+          return lookup.unreflect(method).asType(CONVERSION_TYPE);
+        } catch (IllegalAccessException e) {
+          //E.g. public method inherited from a non-public class, try next one
+        }
+      }
+    }
+    if (!Modifier.isAbstract(type.getModifiers())) {
+      try {
+        Constructor<?> constructor = type.getConstructor(String.class);
+        return lookup.unreflectConstructor(constructor).asType(CONVERSION_TYPE);
+      } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+        //No usable constructor
+      }
+    }
+    return null;
+  }
+
+  private static Method findStaticMethod(Class<?> type, String name, Class<?> parameterType) {
+    try {
+      Method method = type.getMethod(name, parameterType);
+      int modifiers = method.getModifiers();
+      if (Modifier.isStatic(modifiers) && type.isAssignableFrom(method.getReturnType())) {
+        return method;
+      }
+    } catch (NoSuchMethodException | SecurityException e) {
+      //Try next one
+    }
+    return null;
+  }
+
+  private static final class HandleConverter<T> implements Converter<T> {
+    private final Class<T> type;
+    private final MethodHandle factory;
+
+    HandleConverter(Class<T> type, MethodHandle factory) {
+      this.type = type;
+      this.factory = factory;
+    }
+
+    @Override
+    public boolean canConvert(Class<?> type) {
+      return this.type.equals(type);
+    }
+
+    @Override
+    public Result<T> convert(String key, String value, Proper.Info<T> info) {
+      if (null != value) {
+        try {
+          Object converted = (Object) factory.invokeExact(value);
+          return Result.ok(type.cast(converted));
+        } catch (RuntimeException e) {
+          //Falls through to failure
+        } catch (Error e) {
+          throw e;
+        } catch (Throwable e) {
+          //Checked exception of the factory, e.g. URISyntaxException
+        }
+      }
+      return Result.fail(ErrorCode.CONVERSION_FAILED, value, info.getKey(), type.getCanonicalName());
+    }
+
+    @Override
+    public String toString() {
+      return "ReflectiveConverter(type=" + type.getName() + ')';
+    }
+  }
+
+  private ReflectiveConverters() {
+  }
+}
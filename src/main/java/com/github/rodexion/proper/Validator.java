@@ -20,7 +20,12 @@
 
 package com.github.rodexion.proper;
 
-import lombok.Data;
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
 
 /**
  * @author rodexion
@@ -29,12 +34,35 @@ import lombok.Data;
 public interface Validator<T> {
 
   /**
-   * <p>Representation of validation outcome.</p>
+   * <p>Representation of validation outcome. Failures keep an {@link ErrorCode} and its
+   * arguments, the error message is only formatted once requested.</p>
    */
-  @Data
+  @Getter
   public static class Result {
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final Result OK = new Result(true, null, NO_ARGS);
+
     private final boolean ok;
-    private final String errorMessage;
+    /**
+     * <p>Error code of a failed validation (maybe-null)</p>
+     */
+    private final ErrorCode errorCode;
+    @Getter(AccessLevel.NONE)
+    private final Object[] errorArgs;
+    @Getter(AccessLevel.NONE)
+    private String errorMessage;
+
+    public Result(boolean ok, String errorMessage) {
+      this(ok, null == errorMessage ? null : ErrorCode.MESSAGE,
+              null == errorMessage ? NO_ARGS : new Object[]{errorMessage});
+      this.errorMessage = errorMessage;
+    }
+
+    private Result(boolean ok, ErrorCode errorCode, Object[] errorArgs) {
+      this.ok = ok;
+      this.errorCode = errorCode;
+      this.errorArgs = errorArgs;
+    }
 
     /**
      * <p>Creates a validation success result object.</p>
@@ -42,7 +70,7 @@ public interface Validator<T> {
      * @return Validation result object (not-null)
      */
     public static final Result ok() {
-      return new Result(true, null);
+      return OK;
     }
 
     /**
@@ -54,6 +82,62 @@ public interface Validator<T> {
     public static final Result fail(String errorMessage) {
       return new Result(false, errorMessage);
     }
+
+    /**
+     * <p>Creates a validation failure result object, with the error message formatted on demand.</p>
+     *
+     * @param errorCode Validation error (not-null)
+     * @param errorArgs Error message arguments (not-null)
+     * @return Validation result object (not-null)
+     */
+    public static final Result fail(ErrorCode errorCode, Object... errorArgs) {
+      return new Result(false, checkNotNull("errorCode", errorCode), errorArgs);
+    }
+
+    /**
+     * <p>Error message of a failed validation, formatted on first request.</p>
+     *
+     * @return Error message (maybe-null)
+     */
+    public String getErrorMessage() {
+      if (null == errorMessage && null != errorCode) {
+        errorMessage = errorCode.format(errorArgs);
+      }
+      return errorMessage;
+    }
+
+    /**
+     * @return Copy of the error message arguments (not-null)
+     */
+    public Object[] getErrorArgs() {
+      return errorArgs.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Result)) {
+        return false;
+      }
+      Result that = (Result) o;
+      return ok == that.ok &&
+              errorCode == that.errorCode &&
+              Arrays.equals(errorArgs, that.errorArgs);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = ok ? 1 : 0;
+      result = 31 * result + (null == errorCode ? 0 : errorCode.hashCode());
+      return 31 * result + Arrays.hashCode(errorArgs);
+    }
+
+    @Override
+    public String toString() {
+      return "Validator.Result(ok=" + ok + ", errorMessage=" + getErrorMessage() + ')';
+    }
   }
 
   /**
@@ -121,6 +121,12 @@ public class ValidatorProviders {
               validatorChain.add((Validator<T>) validator);
             }
           }
+          //Trivial chains are not wrapped, so that reads do not go through an extra call
+          if (validatorChain.isEmpty()) {
+            return Validators.voidValidator();
+          } else if (validatorChain.size() == 1) {
+            return validatorChain.get(0);
+          }
           return new Validator<T>() {
             @Override
             public boolean canValidate(Class<?> type) {
@@ -129,8 +135,9 @@ public class ValidatorProviders {
 
             @Override
             public Result beforeConversion(String key, String value, Proper.Info<T> info) {
-              for (Validator<T> validator : validatorChain) {
-                Result result = validator.beforeConversion(key, value, info);
+              //Indexed loops, so that validation does not allocate iterators
+              for (int i = 0; i < validatorChain.size(); i++) {
+                Result result = validatorChain.get(i).beforeConversion(key, value, info);
                 if (!result.isOk()) {
                   return result;
                 }
@@ -140,8 +147,8 @@ public class ValidatorProviders {
 
             @Override
             public Result afterConversion(String key, T value, Proper.Info<T> info) {
-              for (Validator<T> validator : validatorChain) {
-                Result result = validator.afterConversion(key, value, info);
+              for (int i = 0; i < validatorChain.size(); i++) {
+                Result result = validatorChain.get(i).afterConversion(key, value, info);
                 if (!result.isOk()) {
                   return result;
                 }
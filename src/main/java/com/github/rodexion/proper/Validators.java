@@ -24,6 +24,8 @@ import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
 
 import com.github.rodexion.proper.util.Opt;
 
+import java.util.regex.Pattern;
+
 /**
  * <p>A collection of default validator implementations.</p>
  *
@@ -52,6 +54,10 @@ public class Validators {
       return Result.fail(errorMessage);
     }
 
+    public final Result fail(ErrorCode errorCode, Object... errorArgs) {
+      return Result.fail(errorCode, errorArgs);
+    }
+
     @Override
     public boolean canValidate(Class<?> type) {
       return typeClass.equals(type);
@@ -113,7 +119,7 @@ public class Validators {
       @Override
       public Result beforeConversion(String key, String value, Proper.Info<T> info) {
         if (null == value) {
-          return Result.fail("Required property '" + key + "' was not found.");
+          return Result.fail(ErrorCode.REQUIRED_PROPERTY_MISSING, key);
         }
         return Result.ok();
       }
@@ -125,6 +131,63 @@ public class Validators {
     };
   }
 
+  /**
+   * <p>Validator which makes sure the raw property value, before conversion, matches
+   * the given regular expression as a whole. Patterns are compiled once and shared by
+   * validators of the same expression (up to {@value PatternValidators#PATTERN_CACHE_SIZE}
+   * cached patterns). Missing values are not validated.</p>
+   *
+   * @param regex Regular expression (not-null)
+   * @param <T>   Property conversion target type
+   * @return Validator instance (not-null)
+   * @throws java.util.regex.PatternSyntaxException If the expression is invalid
+   */
+  public static <T> Validator<T> patternValidator(String regex) {
+    return new PatternValidators.PatternValidator<>(PatternValidators.compile(checkNotNull("regex", regex)));
+  }
+
+  /**
+   * <p>Validator which makes sure the raw property value, before conversion, matches
+   * the given pattern as a whole. Missing values are not validated.</p>
+   *
+   * @param pattern Compiled pattern (not-null)
+   * @param <T>     Property conversion target type
+   * @return Validator instance (not-null)
+   */
+  public static <T> Validator<T> patternValidator(Pattern pattern) {
+    return new PatternValidators.PatternValidator<>(checkNotNull("pattern", pattern));
+  }
+
+  /**
+   * <p>Validator which makes sure the length of the raw property value, before conversion,
+   * is within the given bounds. Missing values are not validated.</p>
+   *
+   * @param min Minimal length (inclusive)
+   * @param max Maximal length (inclusive)
+   * @param <T> Property conversion target type
+   * @return Validator instance (not-null)
+   */
+  public static <T> Validator<T> lengthValidator(int min, int max) {
+    if (min < 0 || max < min) {
+      throw new IllegalArgumentException("Invalid length bounds: min=" + min + " max=" + max);
+    }
+    return new PatternValidators.LengthValidator<>(min, max);
+  }
+
+  /**
+   * <p>Validator which makes sure the raw property value, before conversion, only consists
+   * of the allowed characters. Allowed characters are listed as is, or as ranges such as
+   * <code>a-z</code>; a <code>'-'</code> is literal at the start or the end. E.g.
+   * <code>"a-zA-Z0-9.-"</code> for host names. Missing values are not validated.</p>
+   *
+   * @param allowed Allowed characters (not-null)
+   * @param <T>     Property conversion target type
+   * @return Validator instance (not-null)
+   */
+  public static <T> Validator<T> charsetValidator(String allowed) {
+    return new PatternValidators.CharsetValidator<>(checkNotNull("allowed", allowed));
+  }
+
   /**
    * <p>A tool for creating validator for values that have upper and/or lower
    * boundaries. E.g. Make sure <code>0 &lt; value &lt; 100</code></p>
@@ -191,10 +254,10 @@ public class Validators {
         @Override
         public Result afterConversion(String key, T value, Proper.Info<T> info) {
           if (!min.isNone() && value.compareTo(min.get()) < 0) {
-            return Result.fail(value + " is less than " + min.get());
+            return Result.fail(ErrorCode.LESS_THAN_MIN, value, min.get());
           }
           if (!max.isNone() && value.compareTo(max.get()) > 0) {
-            return Result.fail(value + " is greater than " + max.get());
+            return Result.fail(ErrorCode.GREATER_THAN_MAX, value, max.get());
           }
           return Result.ok();
         }
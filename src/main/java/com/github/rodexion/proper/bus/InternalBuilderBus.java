@@ -21,6 +21,7 @@
 package com.github.rodexion.proper.bus;
 
 import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.registry.PropertyRegistry;
 import com.github.rodexion.proper.scanner.ProperDecl;
 
 import java.util.ArrayList;
@@ -35,6 +36,7 @@ import java.util.List;
  */
 public class InternalBuilderBus {
   private static final List<ProperDecl> properties = new ArrayList<>();
+  private static final PropertyRegistry registry = new PropertyRegistry();
 
   /**
    * <p>Register the given property as detected.</p>
@@ -43,7 +45,11 @@ public class InternalBuilderBus {
    * @param location Property location data (not-null)
    */
   public static void firePropertyBuilt(Proper.Ty<?> info, ProperLocation location) {
-    properties.add(new ProperDecl(info, location));
+    ProperDecl decl = new ProperDecl(info, location);
+    synchronized (properties) {
+      properties.add(decl);
+    }
+    registry.register(decl);
   }
 
   /**
@@ -52,6 +58,17 @@ public class InternalBuilderBus {
    * @return All accumulated properties (not-null)
    */
   public static List<ProperDecl> getFoundProperties() {
-    return new ArrayList<>(properties);
+    synchronized (properties) {
+      return new ArrayList<>(properties);
+    }
+  }
+
+  /**
+   * <p>Retrieve index of all accumulated properties</p>
+   *
+   * @return Property registry, updated as properties are built (not-null)
+   */
+  public static PropertyRegistry getRegistry() {
+    return registry;
   }
 }
@@ -0,0 +1,158 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Lock-free log-linear histogram of latencies in nanoseconds,
+ * modelled after <a href="http://hdrhistogram.org/">HdrHistogram</a>.</p>
+ * <p>Values below {@value #SUB_BUCKET_COUNT} are recorded exactly, larger
+ * values are recorded into buckets whose width doubles with every power of two,
+ * each power of two being split into {@value #HALF_SUB_BUCKET_COUNT} linear
+ * sub-buckets. This keeps the relative error of all reported values
+ * below ~6%, while the whole <code>long</code> range fits into less than
+ * a thousand counters.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT >> 1;
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalValue = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * <p>Record a single value.</p>
+   *
+   * @param value Value in nanoseconds (negative values are recorded as <code>0</code>)
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    counts.incrementAndGet(indexOf(v));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(v);
+    long max;
+    while (v > (max = maxValue.get())) {
+      if (maxValue.compareAndSet(max, v)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return Number of recorded values
+   */
+  public long getTotalCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return Largest value recorded, or <code>0</code> if empty
+   */
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * @return Arithmetic mean of the recorded values, or <code>0</code> if empty
+   */
+  public double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) totalValue.get() / count;
+  }
+
+  /**
+   * <p>Retrieve value at the given percentile. The value returned is the
+   * upper bound of the bucket containing the percentile, capped at {@link #getMax()}.</p>
+   *
+   * @param percentile Percentile in the range of <code>[0, 100]</code>
+   * @return Value at the given percentile, or <code>0</code> if empty
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    double p = Math.min(Math.max(percentile, 0), 100);
+    long target = Math.max(1, (long) Math.ceil(p / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestValueIn(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * <p>Clear all recorded values.</p>
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    totalValue.set(0);
+    maxValue.set(0);
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+  }
+
+  static long lowestValueIn(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+    long mantissa = index % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+    return mantissa << shift;
+  }
+
+  static long highestValueIn(int index) {
+    if (index + 1 >= BUCKET_COUNT) {
+      return Long.MAX_VALUE;
+    }
+    return lowestValueIn(index + 1) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram(count=" + getTotalCount() +
+            ", mean=" + getMean() +
+            ", p50=" + getValueAtPercentile(50) +
+            ", p99=" + getValueAtPercentile(99) +
+            ", max=" + getMax() + ')';
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+import com.github.rodexion.proper.Proper;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Per-stage read latency histograms of a single property.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ * @see ReadProfiler
+ */
+public final class PropertyProfile {
+  /**
+   * <p>Profile of properties that are not profiled. Never samples.</p>
+   */
+  public static final PropertyProfile NONE = new PropertyProfile(null, 0);
+
+  /**
+   * <p>Profiled property information (maybe-null for {@link #NONE})</p>
+   */
+  @Getter
+  private final Proper.Info<?> info;
+  private final int sampleRate;
+  private final LatencyHistogram[] histograms;
+  private final AtomicLong sampleCount = new AtomicLong();
+
+  PropertyProfile(Proper.Info<?> info, int sampleRate) {
+    this.info = info;
+    this.sampleRate = sampleRate;
+    this.histograms = new LatencyHistogram[Stage.values().length];
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * <p>Start measuring a property read. Only one in {@link ReadProfiler#getSampleRate()}
+   * reads is actually measured, all other reads receive {@link StageClock#NOOP}.</p>
+   *
+   * @return Clock to use for the read (not-null)
+   */
+  public StageClock start() {
+    if (sampleRate <= 0) {
+      return StageClock.NOOP;
+    }
+    if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+      return StageClock.NOOP;
+    }
+    return new StageClock(this);
+  }
+
+  /**
+   * <p>Latency histogram of the given stage.</p>
+   *
+   * @param stage Read stage (not-null)
+   * @return Histogram of nanosecond latencies (not-null)
+   */
+  public LatencyHistogram getHistogram(Stage stage) {
+    return histograms[stage.ordinal()];
+  }
+
+  /**
+   * @return Number of sampled reads
+   */
+  public long getSampleCount() {
+    return sampleCount.get();
+  }
+
+  /**
+   * <p>Clear all recorded samples.</p>
+   */
+  public void reset() {
+    for (LatencyHistogram histogram : histograms) {
+      histogram.reset();
+    }
+    sampleCount.set(0);
+  }
+
+  void record(long[] elapsed, int touchedStages) {
+    sampleCount.incrementAndGet();
+    for (int i = 0; i < elapsed.length; i++) {
+      if ((touchedStages & (1 << i)) != 0) {
+        histograms[i].record(elapsed[i]);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("PropertyProfile(key=")
+            .append(null == info ? null : info.getKey())
+            .append(", samples=").append(getSampleCount());
+    for (Stage stage : Stage.values()) {
+      sb.append(", ").append(stage).append('=').append(getHistogram(stage));
+    }
+    return sb.append(')').toString();
+  }
+}
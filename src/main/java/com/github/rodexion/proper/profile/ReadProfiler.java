@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+import com.github.rodexion.proper.Proper;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Opt-in profiler of property reads, and a registry of the
+ * collected {@link PropertyProfile}s.</p>
+ * <p>Register the profiler with the property using
+ * {@link com.github.rodexion.proper.PropertyBuilder#profiler(ReadProfiler)}.
+ * Every sampled read of such property will then be timed per {@link Stage},
+ * and the results can be pulled from {@link #getProfiles()} at any time:</p>
+ * <pre><code>
+ *   ReadProfiler profiler = ReadProfiler.sampling(100); //1 in 100 reads
+ *   Proper.Ty&lt;Integer&gt; prop = Proper.tyBuilder("my.prop", 1).profiler(profiler).build();
+ *   ...
+ *   for (PropertyProfile profile : profiler.getProfiles()) {
+ *     profile.getHistogram(Stage.CONVERSION).getValueAtPercentile(99);
+ *   }
+ * </code></pre>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class ReadProfiler {
+  private static final ReadProfiler disabled = new ReadProfiler(0);
+
+  /**
+   * <p>Measure one in <code>sampleRate</code> reads (not-negative).
+   * <code>0</code> means profiling is disabled.</p>
+   */
+  @Getter
+  private final int sampleRate;
+  private final ConcurrentMap<String, PropertyProfile> profiles = new ConcurrentHashMap<>();
+
+  private ReadProfiler(int sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * <p>Profiler that never measures anything. Used by default.</p>
+   *
+   * @return Profiler object (not-null)
+   */
+  public static ReadProfiler disabled() {
+    return disabled;
+  }
+
+  /**
+   * <p>Profiler measuring every single read. Should only be used when
+   * debugging, as each measured read incurs several calls to {@link System#nanoTime()}.</p>
+   *
+   * @return Profiler object (not-null)
+   */
+  public static ReadProfiler everyRead() {
+    return new ReadProfiler(1);
+  }
+
+  /**
+   * <p>Profiler measuring a random sample of one in <code>sampleRate</code> reads.</p>
+   *
+   * @param sampleRate Sampling rate (positive)
+   * @return Profiler object (not-null)
+   */
+  public static ReadProfiler sampling(int sampleRate) {
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("sampleRate has to be positive: " + sampleRate);
+    }
+    return new ReadProfiler(sampleRate);
+  }
+
+  /**
+   * <p>Register a property for profiling. Properties sharing the same
+   * key share the same profile.</p>
+   *
+   * @param info Property information (not-null)
+   * @return Profile object of the property (not-null)
+   */
+  public PropertyProfile register(Proper.Info<?> info) {
+    if (sampleRate == 0) {
+      return PropertyProfile.NONE;
+    }
+    PropertyProfile profile = profiles.get(info.getKey());
+    if (null == profile) {
+      PropertyProfile newProfile = new PropertyProfile(info, sampleRate);
+      profile = profiles.putIfAbsent(info.getKey(), newProfile);
+      if (null == profile) {
+        profile = newProfile;
+      }
+    }
+    return profile;
+  }
+
+  /**
+   * <p>Retrieve profiles of all properties registered with this profiler.</p>
+   *
+   * @return Property profiles (not-null)
+   */
+  public List<PropertyProfile> getProfiles() {
+    return new ArrayList<>(profiles.values());
+  }
+
+  /**
+   * <p>Retrieve profile of the property with the given key, if registered.</p>
+   *
+   * @param key Property key as declared (not-null)
+   * @return Property profile, or {@link PropertyProfile#NONE} if not registered (not-null)
+   */
+  public PropertyProfile getProfile(String key) {
+    PropertyProfile profile = profiles.get(key);
+    return null == profile ? PropertyProfile.NONE : profile;
+  }
+
+  /**
+   * <p>Clear samples collected for all registered properties.</p>
+   */
+  public void reset() {
+    for (PropertyProfile profile : profiles.values()) {
+      profile.reset();
+    }
+  }
+}
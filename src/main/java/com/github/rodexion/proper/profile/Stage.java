@@ -0,0 +1,51 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+/**
+ * <p>Individual stages of a single property read, as performed by
+ * {@link com.github.rodexion.proper.Proper.Ty#getValue(Object...)}.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public enum Stage {
+  /**
+   * <p>Formatting of the (possibly dynamic) property key.</p>
+   */
+  KEY_FORMAT,
+  /**
+   * <p>Lookup of the raw property value.</p>
+   */
+  LOOKUP,
+  /**
+   * <p>Conversion of the raw value to the property type.</p>
+   */
+  CONVERSION,
+  /**
+   * <p>Validation before and after the conversion step.</p>
+   */
+  VALIDATION,
+  /**
+   * <p>Property listener callbacks.</p>
+   */
+  LISTENER
+}
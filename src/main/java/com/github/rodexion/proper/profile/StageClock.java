@@ -0,0 +1,78 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+/**
+ * <p>Measures the time spent in each {@link Stage} of a single property read.</p>
+ * <p>A clock is confined to the reading thread. Every call to {@link #lap(Stage)}
+ * attributes the time elapsed since the previous lap to the given stage, and
+ * {@link #stop()} records the accumulated times into the property profile.
+ * Stages that were not reached during the read (e.g. conversion of a missing
+ * property) are not recorded.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class StageClock {
+  /**
+   * <p>Clock used for reads that are not sampled. Does nothing.</p>
+   */
+  public static final StageClock NOOP = new StageClock(null);
+  private static final int STAGE_COUNT = Stage.values().length;
+
+  private final PropertyProfile profile;
+  private final long[] elapsed;
+  private int touched;
+  private long last;
+
+  StageClock(PropertyProfile profile) {
+    this.profile = profile;
+    if (null == profile) {
+      this.elapsed = null;
+    } else {
+      this.elapsed = new long[STAGE_COUNT];
+      this.last = System.nanoTime();
+    }
+  }
+
+  /**
+   * <p>Attribute time elapsed since the previous lap to the given stage.</p>
+   *
+   * @param stage Stage that has just completed (not-null)
+   */
+  public void lap(Stage stage) {
+    if (null != profile) {
+      long now = System.nanoTime();
+      elapsed[stage.ordinal()] += now - last;
+      touched |= 1 << stage.ordinal();
+      last = now;
+    }
+  }
+
+  /**
+   * <p>Finish the measurement and record it into the property profile.</p>
+   */
+  public void stop() {
+    if (null != profile) {
+      profile.record(elapsed, touched);
+    }
+  }
+}
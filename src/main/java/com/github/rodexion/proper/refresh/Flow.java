@@ -0,0 +1,95 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+/**
+ * <p>Interfaces of the reactive streams protocol, mirroring
+ * <code>java.util.concurrent.Flow</code> of later Java versions, so that adapting
+ * a {@link PropertyPublisher} to it only takes forwarding each call.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class Flow {
+  /**
+   * <p>Producer of items, received by subscribers on their demand.</p>
+   *
+   * @param <T> Item type
+   */
+  public interface Publisher<T> {
+    /**
+     * <p>Add a subscriber. It is first called with {@link Subscriber#onSubscribe(Subscription)},
+     * and receives items once it requests them.</p>
+     *
+     * @param subscriber Subscriber (not-null)
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+  }
+
+  /**
+   * <p>Receiver of items. Methods of a subscriber are never called concurrently.</p>
+   *
+   * @param <T> Item type
+   */
+  public interface Subscriber<T> {
+    /**
+     * @param subscription Subscription to request items from, or to cancel (not-null)
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * @param item Next item (not-null)
+     */
+    void onNext(T item);
+
+    /**
+     * <p>Terminal failure, no more items are delivered afterwards.</p>
+     *
+     * @param throwable Failure (not-null)
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * <p>Terminal completion, no more items are delivered afterwards.</p>
+     */
+    void onComplete();
+  }
+
+  /**
+   * <p>Link between a publisher and one of its subscribers.</p>
+   */
+  public interface Subscription {
+    /**
+     * <p>Request up to <code>n</code> more items.</p>
+     *
+     * @param n Number of items (positive, {@link Long#MAX_VALUE} for unbounded)
+     */
+    void request(long n);
+
+    /**
+     * <p>Stop receiving items.</p>
+     */
+    void cancel();
+  }
+
+  private Flow() {
+  }
+}
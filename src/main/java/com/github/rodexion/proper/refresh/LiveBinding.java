@@ -0,0 +1,140 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import com.github.rodexion.proper.CachePromotionListener;
+import com.github.rodexion.proper.FailureDetailsListener;
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.PropertyListener;
+import lombok.Getter;
+
+/**
+ * <p>Base class of live holders, bound to a property by a {@link RefreshScheduler}.</p>
+ * <p>Every refresh reads the property, and publishes the value only if it was found valid:
+ * values failing conversion or validation are not published, and the holder keeps its
+ * previous value instead of falling back to the property default. A missing property
+ * publishes the default value. Listener of the property is notified as usual.</p>
+ *
+ * @param <T> Property type
+ * @author rodexion
+ * @since 0.1
+ */
+public abstract class LiveBinding<T> extends Refreshable {
+  /**
+   * <p>Bound property (not-null)</p>
+   */
+  @Getter
+  private final Proper.Ty<T> property;
+  private final RejectionListener listener;
+  private volatile long rejectedCount;
+
+  LiveBinding(Proper.Ty<T> property, long intervalNanos) {
+    super(intervalNanos);
+    this.property = property;
+    this.listener = new RejectionListener(property.getPropertyListener());
+  }
+
+  /**
+   * @return Number of refreshes whose value was rejected as invalid
+   */
+  public long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  @Override
+  final void update() {
+    listener.rejected = false;
+    T value = property.getValue(listener);
+    if (listener.rejected) {
+      rejectedCount++;
+    } else {
+      publish(value);
+    }
+  }
+
+  /**
+   * <p>Publish a valid value. Called on the scheduler thread only.</p>
+   *
+   * @param value Property value (maybe-null)
+   */
+  abstract void publish(T value);
+
+  /**
+   * <p>Records whether the value was rejected, and forwards to the property listener.
+   * Only used by refreshes of one binding, which never run concurrently.</p>
+   */
+  private static final class RejectionListener implements FailureDetailsListener, CachePromotionListener {
+    private final PropertyListener delegate;
+    boolean rejected;
+
+    RejectionListener(PropertyListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void notFound(String key, Proper.Info<?> info) {
+      delegate.notFound(key, info);
+    }
+
+    @Override
+    public void validationBeforeConversionFailed(String key, String value, String validationError, Proper.Info<?> info) {
+      rejected = true;
+      delegate.validationBeforeConversionFailed(key, value, validationError, info);
+    }
+
+    @Override
+    public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+      rejected = true;
+      delegate.conversionFailed(key, value, conversionError, info);
+    }
+
+    @Override
+    public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+      rejected = true;
+      delegate.validationAfterConversionFailed(key, value, validationError, info);
+    }
+
+    @Override
+    public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+      delegate.success(key, stringValue, convertedValue, info);
+    }
+
+    @Override
+    public void cachePromoted(Proper.Info<?> info, long readsPerSecond) {
+      if (delegate instanceof CachePromotionListener) {
+        ((CachePromotionListener) delegate).cachePromoted(info, readsPerSecond);
+      }
+    }
+
+    @Override
+    public void cacheDemoted(Proper.Info<?> info, long readsPerSecond) {
+      if (delegate instanceof CachePromotionListener) {
+        ((CachePromotionListener) delegate).cacheDemoted(info, readsPerSecond);
+      }
+    }
+
+    @Override
+    public boolean wantsFailureDetails() {
+      return !(delegate instanceof FailureDetailsListener)
+              || ((FailureDetailsListener) delegate).wantsFailureDetails();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import com.github.rodexion.proper.Proper;
+
+/**
+ * <p>Live holder of a <code>boolean</code> property value, without boxing on reads (see {@link LiveBinding}).
+ * A <code>null</code> value, e.g. a missing property without a default, is not published.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class LiveBoolean extends LiveBinding<Boolean> {
+  private volatile boolean value;
+
+  LiveBoolean(Proper.Ty<Boolean> property, long intervalNanos) {
+    super(property, intervalNanos);
+    Boolean defaultValue = property.getInfo().getDefaultValue();
+    this.value = null == defaultValue ? false : defaultValue;
+  }
+
+  /**
+   * @return Last valid value of the property
+   */
+  public boolean get() {
+    return value;
+  }
+
+  @Override
+  void publish(Boolean value) {
+    if (null != value) {
+      this.value = value;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LiveBoolean(key=" + getProperty().getInfo().getKey() + ", value=" + value + ')';
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.Proper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>Publisher of the changes of a property, refreshed by a {@link RefreshScheduler}
+ * (see {@link RefreshScheduler#publisher(Proper.Ty, java.util.concurrent.Executor)}).</p>
+ * <p>Subscribers first receive the current value, then every value which differs from the
+ * previous one. As with {@link LiveBinding live holders}, invalid values are not published.
+ * Updates are conflated: a subscriber with no outstanding demand, or still busy with a
+ * previous value, only receives the latest value once it catches up. Subscribers are
+ * called on the executor given to the publisher, one call at a time, and are completed
+ * when the publisher is {@link #cancel() cancelled}.</p>
+ *
+ * @param <T> Property type
+ * @author rodexion
+ * @since 0.1
+ */
+public final class PropertyPublisher<T> extends LiveBinding<T> implements Flow.Publisher<T> {
+  private static final Object NONE = new Object();
+
+  private final Executor executor;
+  private final List<ValueSubscription> subscriptions = new CopyOnWriteArrayList<>();
+  /**
+   * <p>Guards changes of the value together with handing it to subscriptions, so that a new
+   * subscription gets either the value before a change and then the change, or only the change</p>
+   */
+  private final Object lock = new Object();
+  private volatile T value;
+
+  PropertyPublisher(Proper.Ty<T> property, long intervalNanos, Executor executor) {
+    super(property, intervalNanos);
+    this.executor = executor;
+    this.value = property.getInfo().getDefaultValue();
+  }
+
+  /**
+   * @return Last valid value of the property (maybe-null)
+   */
+  public T get() {
+    return value;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    ValueSubscription subscription = new ValueSubscription(checkNotNull("subscriber", subscriber));
+    synchronized (lock) {
+      subscription.set(value);
+      subscriptions.add(subscription);
+    }
+    subscription.signal();
+    if (isCancelled()) {
+      subscription.complete();
+    }
+  }
+
+  /**
+   * @return Number of active subscriptions
+   */
+  public int getSubscriberCount() {
+    return subscriptions.size();
+  }
+
+  /**
+   * <p>Stop refreshing, and complete all subscribers.</p>
+   */
+  @Override
+  public void cancel() {
+    super.cancel();
+    for (ValueSubscription subscription : subscriptions) {
+      subscription.complete();
+    }
+  }
+
+  @Override
+  void publish(T value) {
+    synchronized (lock) {
+      T previous = this.value;
+      this.value = value;
+      if (null == value ? null == previous : value.equals(previous)) {
+        return;
+      }
+      for (ValueSubscription subscription : subscriptions) {
+        subscription.set(value);
+      }
+    }
+    //Subscribers are called outside of the lock, e.g. by a direct executor
+    for (ValueSubscription subscription : subscriptions) {
+      subscription.signal();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PropertyPublisher(key=" + getProperty().getInfo().getKey() + ", value=" + value
+            + ", subscribers=" + subscriptions.size() + ')';
+  }
+
+  /**
+   * <p>Holds at most one undelivered value, the latest one. Deliveries are drained by a single
+   * executor task at a time, guarded by the work counter.</p>
+   */
+  private final class ValueSubscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super T> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicReference<Object> pending = new AtomicReference<>(NONE);
+    private final AtomicInteger work = new AtomicInteger();
+    private volatile boolean subscribed;
+    private volatile boolean completing;
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    ValueSubscription(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    /**
+     * <p>Replace the undelivered value, which is delivered on the next {@link #signal()}.</p>
+     */
+    void set(T value) {
+      //Null values, e.g. of missing properties without defaults, are not items
+      if (null != value) {
+        pending.set(value);
+      }
+    }
+
+    void complete() {
+      completing = true;
+      signal();
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        error = new IllegalArgumentException("Requested item count has to be positive: " + n);
+      } else {
+        long current;
+        long next;
+        do {
+          current = demand.get();
+          next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!demand.compareAndSet(current, next));
+      }
+      signal();
+    }
+
+    @Override
+    public void cancel() {
+      done = true;
+      subscriptions.remove(this);
+      pending.set(NONE);
+    }
+
+    void signal() {
+      if (work.getAndIncrement() == 0) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          work.set(0);
+          cancel();
+        }
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+      int missed = 1;
+      do {
+        if (!subscribed) {
+          subscribed = true;
+          subscriber.onSubscribe(this);
+        }
+        while (!done && demand.get() > 0) {
+          Object item = pending.getAndSet(NONE);
+          if (NONE == item) {
+            break;
+          }
+          if (demand.get() != Long.MAX_VALUE) {
+            demand.decrementAndGet();
+          }
+          try {
+            subscriber.onNext((T) item);
+          } catch (RuntimeException e) {
+            //Misbehaving subscriber
+            cancel();
+          }
+        }
+        if (!done && null != error) {
+          cancel();
+          subscriber.onError(error);
+        } else if (!done && completing) {
+          cancel();
+          subscriber.onComplete();
+        }
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.PropertySources;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Re-resolves registered properties in the background, and publishes their values
+ * into {@link RefreshedValue} holders or {@link LiveBinding live holders}, so that request
+ * threads only read a volatile field, or to {@link PropertyPublisher subscribers}:</p>
+ * <pre><code>
+ *   RefreshScheduler scheduler = RefreshScheduler.builder().interval(30, TimeUnit.SECONDS).jitter(0.1).build();
+ *   RefreshedValue&lt;Integer&gt; timeout = scheduler.register(TIMEOUT_PROPERTY);
+ *   ...
+ *   timeout.getValue();
+ * </code></pre>
+ * <p>Each property is refreshed on its own interval, randomly stretched or shortened by up to
+ * the jitter fraction every time, so that properties registered together do not keep being
+ * refreshed together. Refreshes, and thus the callbacks of property listeners, run on the
+ * scheduler thread. A refresh throwing an exception keeps the previously published value.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class RefreshScheduler implements AutoCloseable {
+  private final ScheduledThreadPoolExecutor executor;
+  private final long intervalNanos;
+  private final double jitter;
+
+  private RefreshScheduler(Builder builder) {
+    this.intervalNanos = builder.intervalNanos;
+    this.jitter = builder.jitter;
+    this.executor = new ScheduledThreadPoolExecutor(builder.threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new SchedulerThread(RefreshScheduler.this, r, "proper-refresh-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    this.executor.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * <p>Creates new scheduler builder.</p>
+   *
+   * @return Scheduler builder object (not-null)
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * <p>Refresh the given property on the default interval of this scheduler.</p>
+   *
+   * @param property Property to refresh (not-null)
+   * @param <T>      Property type
+   * @return Holder of the refreshed value (not-null)
+   * @see #register(Proper.Ty, long, TimeUnit)
+   */
+  public <T> RefreshedValue<T> register(Proper.Ty<T> property) {
+    return register(property, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * <p>Refresh the given property on its own interval. The value is resolved once on the
+   * scheduler thread before this method returns, so the holder never starts out empty.</p>
+   *
+   * @param property Property to refresh (not-null)
+   * @param interval Refresh interval (positive)
+   * @param unit     Interval unit (not-null)
+   * @param <T>      Property type
+   * @return Holder of the refreshed value (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public <T> RefreshedValue<T> register(Proper.Ty<T> property, long interval, TimeUnit unit) {
+    return start(new RefreshedValue<>(checkNotNull("property", property), intervalNanos(interval, unit)));
+  }
+
+  /**
+   * <p>Bind the given property to a live holder, refreshed on the default interval
+   * of this scheduler. Values are only published once they pass conversion and
+   * validation, invalid values leave the holder with its previous value.</p>
+   *
+   * @param property Property to bind (not-null)
+   * @param <T>      Property type
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public <T> LiveValue<T> bind(Proper.Ty<T> property) {
+    return start(new LiveValue<>(checkNotNull("property", property), intervalNanos));
+  }
+
+  /**
+   * <p>Same as {@link #bind(Proper.Ty)}, for <code>int</code> values.</p>
+   *
+   * @param property Property to bind (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public LiveInt bindInt(Proper.Ty<Integer> property) {
+    return start(new LiveInt(checkNotNull("property", property), intervalNanos));
+  }
+
+  /**
+   * <p>Same as {@link #bind(Proper.Ty)}, for <code>long</code> values.</p>
+   *
+   * @param property Property to bind (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public LiveLong bindLong(Proper.Ty<Long> property) {
+    return start(new LiveLong(checkNotNull("property", property), intervalNanos));
+  }
+
+  /**
+   * <p>Same as {@link #bind(Proper.Ty)}, for <code>double</code> values.</p>
+   *
+   * @param property Property to bind (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public LiveDouble bindDouble(Proper.Ty<Double> property) {
+    return start(new LiveDouble(checkNotNull("property", property), intervalNanos));
+  }
+
+  /**
+   * <p>Same as {@link #bind(Proper.Ty)}, for <code>boolean</code> values.</p>
+   *
+   * @param property Property to bind (not-null)
+   * @return Live holder (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public LiveBoolean bindBoolean(Proper.Ty<Boolean> property) {
+    return start(new LiveBoolean(checkNotNull("property", property), intervalNanos));
+  }
+
+  /**
+   * <p>Publish the changes of the given property, refreshed on the default interval
+   * of this scheduler, to subscribers called on the given executor.</p>
+   *
+   * @param property Property to publish (not-null)
+   * @param executor Executor calling subscribers (not-null)
+   * @param <T>      Property type
+   * @return Property publisher (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public <T> PropertyPublisher<T> publisher(Proper.Ty<T> property, Executor executor) {
+    return start(new PropertyPublisher<>(checkNotNull("property", property), intervalNanos,
+            checkNotNull("executor", executor)));
+  }
+
+  /**
+   * <p>Reload the listed system properties (see {@link PropertySources#reloadSystemProperties()})
+   * on the default interval of this scheduler, starting before this method returns.</p>
+   *
+   * @return Reload task, which can be cancelled (not-null)
+   * @throws IllegalStateException If the scheduler is closed
+   */
+  public Refreshable reloadSystemProperties() {
+    return start(new Refreshable(intervalNanos) {
+      @Override
+      void update() {
+        PropertySources.reloadSystemProperties();
+      }
+    });
+  }
+
+  /**
+   * <p>Resolve the first value on the scheduler thread, then schedule refreshes. Called on
+   * a scheduler thread, e.g. by a listener, the first value is resolved right away instead,
+   * as waiting for a task queued behind the current one would never end.</p>
+   */
+  private <R extends Refreshable> R start(R refreshable) {
+    Thread current = Thread.currentThread();
+    if (current instanceof SchedulerThread && ((SchedulerThread) current).scheduler == this) {
+      if (executor.isShutdown()) {
+        throw new IllegalStateException("Refresh scheduler is closed");
+      }
+      new RefreshTask(refreshable, false).run();
+    } else {
+      Future<?> initial;
+      try {
+        initial = executor.submit(new RefreshTask(refreshable, false));
+      } catch (RejectedExecutionException e) {
+        throw new IllegalStateException("Refresh scheduler is closed", e);
+      }
+      awaitUninterruptibly(initial);
+    }
+    schedule(refreshable);
+    return refreshable;
+  }
+
+  private static long intervalNanos(long interval, TimeUnit unit) {
+    long nanos = checkNotNull("unit", unit).toNanos(interval);
+    if (nanos <= 0) {
+      throw new IllegalArgumentException("interval has to be positive: " + interval);
+    }
+    return nanos;
+  }
+
+  /**
+   * <p>Stop refreshing all properties. Holders keep their last published values.</p>
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void schedule(Refreshable holder) {
+    if (holder.isCancelled() || executor.isShutdown()) {
+      return;
+    }
+    try {
+      holder.scheduled(executor.schedule(new RefreshTask(holder, true), delayOf(holder), TimeUnit.NANOSECONDS));
+    } catch (RejectedExecutionException e) {
+      //Closed meanwhile
+    }
+  }
+
+  private long delayOf(Refreshable holder) {
+    long interval = holder.getIntervalNanos();
+    if (jitter == 0) {
+      return interval;
+    }
+    double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return Math.max(1, (long) (interval * factor));
+  }
+
+  private static void awaitUninterruptibly(Future<?> future) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          future.get();
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          //Already handled by the task
+          return;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * <p>Thread of a scheduler, so that the scheduler recognizes calls made on its own threads.</p>
+   */
+  private static final class SchedulerThread extends Thread {
+    private final RefreshScheduler scheduler;
+
+    SchedulerThread(RefreshScheduler scheduler, Runnable target, String name) {
+      super(target, name);
+      this.scheduler = scheduler;
+    }
+  }
+
+  private final class RefreshTask implements Runnable {
+    private final Refreshable holder;
+    private final boolean reschedule;
+
+    RefreshTask(Refreshable holder, boolean reschedule) {
+      this.holder = holder;
+      this.reschedule = reschedule;
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (!holder.isCancelled()) {
+          holder.refresh();
+        }
+      } catch (RuntimeException e) {
+        //Keep the previous value, and try again next time
+      } finally {
+        if (reschedule) {
+          schedule(holder);
+        }
+      }
+    }
+  }
+
+  /**
+   * <p>A tool for creating refresh schedulers.</p>
+   *
+   * @see #builder()
+   */
+  public static final class Builder {
+    private long intervalNanos = TimeUnit.SECONDS.toNanos(60);
+    private double jitter = 0;
+    private int threads = 1;
+
+    Builder() {
+    }
+
+    /**
+     * <p>Default refresh interval (60 seconds by default).</p>
+     *
+     * @param interval Refresh interval (positive)
+     * @param unit     Interval unit (not-null)
+     * @return this builder object (not-null)
+     */
+    public Builder interval(long interval, TimeUnit unit) {
+      this.intervalNanos = intervalNanos(interval, unit);
+      return this;
+    }
+
+    /**
+     * <p>Fraction of the interval by which each refresh may randomly happen
+     * earlier or later (0 by default).</p>
+     *
+     * @param jitter Jitter fraction (between 0 inclusive and 1 exclusive)
+     * @return this builder object (not-null)
+     */
+    public Builder jitter(double jitter) {
+      if (jitter < 0 || jitter >= 1) {
+        throw new IllegalArgumentException("jitter has to be in [0, 1): " + jitter);
+      }
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * <p>Number of scheduler threads (1 by default).</p>
+     *
+     * @param threads Thread count (positive)
+     * @return this builder object (not-null)
+     */
+    public Builder threads(int threads) {
+      if (threads <= 0) {
+        throw new IllegalArgumentException("threads has to be positive: " + threads);
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * <p>Create and start the scheduler.</p>
+     *
+     * @return Refresh scheduler (not-null)
+     */
+    public RefreshScheduler build() {
+      return new RefreshScheduler(this);
+    }
+  }
+}
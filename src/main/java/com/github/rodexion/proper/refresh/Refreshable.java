@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Something refreshed periodically by a {@link RefreshScheduler}.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public abstract class Refreshable {
+  /**
+   * <p>Refresh interval in nanoseconds, before jitter</p>
+   */
+  @Getter
+  private final long intervalNanos;
+  private volatile long refreshedAtNanos;
+  private volatile ScheduledFuture<?> nextRefresh;
+  private volatile boolean cancelled;
+
+  Refreshable(long intervalNanos) {
+    this.intervalNanos = intervalNanos;
+  }
+
+  /**
+   * @param unit Time unit (not-null)
+   * @return Time elapsed since the last refresh
+   */
+  public long getAge(TimeUnit unit) {
+    return unit.convert(System.nanoTime() - refreshedAtNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * <p>Stop refreshing. The last published value is kept.</p>
+   */
+  public void cancel() {
+    cancelled = true;
+    ScheduledFuture<?> next = nextRefresh;
+    if (null != next) {
+      next.cancel(false);
+    }
+  }
+
+  /**
+   * @return <code>true</code> if no longer refreshed
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  void scheduled(ScheduledFuture<?> nextRefresh) {
+    this.nextRefresh = nextRefresh;
+    //Cancelled while scheduling
+    if (cancelled) {
+      nextRefresh.cancel(false);
+    }
+  }
+
+  final void refresh() {
+    update();
+    refreshedAtNanos = System.nanoTime();
+  }
+
+  /**
+   * <p>Resolve and publish the current value. Called on the scheduler thread.</p>
+   */
+  abstract void update();
+}
@@ -0,0 +1,78 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import com.github.rodexion.proper.LazyValue;
+import com.github.rodexion.proper.Proper;
+import lombok.Getter;
+
+/**
+ * <p>Holder of a property value, resolved in the background by a {@link RefreshScheduler}.
+ * Reading the value is a single volatile field load.</p>
+ *
+ * @param <T> Property type
+ * @author rodexion
+ * @since 0.1
+ */
+public final class RefreshedValue<T> extends Refreshable implements LazyValue<T> {
+  /**
+   * <p>Refreshed property (not-null)</p>
+   */
+  @Getter
+  private final Proper.Ty<T> property;
+  private volatile T value;
+
+  RefreshedValue(Proper.Ty<T> property, long intervalNanos) {
+    super(intervalNanos);
+    this.property = property;
+  }
+
+  /**
+   * <p>Value published by the last refresh.</p>
+   *
+   * @return Property value (maybe-null)
+   */
+  public T getValue() {
+    return value;
+  }
+
+  /**
+   * <p>Only the static key of the property is refreshed in the background,
+   * values of dynamic keys are resolved by the calling thread.</p>
+   *
+   * @param args Key arguments
+   * @return Property value (maybe-null)
+   */
+  @Override
+  public T getValue(Object... args) {
+    return args.length == 0 ? value : property.getValue(args);
+  }
+
+  @Override
+  void update() {
+    value = property.getValue();
+  }
+
+  @Override
+  public String toString() {
+    return "RefreshedValue(key=" + property.getInfo().getKey() + ", value=" + value + ')';
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Result of matching concrete property keys to declared key templates
+ * (see {@link KeyTemplateMatcher#classify(Iterable)}).</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+@ToString(exclude = "matcher")
+public final class KeyClassification {
+  private final KeyTemplateMatcher matcher;
+  /**
+   * <p>Known keys, mapped to the templates they match, in classification order (not-null)</p>
+   */
+  @Getter
+  private final Map<String, String> matches;
+  /**
+   * <p>Keys not matching any template, in classification order (not-null)</p>
+   */
+  @Getter
+  private final List<String> unknownKeys;
+
+  KeyClassification(KeyTemplateMatcher matcher, Map<String, String> matches, List<String> unknownKeys) {
+    this.matcher = matcher;
+    this.matches = Collections.unmodifiableMap(matches);
+    this.unknownKeys = Collections.unmodifiableList(unknownKeys);
+  }
+
+  /**
+   * <p>Nearest templates to an unknown key, computed on demand
+   * (see {@link KeyTemplateMatcher#suggest(String)}).</p>
+   *
+   * @param unknownKey Unknown key (not-null)
+   * @return Suggested templates, nearest first (not-null)
+   */
+  public List<String> getSuggestions(String unknownKey) {
+    return matcher.suggest(unknownKey);
+  }
+}
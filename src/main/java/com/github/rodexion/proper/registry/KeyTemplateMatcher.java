@@ -0,0 +1,386 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.util.Opt;
+
+import java.util.*;
+
+/**
+ * <p>Matches concrete property keys to the declared key templates that could have produced them,
+ * e.g. <code>"my.setting.for.x.y"</code> to <code>"my.setting.for.{0}.{1}"</code>.</p>
+ * <p>All templates are compiled into a single automaton, sharing common literal prefixes,
+ * in which each {@link java.text.MessageFormat} placeholder matches one or more arbitrary characters.
+ * Each key is matched in a single pass over its characters, regardless of the number of templates.
+ * Keys matching no template can be given nearest-match suggestions, to spot misspelled properties:</p>
+ * <pre><code>
+ *   KeyTemplateMatcher matcher = KeyTemplateMatcher.compile(PropertyRegistry.global().getKeys());
+ *   KeyClassification classification = matcher.classify(System.getProperties().stringPropertyNames());
+ *   for (String unknown : classification.getUnknownKeys()) {
+ *     System.out.println(unknown + ", did you mean " + classification.getSuggestions(unknown));
+ *   }
+ * </code></pre>
+ * <p>Thread-safe.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class KeyTemplateMatcher {
+  private static final int WILDCARD = -1;
+  private static final int MAX_SUGGESTIONS = 3;
+
+  private final String[] templates;
+  private final int[][] templateTokens;
+  private final int[] literalCounts;
+  //Automaton states, state 0 being the initial state
+  private final char[][] literalChars;
+  private final int[][] literalTargets;
+  private final int[] wildcardTargets;
+  private final boolean[] wildcardStates;
+  private final int[][] accepting;
+
+  private KeyTemplateMatcher(String[] templates) {
+    this.templates = templates;
+    this.templateTokens = new int[templates.length][];
+    this.literalCounts = new int[templates.length];
+
+    List<StateBuilder> states = new ArrayList<>();
+    states.add(new StateBuilder(false));
+    for (int t = 0; t < templates.length; t++) {
+      int[] tokens = tokenize(templates[t]);
+      templateTokens[t] = tokens;
+      int state = 0;
+      for (int token : tokens) {
+        StateBuilder builder = states.get(state);
+        Integer target = token == WILDCARD ? builder.wildcardTarget : builder.literals.get((char) token);
+        if (null == target) {
+          target = states.size();
+          states.add(new StateBuilder(token == WILDCARD));
+          if (token == WILDCARD) {
+            builder.wildcardTarget = target;
+          } else {
+            builder.literals.put((char) token, target);
+          }
+        }
+        if (token != WILDCARD) {
+          literalCounts[t]++;
+        }
+        state = target;
+      }
+      states.get(state).accepting.add(t);
+    }
+
+    int count = states.size();
+    literalChars = new char[count][];
+    literalTargets = new int[count][];
+    wildcardTargets = new int[count];
+    wildcardStates = new boolean[count];
+    accepting = new int[count][];
+    for (int s = 0; s < count; s++) {
+      StateBuilder builder = states.get(s);
+      literalChars[s] = new char[builder.literals.size()];
+      literalTargets[s] = new int[builder.literals.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> entry : builder.literals.entrySet()) {
+        literalChars[s][i] = entry.getKey();
+        literalTargets[s][i] = entry.getValue();
+        i++;
+      }
+      wildcardTargets[s] = null == builder.wildcardTarget ? -1 : builder.wildcardTarget;
+      wildcardStates[s] = builder.wildcard;
+      accepting[s] = new int[builder.accepting.size()];
+      for (i = 0; i < accepting[s].length; i++) {
+        accepting[s][i] = builder.accepting.get(i);
+      }
+    }
+  }
+
+  /**
+   * <p>Compile a matcher of the given key templates.</p>
+   *
+   * @param templates Property keys as declared, possibly with {@link java.text.MessageFormat}
+   *                  placeholders (not-null)
+   * @return Matcher object (not-null)
+   */
+  public static KeyTemplateMatcher compile(Collection<String> templates) {
+    checkNotNull("templates", templates);
+    //Sorted, so that the choice between equally specific templates is deterministic
+    return new KeyTemplateMatcher(new TreeSet<>(templates).toArray(new String[0]));
+  }
+
+  /**
+   * <p>Find the template matching the given key. If several templates match,
+   * the most specific one (with the most literal characters) is returned.</p>
+   *
+   * @param key Concrete property key (not-null)
+   * @return Matching template, or none if the key is unknown (not-null)
+   */
+  public Opt<String> match(String key) {
+    int template = match(checkNotNull("key", key), new Buffers(accepting.length));
+    return template < 0 ? Opt.<String>none() : Opt.some(templates[template]);
+  }
+
+  /**
+   * <p>Match each of the given keys to its template.</p>
+   *
+   * @param keys Concrete property keys (not-null)
+   * @return Matched and unknown keys (not-null)
+   */
+  public KeyClassification classify(Iterable<String> keys) {
+    checkNotNull("keys", keys);
+    Map<String, String> matches = new LinkedHashMap<>();
+    List<String> unknownKeys = new ArrayList<>();
+    Buffers buffers = new Buffers(accepting.length);
+    for (String key : keys) {
+      int template = match(key, buffers);
+      if (template < 0) {
+        unknownKeys.add(key);
+      } else {
+        matches.put(key, templates[template]);
+      }
+    }
+    return new KeyClassification(this, matches, unknownKeys);
+  }
+
+  /**
+   * <p>Find templates nearest to the given key, by edit distance. Each placeholder of a template
+   * counts as matching any non-empty part of the key. Only templates within an edit distance
+   * of a quarter of the key length (at least 1, at most 3) are suggested.</p>
+   *
+   * @param key Concrete property key (not-null)
+   * @return Up to 3 nearest templates, nearest first (not-null)
+   */
+  public List<String> suggest(String key) {
+    checkNotNull("key", key);
+    final int maxDistance = Math.max(1, Math.min(3, key.length() / 4));
+    final int[] distances = new int[templates.length];
+    List<Integer> candidates = new ArrayList<>();
+    int[] row = new int[key.length() + 1];
+    int[] previousRow = new int[key.length() + 1];
+    for (int t = 0; t < templates.length; t++) {
+      if (literalCounts[t] - key.length() > maxDistance) {
+        continue;
+      }
+      if (literalCounts[t] == templateTokens[t].length && key.length() - literalCounts[t] > maxDistance) {
+        continue;
+      }
+      int distance = distance(templateTokens[t], key, maxDistance, row, previousRow);
+      if (distance <= maxDistance) {
+        distances[t] = distance;
+        candidates.add(t);
+      }
+    }
+    Collections.sort(candidates, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return distances[o1] != distances[o2] ? distances[o1] - distances[o2] : o1 - o2;
+      }
+    });
+    List<String> suggestions = new ArrayList<>();
+    for (int i = 0; i < candidates.size() && i < MAX_SUGGESTIONS; i++) {
+      suggestions.add(templates[candidates.get(i)]);
+    }
+    return suggestions;
+  }
+
+  /**
+   * @return Number of templates
+   */
+  public int size() {
+    return templates.length;
+  }
+
+  @Override
+  public String toString() {
+    return "KeyTemplateMatcher(templates=" + templates.length + ", states=" + accepting.length + ')';
+  }
+
+  private int match(String key, Buffers buffers) {
+    int[] current = buffers.current;
+    int[] next = buffers.next;
+    int currentCount = 1;
+    current[0] = 0;
+    for (int i = 0; i < key.length() && currentCount > 0; i++) {
+      char c = key.charAt(i);
+      int generation = buffers.nextGeneration();
+      int nextCount = 0;
+      for (int j = 0; j < currentCount; j++) {
+        int state = current[j];
+        int literal = Arrays.binarySearch(literalChars[state], c);
+        if (literal >= 0) {
+          nextCount = buffers.add(next, nextCount, literalTargets[state][literal], generation);
+        }
+        if (wildcardTargets[state] >= 0) {
+          nextCount = buffers.add(next, nextCount, wildcardTargets[state], generation);
+        }
+        if (wildcardStates[state]) {
+          nextCount = buffers.add(next, nextCount, state, generation);
+        }
+      }
+      int[] swap = current;
+      current = next;
+      next = swap;
+      currentCount = nextCount;
+    }
+    int best = -1;
+    for (int j = 0; j < currentCount; j++) {
+      for (int template : accepting[current[j]]) {
+        if (best < 0 || literalCounts[template] > literalCounts[best] ||
+                (literalCounts[template] == literalCounts[best] && template < best)) {
+          best = template;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * <p>Edit distance between a tokenized template and a key, in which each wildcard
+   * matches one or more characters for free, or no characters at the cost of 1.
+   * Gives up with <code>maxDistance + 1</code> once no alignment can stay within <code>maxDistance</code>.</p>
+   */
+  private static int distance(int[] tokens, String key, int maxDistance, int[] row, int[] previousRow) {
+    int n = key.length();
+    for (int j = 0; j <= n; j++) {
+      previousRow[j] = j;
+    }
+    for (int token : tokens) {
+      row[0] = previousRow[0] + 1;
+      int rowMin = row[0];
+      for (int j = 1; j <= n; j++) {
+        int d;
+        if (token == WILDCARD) {
+          d = Math.min(Math.min(previousRow[j - 1], row[j - 1]), previousRow[j] + 1);
+        } else {
+          d = Math.min(previousRow[j - 1] + (token == key.charAt(j - 1) ? 0 : 1),
+                  Math.min(previousRow[j], row[j - 1]) + 1);
+        }
+        row[j] = d;
+        rowMin = Math.min(rowMin, d);
+      }
+      if (rowMin > maxDistance) {
+        return maxDistance + 1;
+      }
+      int[] swap = previousRow;
+      previousRow = row;
+      row = swap;
+    }
+    return previousRow[n];
+  }
+
+  /**
+   * <p>Split a {@link java.text.MessageFormat} pattern into literal characters
+   * and placeholder wildcards. Malformed patterns are taken literally.</p>
+   */
+  static int[] tokenize(String template) {
+    int[] tokens = new int[template.length()];
+    int count = 0;
+    boolean quoted = false;
+    int i = 0;
+    while (i < template.length()) {
+      char c = template.charAt(i);
+      if (c == '\'') {
+        if (i + 1 < template.length() && template.charAt(i + 1) == '\'') {
+          tokens[count++] = '\'';
+          i += 2;
+        } else {
+          quoted = !quoted;
+          i++;
+        }
+      } else if (c == '{' && !quoted) {
+        int depth = 1;
+        int j = i + 1;
+        while (j < template.length() && depth > 0) {
+          char d = template.charAt(j++);
+          if (d == '{') {
+            depth++;
+          } else if (d == '}') {
+            depth--;
+          }
+        }
+        if (depth > 0) {
+          return literalTokens(template);
+        }
+        tokens[count++] = WILDCARD;
+        i = j;
+      } else {
+        tokens[count++] = c;
+        i++;
+      }
+    }
+    return Arrays.copyOf(tokens, count);
+  }
+
+  private static int[] literalTokens(String template) {
+    int[] tokens = new int[template.length()];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = template.charAt(i);
+    }
+    return tokens;
+  }
+
+  private static final class StateBuilder {
+    final boolean wildcard;
+    final TreeMap<Character, Integer> literals = new TreeMap<>();
+    final List<Integer> accepting = new ArrayList<>(1);
+    Integer wildcardTarget;
+
+    StateBuilder(boolean wildcard) {
+      this.wildcard = wildcard;
+    }
+  }
+
+  /**
+   * <p>Active state sets of a single matching thread. Duplicate states are
+   * filtered out using generation stamps, instead of clearing a set per character.</p>
+   */
+  private static final class Buffers {
+    final int[] current;
+    final int[] next;
+    final int[] stamps;
+    int generation;
+
+    Buffers(int stateCount) {
+      current = new int[stateCount];
+      next = new int[stateCount];
+      stamps = new int[stateCount];
+    }
+
+    int nextGeneration() {
+      if (++generation == 0) {
+        Arrays.fill(stamps, 0);
+        generation = 1;
+      }
+      return generation;
+    }
+
+    int add(int[] states, int count, int state, int generation) {
+      if (stamps[state] == generation) {
+        return count;
+      }
+      stamps[state] = generation;
+      states[count] = state;
+      return count + 1;
+    }
+  }
+}
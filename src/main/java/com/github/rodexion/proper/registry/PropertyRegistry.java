@@ -0,0 +1,313 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
+
+import com.github.rodexion.proper.AttributeKey;
+import com.github.rodexion.proper.bus.InternalBuilderBus;
+import com.github.rodexion.proper.bus.ProperLocation;
+import com.github.rodexion.proper.scanner.ProperDecl;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Index of property declarations, keyed by the declared property key.</p>
+ * <p>Keys are kept in a compressed prefix trie, so that looking up a key, or all
+ * keys under a common prefix, only visits the matching part of the index:</p>
+ * <pre><code>
+ *   PropertyRegistry registry = PropertyRegistry.global();
+ *   registry.getByPrefix("db.pool.");   //db.pool.min, db.pool.max, ...
+ *   registry.getByGlob("db.*.max");     //db.pool.max, db.cache.max, ...
+ *   registry.getByKey("db.pool.max");
+ * </code></pre>
+ * <p>Declarations can also be looked up by property type, attribute, and declaration location.
+ * All lookups return declarations ordered by key, and in order of registration for equal keys.</p>
+ * <p>Thread-safe.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class PropertyRegistry {
+  private final RadixTrie<List<ProperDecl>> byKey = new RadixTrie<>();
+  private final Map<Class<?>, List<ProperDecl>> byType = new HashMap<>();
+  private final Map<String, List<ProperDecl>> byAttribute = new HashMap<>();
+  private final Map<String, List<ProperDecl>> byFileName = new HashMap<>();
+  private int size;
+
+  /**
+   * <p>Registry of all properties built so far, updated as new properties are built
+   * (see {@link InternalBuilderBus}).</p>
+   *
+   * @return Registry object (not-null)
+   */
+  public static PropertyRegistry global() {
+    return InternalBuilderBus.getRegistry();
+  }
+
+  /**
+   * <p>Add a property declaration to the index.</p>
+   *
+   * @param decl Property declaration (not-null)
+   */
+  public synchronized void register(ProperDecl decl) {
+    checkNotNull("decl", decl);
+    String key = decl.getProperty().getInfo().getKey();
+    List<ProperDecl> decls = byKey.get(key);
+    if (null == decls) {
+      decls = new ArrayList<>(1);
+      byKey.put(key, decls);
+    }
+    decls.add(decl);
+    addTo(byType, decl.getProperty().getInfo().getType(), decl);
+    for (String attributeName : decl.getProperty().getInfo().getAttributes().keySet()) {
+      addTo(byAttribute, attributeName, decl);
+    }
+    addTo(byFileName, decl.getLocation().getFileName(), decl);
+    size++;
+  }
+
+  /**
+   * <p>Look up declarations of the given property key. Dynamic keys are looked up as declared,
+   * e.g. <code>"region.{0}"</code>.</p>
+   *
+   * @param key Property key (not-null)
+   * @return Declarations of the key (not-null)
+   */
+  public synchronized List<ProperDecl> getByKey(String key) {
+    List<ProperDecl> decls = byKey.get(checkNotNull("key", key));
+    return null == decls ? Collections.<ProperDecl>emptyList() : new ArrayList<>(decls);
+  }
+
+  /**
+   * <p>Look up declarations of all properties whose keys start with the given prefix.</p>
+   *
+   * @param prefix Key prefix (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByPrefix(String prefix) {
+    List<List<ProperDecl>> matches = new ArrayList<>();
+    byKey.collectPrefixed(checkNotNull("prefix", prefix), matches);
+    return flatten(matches);
+  }
+
+  /**
+   * <p>Look up declarations of all properties whose keys match the given glob pattern.</p>
+   * <p>In the pattern, <code>?</code> matches any single character except <code>'.'</code>,
+   * <code>*</code> matches any number of characters except <code>'.'</code>, and
+   * <code>**</code> matches any number of any characters. Only keys sharing the literal
+   * prefix of the pattern (up to the first wildcard) are visited.</p>
+   *
+   * @param glob Glob pattern (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByGlob(String glob) {
+    checkNotNull("glob", glob);
+    int wildcard = firstWildcard(glob);
+    final List<List<ProperDecl>> matches = new ArrayList<>();
+    if (wildcard == glob.length()) {
+      List<ProperDecl> decls = byKey.get(glob);
+      if (null != decls) {
+        matches.add(decls);
+      }
+    } else {
+      final Pattern pattern = globToPattern(glob);
+      byKey.visitPrefixed(glob.substring(0, wildcard), new RadixTrie.Visitor<List<ProperDecl>>() {
+        @Override
+        public void visit(String key, List<ProperDecl> value) {
+          if (pattern.matcher(key).matches()) {
+            matches.add(value);
+          }
+        }
+      });
+    }
+    return flatten(matches);
+  }
+
+  /**
+   * <p>Look up declarations of all properties of the given type.</p>
+   *
+   * @param type Property type, as declared (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByType(Class<?> type) {
+    return sorted(byType.get(checkNotNull("type", type)));
+  }
+
+  /**
+   * <p>Look up declarations of all properties having the given attribute.</p>
+   *
+   * @param key Attribute key (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByAttribute(AttributeKey<?> key) {
+    return sorted(byAttribute.get(checkNotNull("key", key).getName()));
+  }
+
+  /**
+   * <p>Look up declarations of all properties having the given attribute value.</p>
+   *
+   * @param key   Attribute key (not-null)
+   * @param value Attribute value (not-null)
+   * @param <V>   Attribute value type
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized <V> List<ProperDecl> getByAttribute(AttributeKey<V> key, V value) {
+    checkNotNull("value", value);
+    List<ProperDecl> matches = new ArrayList<>();
+    for (ProperDecl decl : getByAttribute(key)) {
+      if (value.equals(decl.getProperty().getInfo().getAttribute(key))) {
+        matches.add(decl);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * <p>Look up declarations of all properties declared in the given source file.</p>
+   *
+   * @param fileName Source file name, as in {@link ProperLocation#getFileName()} (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByFileName(String fileName) {
+    return sorted(byFileName.get(checkNotNull("fileName", fileName)));
+  }
+
+  /**
+   * <p>Look up declarations of all properties declared at the given location.</p>
+   *
+   * @param location Declaration location (not-null)
+   * @return Matching declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getByLocation(ProperLocation location) {
+    checkNotNull("location", location);
+    List<ProperDecl> matches = new ArrayList<>();
+    for (ProperDecl decl : getByFileName(location.getFileName())) {
+      if (decl.getLocation().getLineNumber() == location.getLineNumber()) {
+        matches.add(decl);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * @return Distinct keys of all registered declarations, in lexicographic order (not-null)
+   */
+  public synchronized List<String> getKeys() {
+    final List<String> keys = new ArrayList<>(byKey.size());
+    byKey.visitPrefixed("", new RadixTrie.Visitor<List<ProperDecl>>() {
+      @Override
+      public void visit(String key, List<ProperDecl> value) {
+        keys.add(key);
+      }
+    });
+    return keys;
+  }
+
+  /**
+   * @return All registered declarations, ordered by key (not-null)
+   */
+  public synchronized List<ProperDecl> getAll() {
+    return getByPrefix("");
+  }
+
+  /**
+   * @return Number of registered declarations
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private static <K> void addTo(Map<K, List<ProperDecl>> index, K key, ProperDecl decl) {
+    List<ProperDecl> decls = index.get(key);
+    if (null == decls) {
+      decls = new ArrayList<>();
+      index.put(key, decls);
+    }
+    decls.add(decl);
+  }
+
+  private static List<ProperDecl> flatten(List<List<ProperDecl>> matches) {
+    List<ProperDecl> result = new ArrayList<>();
+    for (List<ProperDecl> decls : matches) {
+      result.addAll(decls);
+    }
+    return result;
+  }
+
+  private static List<ProperDecl> sorted(List<ProperDecl> decls) {
+    if (null == decls) {
+      return Collections.emptyList();
+    }
+    List<ProperDecl> result = new ArrayList<>(decls);
+    //Stable sort, so that equal keys stay in registration order
+    Collections.sort(result, new Comparator<ProperDecl>() {
+      @Override
+      public int compare(ProperDecl o1, ProperDecl o2) {
+        return o1.getProperty().getInfo().getKey().compareTo(o2.getProperty().getInfo().getKey());
+      }
+    });
+    return result;
+  }
+
+  private static int firstWildcard(String glob) {
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      if (c == '*' || c == '?') {
+        return i;
+      }
+    }
+    return glob.length();
+  }
+
+  private static Pattern globToPattern(String glob) {
+    StringBuilder regex = new StringBuilder();
+    int literalStart = 0;
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      if (c != '*' && c != '?') {
+        continue;
+      }
+      if (literalStart < i) {
+        regex.append(Pattern.quote(glob.substring(literalStart, i)));
+      }
+      if (c == '?') {
+        regex.append("[^.]");
+      } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+        regex.append(".*");
+        i++;
+      } else {
+        regex.append("[^.]*");
+      }
+      literalStart = i + 1;
+    }
+    if (literalStart < glob.length()) {
+      regex.append(Pattern.quote(glob.substring(literalStart)));
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "PropertyRegistry(size=" + size + ')';
+  }
+}
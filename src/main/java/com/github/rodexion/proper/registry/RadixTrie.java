@@ -0,0 +1,228 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Compressed prefix trie (radix tree) of string keys.</p>
+ * <p>Each node holds a key fragment shared by all keys in its subtree, so
+ * that keys with long common prefixes, as is typical for property keys
+ * (<code>db.pool.min</code>, <code>db.pool.max</code>, ...), share nodes.
+ * Children are kept sorted by their first character, so that subtrees are
+ * always traversed in lexicographic key order.</p>
+ * <p>Not thread-safe.</p>
+ *
+ * @param <V> Value type
+ * @author rodexion
+ * @since 0.1
+ */
+final class RadixTrie<V> {
+  private final Node<V> root = new Node<>("", null);
+  private int size;
+
+  /**
+   * <p>Associate a value with the given key.</p>
+   *
+   * @param key   Key (not-null)
+   * @param value Value (not-null)
+   * @return Previously associated value (maybe-null)
+   */
+  V put(String key, V value) {
+    Node<V> node = root;
+    int i = 0;
+    while (i < key.length()) {
+      int childIndex = node.indexOf(key.charAt(i));
+      if (childIndex < 0) {
+        node.insertChild(-childIndex - 1, new Node<>(key.substring(i), value));
+        size++;
+        return null;
+      }
+      Node<V> child = node.children[childIndex];
+      int common = commonPrefixLength(child.label, key, i);
+      if (common < child.label.length()) {
+        Node<V> split = new Node<>(child.label.substring(0, common), null);
+        child.label = child.label.substring(common);
+        split.insertChild(0, child);
+        node.children[childIndex] = split;
+        child = split;
+      }
+      node = child;
+      i += common;
+    }
+    V previous = node.value;
+    node.value = value;
+    if (null == previous) {
+      size++;
+    }
+    return previous;
+  }
+
+  /**
+   * @param key Key (not-null)
+   * @return Value associated with the key (maybe-null)
+   */
+  V get(String key) {
+    Node<V> node = root;
+    int i = 0;
+    while (i < key.length()) {
+      int childIndex = node.indexOf(key.charAt(i));
+      if (childIndex < 0) {
+        return null;
+      }
+      node = node.children[childIndex];
+      if (!key.startsWith(node.label, i)) {
+        return null;
+      }
+      i += node.label.length();
+    }
+    return node.value;
+  }
+
+  /**
+   * <p>Collect values of all keys starting with the given prefix,
+   * in lexicographic key order.</p>
+   *
+   * @param prefix Key prefix (not-null)
+   * @param out    Values output (not-null)
+   */
+  void collectPrefixed(String prefix, final List<? super V> out) {
+    visitPrefixed(prefix, new Visitor<V>() {
+      @Override
+      public void visit(String key, V value) {
+        out.add(value);
+      }
+    });
+  }
+
+  /**
+   * <p>Visit all keys starting with the given prefix, in lexicographic key order.</p>
+   *
+   * @param prefix  Key prefix (not-null)
+   * @param visitor Visitor of keys and their values (not-null)
+   */
+  void visitPrefixed(String prefix, Visitor<V> visitor) {
+    Node<V> node = root;
+    int i = 0;
+    while (i < prefix.length()) {
+      int childIndex = node.indexOf(prefix.charAt(i));
+      if (childIndex < 0) {
+        return;
+      }
+      node = node.children[childIndex];
+      if (!prefix.regionMatches(i, node.label, 0, Math.min(node.label.length(), prefix.length() - i))) {
+        return;
+      }
+      i += node.label.length();
+    }
+    //i may overshoot the prefix, if it ends in the middle of a node label
+    StringBuilder path = new StringBuilder(prefix.length() + 16);
+    path.append(prefix, 0, Math.min(i, prefix.length()));
+    if (i > prefix.length()) {
+      path.append(node.label, node.label.length() - (i - prefix.length()), node.label.length());
+    }
+    visit(node, path, visitor);
+  }
+
+  private static <V> void visit(Node<V> node, StringBuilder path, Visitor<V> visitor) {
+    if (null != node.value) {
+      visitor.visit(path.toString(), node.value);
+    }
+    for (int i = 0; i < node.childCount; i++) {
+      Node<V> child = node.children[i];
+      int length = path.length();
+      path.append(child.label);
+      visit(child, path, visitor);
+      path.setLength(length);
+    }
+  }
+
+  /**
+   * @return Number of keys with a value
+   */
+  int size() {
+    return size;
+  }
+
+  private static int commonPrefixLength(String label, String key, int offset) {
+    int max = Math.min(label.length(), key.length() - offset);
+    int i = 0;
+    while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * <p>Callback for keys visited during a trie traversal.</p>
+   *
+   * @param <V> Value type
+   */
+  interface Visitor<V> {
+    void visit(String key, V value);
+  }
+
+  private static final class Node<V> {
+    private String label;
+    private V value;
+    private Node<V>[] children;
+    private int childCount;
+
+    Node(String label, V value) {
+      this.label = label;
+      this.value = value;
+    }
+
+    /**
+     * @return Index of the child starting with the given character, or
+     * <code>-(insertionPoint + 1)</code> if there is no such child
+     */
+    int indexOf(char c) {
+      int low = 0;
+      int high = childCount - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        char midChar = children[mid].label.charAt(0);
+        if (midChar < c) {
+          low = mid + 1;
+        } else if (midChar > c) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void insertChild(int index, Node<V> child) {
+      if (null == children) {
+        children = new Node[2];
+      } else if (childCount == children.length) {
+        children = Arrays.copyOf(children, childCount * 2);
+      }
+      System.arraycopy(children, index, children, index + 1, childCount - index);
+      children[index] = child;
+      childCount++;
+    }
+  }
+}
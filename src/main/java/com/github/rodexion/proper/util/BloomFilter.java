@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Compact set of strings answering "definitely absent" or "maybe present".</p>
+ * <p>Bit positions are derived from {@link String#hashCode()}, which strings cache, by double
+ * hashing. Keys can be added concurrently with lookups, but never removed: a filter with
+ * removed keys, or with more keys than expected, only has more false positives, and should
+ * be rebuilt.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class BloomFilter {
+  private final int expectedKeys;
+  private final AtomicLongArray bits;
+  private final int bitCount;
+  private final int hashCount;
+
+  /**
+   * @param expectedKeys      Number of keys the filter is sized for (positive)
+   * @param falsePositiveRate Rate of false positives once full (between 0 and 1 exclusive)
+   */
+  public BloomFilter(int expectedKeys, double falsePositiveRate) {
+    if (expectedKeys <= 0) {
+      throw new IllegalArgumentException("expectedKeys has to be positive: " + expectedKeys);
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("falsePositiveRate has to be in (0, 1): " + falsePositiveRate);
+    }
+    double ln2 = Math.log(2);
+    long bits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+    int words = (int) Math.min(Integer.MAX_VALUE / 64, Math.max(1, (bits + 63) / 64));
+    this.expectedKeys = expectedKeys;
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = words * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * ln2));
+  }
+
+  /**
+   * @param key Key to add (not-null)
+   */
+  public void add(String key) {
+    long hash = mix(key.hashCode());
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+      int word = bit >>> 6;
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = bits.get(word);
+      } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /**
+   * @param key Key to look up (not-null)
+   * @return <code>false</code> if the key was definitely never added
+   */
+  public boolean mightContain(String key) {
+    long hash = mix(key.hashCode());
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+      if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return Number of keys the filter is sized for
+   */
+  public int getExpectedKeys() {
+    return expectedKeys;
+  }
+
+  /**
+   * <p>Spread a 32 bit hash over 64 bits (finalizer of MurmurHash3).</p>
+   */
+  private static long mix(int hashCode) {
+    long h = hashCode;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "BloomFilter(expectedKeys=" + expectedKeys + ", bits=" + bitCount + ", hashes=" + hashCount + ')';
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+/**
+ * <p>Parsing utilities working on ranges of a {@link CharSequence}, so that parts
+ * of a larger string can be parsed without copying them into substrings first.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class CharRanges {
+  /**
+   * <p>Skip leading whitespace (as in {@link String#trim()}).</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return Start of the range without leading whitespace
+   */
+  public static int trimStart(CharSequence s, int from, int to) {
+    while (from < to && s.charAt(from) <= ' ') {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * <p>Skip trailing whitespace (as in {@link String#trim()}).</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return End of the range without trailing whitespace
+   */
+  public static int trimEnd(CharSequence s, int from, int to) {
+    while (to > from && s.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    return to;
+  }
+
+  /**
+   * <p>Find the first occurrence of a character in the range.</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param c    Character to look for
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return Index of the character, or <code>-1</code> if not found
+   */
+  public static int indexOf(CharSequence s, char c, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (s.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * <p>Count occurrences of a character in the range.</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param c    Character to count
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return Number of occurrences
+   */
+  public static int count(CharSequence s, char c, int from, int to) {
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      if (s.charAt(i) == c) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private CharRanges() {
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Canonicalizes equal immutable objects to a single shared instance,
+ * ala {@link String#intern()}.</p>
+ * <p>Canonical instances are only weakly referenced, and are released once
+ * no longer used elsewhere. Lookups do not lock, so that concurrent
+ * interning threads do not contend.</p>
+ *
+ * @param <T> Object type, has to be immutable and implement <code>equals</code>
+ *            and <code>hashCode</code>
+ * @author rodexion
+ * @since 0.1
+ */
+public final class Interner<T> {
+  private final ConcurrentMap<Ref<T>, Ref<T>> canonical = new ConcurrentHashMap<>();
+  private final ReferenceQueue<T> released = new ReferenceQueue<>();
+
+  /**
+   * <p>Retrieve canonical instance equal to the given object, registering
+   * the given object as canonical if no such instance exists yet.</p>
+   *
+   * @param value Object to canonicalize (not-null)
+   * @return Canonical instance equal to the given object (not-null)
+   */
+  public T intern(T value) {
+    purge();
+    Ref<T> ref = new Ref<>(value, released);
+    while (true) {
+      Ref<T> existingRef = canonical.putIfAbsent(ref, ref);
+      if (null == existingRef) {
+        return value;
+      }
+      T existing = existingRef.get();
+      if (null != existing) {
+        return existing;
+      }
+      //Released in between the lookup and now
+      canonical.remove(existingRef, existingRef);
+    }
+  }
+
+  /**
+   * @return Number of canonical instances currently held
+   */
+  public int size() {
+    purge();
+    return canonical.size();
+  }
+
+  private void purge() {
+    for (Object ref = released.poll(); null != ref; ref = released.poll()) {
+      canonical.remove(ref);
+    }
+  }
+
+  /**
+   * <p>Weak reference which is equal to references of equal objects, as long as
+   * it is not cleared, and only to itself afterwards.</p>
+   */
+  private static final class Ref<T> extends WeakReference<T> {
+    private final int hash;
+
+    Ref(T value, ReferenceQueue<T> queue) {
+      super(value, queue);
+      this.hash = value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Ref)) {
+        return false;
+      }
+      Object value = get();
+      return null != value && value.equals(((Ref<?>) o).get());
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
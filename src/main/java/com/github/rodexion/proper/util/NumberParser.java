@@ -0,0 +1,358 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+/**
+ * <p>Parser of numbers in a range of a {@link CharSequence}, reporting failures
+ * with a status code rather than by throwing {@link NumberFormatException}, so
+ * that invalid values are cheap to reject.</p>
+ * <p>Accepts the same syntax as the corresponding <code>parseXxx</code> methods of the
+ * boxed primitive types, with the exception of surrounding whitespace, which is
+ * to be trimmed by the caller (see {@link CharRanges}).</p>
+ * <p>Parsed value is kept in the parser, a parser object should therefore only be
+ * used by a single thread:</p>
+ * <pre><code>
+ *   NumberParser parser = new NumberParser();
+ *   if (parser.parseLong(value, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE) == NumberParser.OK) {
+ *     int i = (int) parser.getLongValue();
+ *   }
+ * </code></pre>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public final class NumberParser {
+  /**
+   * <p>Value parsed successfully.</p>
+   */
+  public static final int OK = 0;
+  /**
+   * <p>Value is not a number.</p>
+   */
+  public static final int SYNTAX_ERROR = 1;
+  /**
+   * <p>Value is a number, but out of the requested range.</p>
+   */
+  public static final int OUT_OF_RANGE = 2;
+  /**
+   * <p>NaN or infinity, already parsed by {@link #scanDecimal(CharSequence, int, int)}</p>
+   */
+  private static final int SPECIAL_VALUE = -1;
+
+  private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+  private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+  private static final int MAX_SIGNIFICANT_DIGITS = 18;
+  private static final double[] DOUBLE_POWERS_OF_TEN = {
+          1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+          1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  private static final float[] FLOAT_POWERS_OF_TEN = {
+          1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+  private long longValue;
+  private double doubleValue;
+  private float floatValue;
+  //Decimal floating point number scanned by scanDecimal
+  private long mantissa;
+  private int exponent;
+  private boolean exact;
+  private boolean negative;
+
+  /**
+   * <p>Parse a signed decimal integer in the given bounds, as {@link Long#parseLong(String)}.</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @param min  Smallest accepted value
+   * @param max  Largest accepted value (not negative)
+   * @return Status code, the value is available from {@link #getLongValue()} if {@link #OK}
+   */
+  public int parseLong(CharSequence s, int from, int to, long min, long max) {
+    if (from >= to) {
+      return SYNTAX_ERROR;
+    }
+    boolean negative = false;
+    int i = from;
+    char first = s.charAt(i);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      if (++i == to) {
+        return SYNTAX_ERROR;
+      }
+    }
+    //Accumulate negatively, as Long.MIN_VALUE has no positive counterpart
+    long limit = negative ? min : -max;
+    long result = 0;
+    int status = OK;
+    while (i < to) {
+      int digit = Character.digit(s.charAt(i++), 10);
+      if (digit < 0) {
+        return SYNTAX_ERROR;
+      }
+      if (status == OK && (result < (limit + digit) / 10 || result * 10 < limit + digit)) {
+        //Keep scanning, a syntax error takes precedence
+        status = OUT_OF_RANGE;
+      }
+      result = result * 10 - digit;
+    }
+    if (status == OK) {
+      longValue = negative ? result : -result;
+    }
+    return status;
+  }
+
+  /**
+   * <p>Parse a floating point number, as {@link Double#parseDouble(String)}.</p>
+   * <p>Numbers whose decimal digits fit into 53 bits, with a decimal exponent of at most 22,
+   * are computed exactly with a single floating point operation (Clinger's fast path). Other
+   * numbers are delegated to {@link Double#parseDouble(String)} once their syntax has been verified.</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return Status code, the value is available from {@link #getDoubleValue()} if {@link #OK}
+   */
+  public int parseDouble(CharSequence s, int from, int to) {
+    int status = scanDecimal(s, from, to);
+    if (status != OK) {
+      return status == SPECIAL_VALUE ? OK : status;
+    }
+    if (!exact) {
+      doubleValue = Double.parseDouble(s.subSequence(from, to).toString());
+    } else if (mantissa == 0) {
+      doubleValue = negative ? -0.0d : 0.0d;
+    } else if (mantissa <= MAX_EXACT_DOUBLE_MANTISSA && Math.abs(exponent) < DOUBLE_POWERS_OF_TEN.length) {
+      double value = exponent >= 0 ?
+              mantissa * DOUBLE_POWERS_OF_TEN[exponent] :
+              mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+      doubleValue = negative ? -value : value;
+    } else {
+      doubleValue = Double.parseDouble(s.subSequence(from, to).toString());
+    }
+    return OK;
+  }
+
+  /**
+   * <p>Parse a floating point number, as {@link Float#parseFloat(String)}.</p>
+   *
+   * @param s    Character sequence (not-null)
+   * @param from Range start (inclusive)
+   * @param to   Range end (exclusive)
+   * @return Status code, the value is available from {@link #getFloatValue()} if {@link #OK}
+   * @see #parseDouble(CharSequence, int, int)
+   */
+  public int parseFloat(CharSequence s, int from, int to) {
+    int status = scanDecimal(s, from, to);
+    if (status != OK) {
+      return status == SPECIAL_VALUE ? OK : status;
+    }
+    if (!exact) {
+      floatValue = Float.parseFloat(s.subSequence(from, to).toString());
+    } else if (mantissa == 0) {
+      floatValue = negative ? -0.0f : 0.0f;
+    } else if (mantissa <= MAX_EXACT_FLOAT_MANTISSA && Math.abs(exponent) < FLOAT_POWERS_OF_TEN.length) {
+      float value = exponent >= 0 ?
+              mantissa * FLOAT_POWERS_OF_TEN[exponent] :
+              mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+      floatValue = negative ? -value : value;
+    } else {
+      floatValue = Float.parseFloat(s.subSequence(from, to).toString());
+    }
+    return OK;
+  }
+
+  /**
+   * @return Last value parsed by {@link #parseLong(CharSequence, int, int, long, long)}
+   */
+  public long getLongValue() {
+    return longValue;
+  }
+
+  /**
+   * @return Last value parsed by {@link #parseDouble(CharSequence, int, int)}
+   */
+  public double getDoubleValue() {
+    return doubleValue;
+  }
+
+  /**
+   * @return Last value parsed by {@link #parseFloat(CharSequence, int, int)}
+   */
+  public float getFloatValue() {
+    return floatValue;
+  }
+
+  /**
+   * <p>Verify floating point syntax, and scan decimal numbers into
+   * <code>mantissa * 10^exponent</code>. Numbers which cannot be scanned exactly
+   * (too many digits, hexadecimal notation) are marked as inexact,
+   * and NaN and infinities are parsed right away.</p>
+   */
+  private int scanDecimal(CharSequence s, int from, int to) {
+    exact = false;
+    if (from >= to) {
+      return SYNTAX_ERROR;
+    }
+    int i = from;
+    negative = false;
+    char first = s.charAt(i);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    if (regionEquals(s, i, to, "NaN")) {
+      doubleValue = Double.NaN;
+      floatValue = Float.NaN;
+      return SPECIAL_VALUE;
+    }
+    if (regionEquals(s, i, to, "Infinity")) {
+      doubleValue = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+      floatValue = negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+      return SPECIAL_VALUE;
+    }
+    if (i + 1 < to && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+      return scanHex(s, i + 2, to);
+    }
+
+    long m = 0;
+    int digits = 0;
+    int exp = 0;
+    boolean anyDigits = false;
+    boolean truncated = false;
+    while (i < to && isDigit(s.charAt(i))) {
+      int digit = s.charAt(i++) - '0';
+      anyDigits = true;
+      if (m == 0 && digit == 0) {
+        continue;
+      }
+      if (digits < MAX_SIGNIFICANT_DIGITS) {
+        m = m * 10 + digit;
+        digits++;
+      } else {
+        exp++;
+        truncated |= digit != 0;
+      }
+    }
+    if (i < to && s.charAt(i) == '.') {
+      i++;
+      while (i < to && isDigit(s.charAt(i))) {
+        int digit = s.charAt(i++) - '0';
+        anyDigits = true;
+        if (m == 0 && digit == 0) {
+          exp--;
+        } else if (digits < MAX_SIGNIFICANT_DIGITS) {
+          m = m * 10 + digit;
+          digits++;
+          exp--;
+        } else {
+          truncated |= digit != 0;
+        }
+      }
+    }
+    if (!anyDigits) {
+      return SYNTAX_ERROR;
+    }
+    if (i < to && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i++;
+      boolean negativeExp = false;
+      if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+        negativeExp = s.charAt(i) == '-';
+        i++;
+      }
+      if (i == to || !isDigit(s.charAt(i))) {
+        return SYNTAX_ERROR;
+      }
+      int e = 0;
+      while (i < to && isDigit(s.charAt(i))) {
+        //Saturate, anything this large is zero or infinity anyway
+        e = Math.min(e * 10 + (s.charAt(i++) - '0'), 100000);
+      }
+      exp += negativeExp ? -e : e;
+    }
+    if (i < to && isTypeSuffix(s.charAt(i))) {
+      i++;
+    }
+    if (i != to) {
+      return SYNTAX_ERROR;
+    }
+    mantissa = m;
+    exponent = exp;
+    exact = !truncated;
+    return OK;
+  }
+
+  /**
+   * <p>Verify hexadecimal floating point syntax (<code>0x1.8p1</code>), leaving the
+   * conversion itself to the JDK.</p>
+   */
+  private static int scanHex(CharSequence s, int i, int to) {
+    boolean anyDigits = false;
+    while (i < to && Character.digit(s.charAt(i), 16) >= 0 && s.charAt(i) < 128) {
+      i++;
+      anyDigits = true;
+    }
+    if (i < to && s.charAt(i) == '.') {
+      i++;
+      while (i < to && Character.digit(s.charAt(i), 16) >= 0 && s.charAt(i) < 128) {
+        i++;
+        anyDigits = true;
+      }
+    }
+    //Binary exponent is mandatory
+    if (!anyDigits || i == to || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+      return SYNTAX_ERROR;
+    }
+    i++;
+    if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+      i++;
+    }
+    if (i == to || !isDigit(s.charAt(i))) {
+      return SYNTAX_ERROR;
+    }
+    while (i < to && isDigit(s.charAt(i))) {
+      i++;
+    }
+    if (i < to && isTypeSuffix(s.charAt(i))) {
+      i++;
+    }
+    return i == to ? OK : SYNTAX_ERROR;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isTypeSuffix(char c) {
+    return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+  }
+
+  private static boolean regionEquals(CharSequence s, int from, int to, String expected) {
+    if (to - from != expected.length()) {
+      return false;
+    }
+    for (int i = 0; i < expected.length(); i++) {
+      if (s.charAt(from + i) != expected.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
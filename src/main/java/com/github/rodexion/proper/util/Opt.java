@@ -72,6 +72,9 @@ public final class Opt<T> {
    * @return Opt object (not-null)
    */
   public static <T> Opt<T> of(T value) {
+    if (null == value) {
+      return none();
+    }
     return new Opt<>(value);
   }
 
@@ -23,8 +23,11 @@ package com.github.rodexion.proper.validator;
 import static com.github.rodexion.proper.Proper.DYNAMIC_KEY_SUBSTITUTIONS_DELIMITER;
 import static com.github.rodexion.proper.util.Preconditions.checkNotNull;
 
+import com.github.rodexion.proper.AsyncValidator;
+import com.github.rodexion.proper.KeySubstitutions;
 import com.github.rodexion.proper.Proper;
 import com.github.rodexion.proper.PropertyListeners;
+import com.github.rodexion.proper.Validator;
 import com.github.rodexion.proper.annotations.ProperScannable;
 import com.github.rodexion.proper.scanner.ProperDecl;
 import com.github.rodexion.proper.scanner.ProperScanner;
@@ -34,6 +37,10 @@ import com.github.rodexion.proper.util.Opt;
 import lombok.AllArgsConstructor;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * @author rodexion
@@ -42,62 +49,213 @@ import java.util.*;
 public class ProperValidators {
   public static ProperValidator validator(String basePackage) {
     ProperScanner scanner = ProperScanners.scanner(checkNotNull("basePackage", basePackage));
-    return new DefaultProperValidator(scanner);
+    return new DefaultProperValidator(scanner, Opt.<ExecutorService>none());
+  }
+
+  /**
+   * <p>Same as {@link #validator(String)}, but validates properties in parallel,
+   * using the given executor.</p>
+   *
+   * @param basePackage Package to scan under (not-null)
+   * @param executor    Executor to run validations in (not-null)
+   * @return Property validator (not-null)
+   */
+  public static ProperValidator validator(String basePackage, ExecutorService executor) {
+    ProperScanner scanner = ProperScanners.scanner(checkNotNull("basePackage", basePackage));
+    return new DefaultProperValidator(scanner, Opt.some(checkNotNull("executor", executor)));
   }
 
   public static ProperValidator validateAll(String basePackage) {
+    return validateAll(basePackage, Opt.<ExecutorService>none());
+  }
+
+  /**
+   * <p>Same as {@link #validateAll(String)}, but validates properties in parallel,
+   * using the given executor.</p>
+   *
+   * @param basePackage Package to scan under (not-null)
+   * @param executor    Executor to run validations in (not-null)
+   * @return Property validator (not-null)
+   */
+  public static ProperValidator validateAll(String basePackage, ExecutorService executor) {
+    return validateAll(basePackage, Opt.some(checkNotNull("executor", executor)));
+  }
+
+  private static ProperValidator validateAll(String basePackage, Opt<ExecutorService> executor) {
     checkNotNull("basePackage", basePackage);
     ProperScanner annotationScanner = ProperScanners.scanner(basePackage);
     ProperScanner allScanner = ProperScanners.scanAll(basePackage);
-    ProperValidator allClassValidator = new DefaultProperValidator(allScanner);
+    ProperValidator allClassValidator = new DefaultProperValidator(allScanner, executor);
     ProperValidator missingAnnotationValidator = new MissingScannableAnnotationsValidator(allScanner, annotationScanner);
     return new CombinedValidator(missingAnnotationValidator, allClassValidator);
   }
 
+  /**
+   * <p>Validates every declared property, once for each of its dynamic key substitutions.
+   * Substitutions are generated lazily, and validated in chunks of {@value #CHUNK_SIZE}.
+   * Chunks are validated in parallel, when an executor is given.</p>
+   */
   @AllArgsConstructor
   private static final class DefaultProperValidator implements ProperValidator {
+    private static final int CHUNK_SIZE = 1024;
+
     private final ProperScanner scanner;
+    private final Opt<ExecutorService> executor;
 
     @Override
     public ValidationResult validate() {
-      List<ValidationResult.Error> errors = new ArrayList<>();
-
       ScanResult scanResult = scanner.scan();
 
+      List<Chunk> chunks = new ArrayList<>();
       for (ProperDecl properDecl : scanResult.getDeclarations()) {
-        Set<String[]> complexSubstitutions = new HashSet<>();
+        for (KeySubstitutions substitutions : substitutionsOf(properDecl.getProperty().getInfo())) {
+          for (long from = 0; from < substitutions.size(); from += CHUNK_SIZE) {
+            chunks.add(new Chunk(properDecl, substitutions, from,
+                    Math.min(substitutions.size(), from + CHUNK_SIZE)));
+          }
+        }
+      }
+
+      List<ValidationResult.Error> errors = new ArrayList<>();
+      List<DeferredCheck> deferredChecks = new ArrayList<>();
+      if (executor.isNone()) {
+        for (Chunk chunk : chunks) {
+          chunk.call().addTo(errors, deferredChecks);
+        }
+      } else {
+        List<Future<ChunkResult>> results = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+          results.add(executor.get().submit(chunk));
+        }
+        for (Future<ChunkResult> result : results) {
+          getUninterruptibly(result).addTo(errors, deferredChecks);
+        }
+      }
+      //Asynchronous checks of all properties have been running concurrently meanwhile
+      for (DeferredCheck deferredCheck : deferredChecks) {
+        Validator.Result result = deferredCheck.pending.await();
+        if (!result.isOk()) {
+          errors.add(new ValidationResult.Error(
+                  deferredCheck.properDecl.getProperty(),
+                  deferredCheck.properDecl.getLocation(),
+                  result.getErrorMessage()));
+        }
+      }
+      return new ValidationResult(errors);
+    }
 
-        Object complexSubs = properDecl.getProperty().getInfo().getAttributes().get(Proper.ATTRIBUTE_DYNAMIC_KEY_SUBSTITUTIONS);
-        if (complexSubs == null) {
-          complexSubstitutions.add(new String[0]);//test without arguments (default)
-        } else if (complexSubs instanceof String[]) {
+    private static List<KeySubstitutions> substitutionsOf(Proper.Info<?> info) {
+      List<KeySubstitutions> substitutions = new ArrayList<>();
+      Object complexSubs = info.getAttribute(Proper.DYNAMIC_KEY_SUBSTITUTIONS);
+      if (null != complexSubs) {
+        List<Object[]> tuples = new ArrayList<>();
+        if (complexSubs instanceof String[]) {
           for (Object sub : (String[]) complexSubs) {
-            addAllDelimitedSubs(complexSubstitutions, sub);
+            tuples.add(splitDelimitedSubs(sub));
           }
         } else if (complexSubs instanceof Iterable) {
           for (Object sub : (Iterable<?>) complexSubs) {
-            addAllDelimitedSubs(complexSubstitutions, sub);
+            tuples.add(splitDelimitedSubs(sub));
           }
         } else {
-          addAllDelimitedSubs(complexSubstitutions, complexSubs);
+          tuples.add(splitDelimitedSubs(complexSubs));
         }
-        for (String[] sub : complexSubstitutions) {
-          ValidationErrorCapture errorCapture = new ValidationErrorCapture();
-          properDecl.getProperty().getValue(errorCapture, (Object[]) sub);
-
-          if (errorCapture.hasError) {
-            errors.add(new ValidationResult.Error(
-                    properDecl.getProperty(),
-                    properDecl.getLocation(),
-                    errorCapture.validationError.get()));
+        substitutions.add(KeySubstitutions.tuples(tuples));
+      }
+      KeySubstitutions values = info.getAttribute(Proper.DYNAMIC_KEY_VALUES);
+      if (null != values) {
+        substitutions.add(values);
+      }
+      if (substitutions.isEmpty()) {
+        substitutions.add(KeySubstitutions.none());//test without arguments (default)
+      }
+      return substitutions;
+    }
+
+    private static Object[] splitDelimitedSubs(Object sub) {
+      return String.valueOf(sub).split(DYNAMIC_KEY_SUBSTITUTIONS_DELIMITER);
+    }
+
+    private static <T> T getUninterruptibly(Future<T> future) {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            return future.get();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+              throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+              throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
           }
         }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
       }
-      return new ValidationResult(errors);
     }
 
-    private void addAllDelimitedSubs(Set<String[]> complexSubstitutions, Object sub) {
-      complexSubstitutions.add(String.valueOf(sub).split(DYNAMIC_KEY_SUBSTITUTIONS_DELIMITER));
+    /**
+     * <p>Validation of a range of key substitutions of one property declaration.
+     * Checks of {@link AsyncValidator}s are not waited for, but handed over
+     * to be awaited once all chunks are done.</p>
+     */
+    @AllArgsConstructor
+    private static final class Chunk implements Callable<ChunkResult> {
+      private final ProperDecl properDecl;
+      private final KeySubstitutions substitutions;
+      private final long from;
+      private final long to;
+
+      @Override
+      public ChunkResult call() {
+        ChunkResult chunkResult = new ChunkResult();
+        ValidationErrorCapture errorCapture = new ValidationErrorCapture();
+        List<AsyncValidator.Pending> pendingChecks = AsyncValidator.deferChecks();
+        try {
+          Iterator<Object[]> it = substitutions.iterator(from, to);
+          while (it.hasNext()) {
+            errorCapture.reset();
+            properDecl.getProperty().getValue(errorCapture, it.next());
+
+            if (errorCapture.hasError) {
+              chunkResult.errors.add(new ValidationResult.Error(
+                      properDecl.getProperty(),
+                      properDecl.getLocation(),
+                      errorCapture.validationError.get()));
+            }
+            for (AsyncValidator.Pending pending : pendingChecks) {
+              chunkResult.deferredChecks.add(new DeferredCheck(properDecl, pending));
+            }
+            pendingChecks.clear();
+          }
+        } finally {
+          AsyncValidator.stopDeferring();
+        }
+        return chunkResult;
+      }
+    }
+
+    private static final class ChunkResult {
+      final List<ValidationResult.Error> errors = new ArrayList<>();
+      final List<DeferredCheck> deferredChecks = new ArrayList<>();
+
+      void addTo(List<ValidationResult.Error> errors, List<DeferredCheck> deferredChecks) {
+        errors.addAll(this.errors);
+        deferredChecks.addAll(this.deferredChecks);
+      }
+    }
+
+    @AllArgsConstructor
+    private static final class DeferredCheck {
+      private final ProperDecl properDecl;
+      private final AsyncValidator.Pending pending;
     }
 
     private static final class ValidationErrorCapture extends PropertyListeners.BasePropertyListener {
@@ -105,6 +263,12 @@ public class ProperValidators {
       Opt<String> validationError = Opt.none();
       boolean hasError = false;
 
+      void reset() {
+        inputValue = Opt.none();
+        validationError = Opt.none();
+        hasError = false;
+      }
+
       @Override
       public void validationBeforeConversionFailed(String key, String value, String validationError, Proper.Info<?> info) {
         validationError(value, validationError);
@@ -22,7 +22,15 @@ package com.github.rodexion.proper;
 
 import static org.junit.runners.Suite.SuiteClasses;
 
+import com.github.rodexion.proper.profile.ReadProfilerTest;
+import com.github.rodexion.proper.refresh.LiveBindingTest;
+import com.github.rodexion.proper.refresh.PropertyPublisherTest;
+import com.github.rodexion.proper.refresh.RefreshSchedulerTest;
+import com.github.rodexion.proper.registry.KeyTemplateMatcherTest;
+import com.github.rodexion.proper.registry.PropertyRegistryTest;
 import com.github.rodexion.proper.scanner.AllScannerTests;
+import com.github.rodexion.proper.util.BloomFilterTest;
+import com.github.rodexion.proper.util.NumberParserTest;
 import com.github.rodexion.proper.validator.AllValidatorTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -35,9 +43,32 @@ import org.junit.runners.Suite;
 @SuiteClasses({
         AllScannerTests.class,
         AllValidatorTests.class,
+        AsyncValidatorsTest.class,
+        AttributesTest.class,
+        BloomFilterTest.class,
+        CachePromotionTest.class,
+        CollectionConvertersTest.class,
         ComplexPropertyTest.class,
         ConverterProviderBuilderTest.class,
         DefaultConvertersTest.class,
-        Examples.class})
+        Examples.class,
+        InterpolatedSourceTest.class,
+        KeySubstitutionsTest.class,
+        KeyTemplateMatcherTest.class,
+        LazyDiagnosticsTest.class,
+        LiveBindingTest.class,
+        NumberParserTest.class,
+        PatternValidatorsTest.class,
+        ProfileSourceTest.class,
+        PropertyGroupTest.class,
+        PropertyPublisherTest.class,
+        PropertyRegistryTest.class,
+        PropertySourcesTest.class,
+        PropertyStoreTest.class,
+        ReadPipelineTest.class,
+        ReadProfilerTest.class,
+        ReflectiveConvertersTest.class,
+        RefreshSchedulerTest.class,
+        ZeroAllocationTest.class})
 public class AllTests {
 }
@@ -0,0 +1,228 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class AsyncValidatorsTest {
+  private static final String KEY = "test.async";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void readableFileValidator() throws Exception {
+    AsyncValidator<File> validator = AsyncValidators.readableFileValidator(5, TimeUnit.SECONDS);
+    File file = folder.newFile();
+    assertThat(validator.afterConversion(KEY, file, info(File.class)).isOk()).isTrue();
+    Validator.Result missing = validator.afterConversion(KEY, new File(folder.getRoot(), "missing"), info(File.class));
+    assertThat(missing.getErrorCode()).isSameAs(ErrorCode.FILE_NOT_READABLE);
+    assertThat(AsyncValidators.readablePathValidator(5, TimeUnit.SECONDS)
+            .validateAsync(KEY, file.toPath(), info(java.nio.file.Path.class)).await().isOk()).isTrue();
+  }
+
+  @Test
+  public void fileChecksAreCachedByPathAndModificationTime() throws Exception {
+    File file = new File(folder.getRoot(), "created.later");
+    Validator.Result missing = AsyncValidators.checkReadable(file);
+    assertThat(missing.isOk()).isFalse();
+    assertThat(AsyncValidators.checkReadable(file)).isSameAs(missing);
+    assertThat(file.createNewFile()).isTrue();
+    assertThat(AsyncValidators.checkReadable(file).isOk()).isTrue();
+    assertThat(file.delete()).isTrue();
+    Validator.Result deleted = AsyncValidators.checkReadable(file);
+    assertThat(deleted.isOk()).isFalse();
+    assertThat(deleted).isNotSameAs(missing);
+  }
+
+  @Test
+  public void freePortValidator() throws Exception {
+    AsyncValidator<Integer> validator = AsyncValidators.freePortValidator(5, TimeUnit.SECONDS);
+    try (ServerSocket socket = new ServerSocket(0)) {
+      Validator.Result result = validator.afterConversion(KEY, socket.getLocalPort(), info(Integer.class));
+      assertThat(result.getErrorCode()).isSameAs(ErrorCode.PORT_IN_USE);
+    }
+  }
+
+  @Test
+  public void checksNotCompletingInTimeFail() {
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    AsyncValidator<Integer> validator = new AsyncValidator<Integer>(Integer.class, 50, TimeUnit.MILLISECONDS) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) {
+        try {
+          Thread.sleep(10000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return Result.ok();
+      }
+    };
+    Validator.Result result = validator.afterConversion(KEY, 1, info(Integer.class));
+    assertThat(result.getErrorCode()).isSameAs(ErrorCode.VALIDATION_TIMED_OUT);
+    assertThat(result.getErrorMessage()).isEqualTo("Validation of '" + KEY + "' timed out after 50ms");
+  }
+
+  @Test
+  public void saturatedExecutorsRejectChecks() throws Exception {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(1));
+    try {
+      AsyncValidator<Integer> validator = slowValidator(executor, 100, 1000);
+      AsyncValidator.Pending running = validator.validateAsync(KEY, 1, info(Integer.class));
+      AsyncValidator.Pending queued = validator.validateAsync(KEY, 2, info(Integer.class));
+      AsyncValidator.Pending rejected = validator.validateAsync(KEY, 3, info(Integer.class));
+      assertThat(rejected.getFuture().isDone()).isTrue();
+      assertThat(rejected.await().getErrorCode()).isSameAs(ErrorCode.VALIDATION_CHECK_FAILED);
+      assertThat(running.await().getErrorCode()).isSameAs(ErrorCode.VALIDATION_TIMED_OUT);
+      assertThat(queued.await().getErrorCode()).isSameAs(ErrorCode.VALIDATION_TIMED_OUT);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void checksRunByTheCallerAreStillBounded() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy());
+    try {
+      AsyncValidator<Integer> validator = slowValidator(executor, 20, 200);
+      AsyncValidator.Pending running = validator.validateAsync(KEY, 1, info(Integer.class));
+      Validator.Result callerRun = validator.afterConversion(KEY, 2, info(Integer.class));
+      assertThat(callerRun.getErrorCode()).isSameAs(ErrorCode.VALIDATION_TIMED_OUT);
+      assertThat(running.await().getErrorCode()).isSameAs(ErrorCode.VALIDATION_TIMED_OUT);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void queuedChecksGetTheirFullTimeout() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(1));
+    try {
+      AsyncValidator<Integer> validator = slowValidator(executor, 400, 250);
+      AsyncValidator.Pending running = validator.validateAsync(KEY, 1, info(Integer.class));
+      AsyncValidator.Pending queued = validator.validateAsync(KEY, 2, info(Integer.class));
+      assertThat(running.await().isOk()).isTrue();
+      //Completes 500ms after its submission, but 250ms after it started
+      assertThat(queued.await().isOk()).isTrue();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void sharedExecutorThrottlesChecksInsteadOfRejecting() {
+    int checks = AsyncValidators.SHARED_QUEUE_SIZE * 3;
+    AsyncValidator<Integer> validator = new AsyncValidator<Integer>(Integer.class, 5, TimeUnit.SECONDS) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) throws Exception {
+        Thread.sleep(1);
+        return Result.ok();
+      }
+    };
+    List<AsyncValidator.Pending> pending = AsyncValidator.deferChecks();
+    try {
+      for (int i = 0; i < checks; ++i) {
+        validator.afterConversion(KEY, i, info(Integer.class));
+      }
+    } finally {
+      AsyncValidator.stopDeferring();
+    }
+    assertThat(pending).hasSize(checks);
+    for (AsyncValidator.Pending check : pending) {
+      Validator.Result result = check.await();
+      assertThat(result.getErrorMessage()).isNull();
+    }
+    assertThat(AsyncValidators.sharedPermits().availablePermits()).isEqualTo(AsyncValidators.SHARED_QUEUE_SIZE);
+  }
+
+  @Test
+  public void checkExceptionsFail() {
+    AsyncValidator<Integer> validator = new AsyncValidator<Integer>(Integer.class, 5, TimeUnit.SECONDS) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) throws Exception {
+        throw new java.io.IOException("broken");
+      }
+    };
+    Validator.Result result = validator.afterConversion(KEY, 1, info(Integer.class));
+    assertThat(result.getErrorCode()).isSameAs(ErrorCode.VALIDATION_CHECK_FAILED);
+    assertThat(result.getErrorMessage()).isEqualTo("Validation of '" + KEY + "' failed: java.io.IOException: broken");
+  }
+
+  @Test
+  public void deferredChecksAreCollected() {
+    AsyncValidator<Integer> validator = new AsyncValidator<Integer>(Integer.class, 5, TimeUnit.SECONDS) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) {
+        return Result.fail("deferred failure");
+      }
+    };
+    List<AsyncValidator.Pending> pending = AsyncValidator.deferChecks();
+    try {
+      assertThat(validator.afterConversion(KEY, 1, info(Integer.class)).isOk()).isTrue();
+    } finally {
+      AsyncValidator.stopDeferring();
+    }
+    assertThat(pending).hasSize(1);
+    assertThat(pending.get(0).await().getErrorMessage()).isEqualTo("deferred failure");
+    assertThat(validator.afterConversion(KEY, 1, info(Integer.class)).isOk()).isFalse();
+  }
+
+  private static AsyncValidator<Integer> slowValidator(ExecutorService executor, long timeoutMillis,
+                                                      final long checkMillis) {
+    return new AsyncValidator<Integer>(Integer.class, timeoutMillis, TimeUnit.MILLISECONDS, executor) {
+      @Override
+      protected Result check(String key, Integer value, Proper.Info<Integer> info) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(checkMillis);
+        //Not interruptible, as a blocking check ignoring cancellation
+        while (System.nanoTime() < end) {
+          Thread.yield();
+        }
+        return Result.ok();
+      }
+    };
+  }
+
+  private static <T> Proper.Info<T> info(Class<T> type) {
+    return new Proper.Info<>(KEY, type, null, Collections.<String, Object>emptyMap());
+  }
+}
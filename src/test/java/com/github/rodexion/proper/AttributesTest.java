@@ -0,0 +1,157 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.fest.assertions.data.MapEntry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class AttributesTest {
+  private static final AttributeKey<String> DESCRIPTION = AttributeKey.of("test.description", String.class);
+  private static final AttributeKey<Integer> WEIGHT = AttributeKey.of("test.weight", Integer.class);
+  /**
+   * <p>Heap retained per property with two attributes. Copying attribute maps into
+   * every property took about 490 bytes.</p>
+   */
+  private static final long MAX_BYTES_PER_PROPERTY = 256;
+
+  @Test
+  public void typedAttributes() {
+    Proper.Ty<Integer> prop = Proper.tyBuilder("test.attributes", 1)
+            .attribute(DESCRIPTION, "description")
+            .attribute(WEIGHT, 10)
+            .build();
+    assertThat(prop.getInfo().getAttribute(DESCRIPTION)).isEqualTo("description");
+    assertThat(prop.getInfo().getAttribute(WEIGHT)).isEqualTo(10);
+    assertThat(prop.getInfo().getAttribute(Proper.DYNAMIC_KEY_SUBSTITUTIONS)).isNull();
+    assertThat(prop.getInfo().getAttributes()).contains(
+            MapEntry.entry("test.description", "description"),
+            MapEntry.entry("test.weight", 10));
+  }
+
+  @Test
+  public void attributesSetByNameAreAccessibleByTypedKeys() {
+    Map<String, Object> attrs = new HashMap<>();
+    attrs.put("test.description", "by name");
+    attrs.put("test.not.registered.yet", 5L);
+    Proper.Info<Integer> info = new Proper.Info<>("test.attributes", Integer.class, 1, attrs);
+    assertThat(info.getAttribute(DESCRIPTION)).isEqualTo("by name");
+    //Key registered after the attributes were created
+    assertThat(info.getAttribute(AttributeKey.of("test.not.registered.yet", Long.class))).isEqualTo(5L);
+  }
+
+  @Test(expected = ClassCastException.class)
+  public void incompatibleAttributeValue() {
+    Map<String, Object> attrs = new HashMap<>();
+    attrs.put("test.weight", "not an integer");
+    new Proper.Info<>("test.attributes", Integer.class, 1, attrs).getAttribute(WEIGHT);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void keysCannotBeRegisteredWithDifferentTypes() {
+    AttributeKey.of("test.weight", Long.class);
+  }
+
+  @Test
+  public void attributesAreImmutableCopies() {
+    Map<String, Object> attrs = new HashMap<>();
+    attrs.put("test.description", "before");
+    Proper.Ty<Integer> prop = Proper.tyBuilder("test.attributes", 1).attributes(attrs).build();
+    attrs.put("test.description", "after");
+    assertThat(prop.getInfo().getAttribute(DESCRIPTION)).isEqualTo("before");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void attributeMapIsUnmodifiable() {
+    Proper.tyBuilder("test.attributes", 1).attribute(WEIGHT, 1).build().getInfo().getAttributes().put("x", 1);
+  }
+
+  @Test
+  public void identicalAttributeSetsAndKeysAreShared() {
+    Map<String, Object> attrs1 = new HashMap<>();
+    attrs1.put("test.description", "shared");
+    attrs1.put("test.weight", 1);
+    Map<String, Object> attrs2 = new HashMap<>(attrs1);
+    Proper.Info<Integer> info1 = new Proper.Info<>(new String("test.shared"), Integer.class, 1, attrs1);
+    Proper.Info<Integer> info2 = new Proper.Info<>(new String("test.shared"), Integer.class, 2, attrs2);
+    assertThat(info1.getAttributes()).isSameAs(info2.getAttributes());
+    assertThat(info1.getKey()).isSameAs(info2.getKey());
+    assertThat(Attributes.of(new HashMap<String, Object>())).isSameAs(Attributes.EMPTY);
+  }
+
+  @Test
+  public void attributeMapsAreViewsOfTheSlots() {
+    Map<String, Object> attrs = new LinkedHashMap<>();
+    attrs.put("test.weight", 1);
+    attrs.put("test.description", null);
+    attrs.put("test.view.by.name", "name");
+    Map<String, Object> view = new Proper.Info<>("test.attributes", Integer.class, 1, attrs).getAttributes();
+    assertThat(view).isEqualTo(attrs);
+    assertThat(view.hashCode()).isEqualTo(attrs.hashCode());
+    assertThat(view.containsKey("test.description")).isTrue();
+    assertThat(view.get("test.description")).isNull();
+    assertThat(view.get("test.view.by.name")).isEqualTo("name");
+    assertThat(view.containsKey("test.never.used")).isFalse();
+    assertThat(view.keySet()).containsOnly("test.weight", "test.description", "test.view.by.name");
+  }
+
+  @Test
+  public void attributesOfLargeRegistriesAreCompact() {
+    int properties = 100_000;
+    String[] keys = new String[properties];
+    for (int i = 0; i < properties; i++) {
+      keys[i] = "test.heap." + i;
+    }
+    List<Proper.Info<Integer>> registry = new ArrayList<>(properties);
+    long before = usedHeap();
+    for (int i = 0; i < properties; i++) {
+      Map<String, Object> attrs = new HashMap<>();
+      attrs.put("test.description", keys[i]);
+      attrs.put("test.weight", 1);
+      registry.add(new Proper.Info<>(keys[i], Integer.class, i, attrs));
+    }
+    long bytesPerProperty = (usedHeap() - before) / properties;
+    assertThat(registry).hasSize(properties);
+    //Info, attribute slots and their interner entry
+    assertThat(bytesPerProperty).isLessThan(MAX_BYTES_PER_PROPERTY);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+    }
+    return used;
+  }
+}
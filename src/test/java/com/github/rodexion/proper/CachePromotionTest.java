@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class CachePromotionTest {
+  private static final String KEY = "test.adaptive";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  private final AtomicInteger conversions = new AtomicInteger();
+  private final AtomicInteger promotions = new AtomicInteger();
+  private final AtomicInteger demotions = new AtomicInteger();
+
+  @Test
+  public void hotPropertiesArePromotedAndColdOnesDemoted() throws Exception {
+    System.setProperty(KEY, "42");
+    Proper.Ty<Integer> property = property(AdaptiveCaching.promoteAbove(10000));
+    for (int i = 0; i < 100000; i++) {
+      assertThat(property.getValue()).isEqualTo(42);
+    }
+    assertThat(promotions.get()).isEqualTo(1);
+    assertThat(conversions.get()).isLessThan(1000);
+
+    for (int i = 0; i < 4 * AdaptiveCaching.SAMPLE_READS; i++) {
+      Thread.sleep(1);
+      property.getValue();
+    }
+    assertThat(demotions.get()).isEqualTo(1);
+    int converted = conversions.get();
+    property.getValue();
+    assertThat(conversions.get()).isEqualTo(converted + 1);
+  }
+
+  @Test
+  public void rarelyReadPropertiesAreNotPromoted() throws Exception {
+    System.setProperty(KEY, "42");
+    Proper.Ty<Integer> property = property(AdaptiveCaching.promoteAbove(Long.MAX_VALUE / 2));
+    for (int i = 0; i < 1000; i++) {
+      property.getValue();
+    }
+    assertThat(promotions.get()).isEqualTo(0);
+    assertThat(conversions.get()).isEqualTo(1000);
+  }
+
+  @Test
+  public void explicitCachingDisablesAdaptiveCaching() {
+    System.setProperty(KEY, "42");
+    Proper.Ty<Integer> property = Proper.tyBuilder(KEY, 0)
+            .converter(countingConverter())
+            .propertyListener(countingListener())
+            .cacheConversions(false)
+            .build();
+    for (int i = 0; i < 100000; i++) {
+      property.getValue();
+    }
+    assertThat(promotions.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void onlyImmutableTypesArePromoted() {
+    assertThat(AdaptiveCaching.isImmutable(int.class)).isTrue();
+    assertThat(AdaptiveCaching.isImmutable(String.class)).isTrue();
+    assertThat(AdaptiveCaching.isImmutable(Thread.State.class)).isTrue();
+    assertThat(AdaptiveCaching.isImmutable(Date.class)).isFalse();
+    assertThat(AdaptiveCaching.isImmutable(StringBuilder.class)).isFalse();
+  }
+
+  private Proper.Ty<Integer> property(AdaptiveCaching adaptiveCaching) {
+    return Proper.tyBuilder(KEY, 0)
+            .converter(countingConverter())
+            .propertyListener(countingListener())
+            .adaptiveCaching(adaptiveCaching)
+            .build();
+  }
+
+  private Converter<Integer> countingConverter() {
+    return new Converters.BaseConverter<Integer>(Integer.class) {
+      @Override
+      public Integer doConvert(String key, String value, Proper.Info<Integer> info) {
+        conversions.incrementAndGet();
+        return Integer.valueOf(value);
+      }
+    };
+  }
+
+  private PropertyListener countingListener() {
+    return new PropertyListeners.BasePropertyListener() {
+      @Override
+      public void cachePromoted(Proper.Info<?> info, long readsPerSecond) {
+        promotions.incrementAndGet();
+      }
+
+      @Override
+      public void cacheDemoted(Proper.Info<?> info, long readsPerSecond) {
+        demotions.incrementAndGet();
+      }
+    };
+  }
+}
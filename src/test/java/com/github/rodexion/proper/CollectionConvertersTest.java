@@ -0,0 +1,155 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class CollectionConvertersTest {
+  private static final String KEY = "test.collection";
+
+  @Rule
+  public RuleUtils.TmpSysProp tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  @Test
+  public void listOfStrings() {
+    Proper.Ty<List<String>> prop = CollectionConvertersTest.<List<String>>collectionBuilder(List.class).build();
+    System.setProperty(KEY, " a, b ,c ");
+    assertThat(prop.getValue()).isEqualTo(Arrays.asList("a", "b", "c"));
+    System.setProperty(KEY, "  ");
+    assertThat(prop.getValue()).isEmpty();
+    System.setProperty(KEY, "a,,b,");
+    assertThat(prop.getValue()).isEqualTo(Arrays.asList("a", "", "b"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void listsAreImmutable() {
+    System.setProperty(KEY, "a");
+    CollectionConvertersTest.<List<String>>collectionBuilder(List.class).build().getValue().add("b");
+  }
+
+  @Test
+  public void typedElementsAndCustomDelimiter() {
+    Proper.Ty<Set<Integer>> prop = CollectionConvertersTest.<Set<Integer>>collectionBuilder(Set.class)
+            .attribute(Converters.ELEMENT_TYPE, Integer.class)
+            .attribute(Converters.ELEMENT_DELIMITER, '|')
+            .build();
+    System.setProperty(KEY, "3|1|3|2");
+    assertThat(prop.getValue()).containsExactly(3, 1, 2);
+
+    System.setProperty(KEY, "3|x");
+    assertThat(prop.getValue()).isNull();
+  }
+
+  @Test
+  public void maps() {
+    Proper.Ty<Map<String, Long>> prop = CollectionConvertersTest.<Map<String, Long>>collectionBuilder(Map.class)
+            .attribute(Converters.ELEMENT_TYPE, Long.class)
+            .build();
+    System.setProperty(KEY, "k1=1; k2 = 2;");
+    Map<String, Long> map = prop.getValue();
+    assertThat(map).hasSize(2).contains(entry("k1", 1L), entry("k2", 2L));
+
+    System.setProperty(KEY, "k1=1;k2");
+    assertThat(prop.getValue()).isNull();
+  }
+
+  @Test
+  public void primitiveAndObjectArrays() {
+    System.setProperty(KEY, "1, -2,2147483647");
+    assertThat(Proper.tyBuilder(KEY, new int[0]).build().getValue()).isEqualTo(new int[]{1, -2, Integer.MAX_VALUE});
+    assertThat(Proper.tyBuilder(KEY, new long[0]).build().getValue()).isEqualTo(new long[]{1, -2, Integer.MAX_VALUE});
+    assertThat(Proper.tyBuilder(KEY, new String[0]).build().getValue()).isEqualTo(new String[]{"1", "-2", "2147483647"});
+    assertThat(Proper.tyBuilder(KEY, new double[0]).build().getValue()).isEqualTo(new double[]{1, -2, Integer.MAX_VALUE});
+    assertThat(Proper.tyBuilder(KEY, new short[]{7}).build().getValue()).isEqualTo(new short[]{7});
+
+    System.setProperty(KEY, "2147483648");
+    assertThat(Proper.tyBuilder(KEY, new int[]{-1}).build().getValue()).isEqualTo(new int[]{-1});
+  }
+
+  @Test
+  public void repeatedReadsReuseParsedValue() {
+    Proper.Ty<List<String>> list = CollectionConvertersTest.<List<String>>collectionBuilder(List.class).build();
+    Proper.Ty<int[]> array = Proper.tyBuilder(KEY, new int[0]).build();
+    System.setProperty(KEY, "1,2,3");
+    assertThat(list.getValue()).isSameAs(list.getValue());
+    int[] first = array.getValue();
+    first[0] = 100;
+    assertThat(array.getValue()).isEqualTo(new int[]{1, 2, 3});
+
+    System.setProperty(KEY, "4");
+    assertThat(list.getValue()).isEqualTo(Collections.singletonList("4"));
+  }
+
+  @Test
+  public void failuresAreErrorCodesAndAreRemembered() {
+    Converter<int[]> converter = Converters.collectionConverter(int[].class,
+            ConverterProviders.defaultConverterProvider());
+    Proper.Info<int[]> info = new Proper.Info<>(KEY, int[].class, null, Collections.<String, Object>emptyMap());
+    Converter.Result<int[]> failed = converter.convert(KEY, "1, x", info);
+    assertThat(failed.isFailure()).isTrue();
+    assertThat(failed.getErrorCode()).isSameAs(ErrorCode.ELEMENT_CONVERSION_FAILED);
+    assertThat(converter.convert(KEY, "1, x", info)).isSameAs(failed);
+    assertThat(failed.getErrorMessage()).isEqualTo(ConversionException.couldNotConvertMessage("1, x", KEY, "int[]") +
+            ": element 1: " + ConversionException.couldNotConvertMessage("x", KEY, "int"));
+    assertThat(converter.convert(KEY, "1, 2", info).getValue()).isEqualTo(new int[]{1, 2});
+  }
+
+  @Test
+  public void mapEntriesWithoutSeparatorFail() {
+    final List<String> errors = new ArrayList<>();
+    Proper.Ty<Map<String, String>> prop = CollectionConvertersTest.<Map<String, String>>collectionBuilder(Map.class)
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+                errors.add(conversionError);
+              }
+            })
+            .build();
+    System.setProperty(KEY, "k1=1;k2");
+    assertThat(prop.getValue()).isNull();
+    assertThat(errors).containsExactly(ConversionException.couldNotConvertMessage("k1=1;k2", KEY, "java.util.Map") +
+            ": entry 1 has no '=' separator");
+  }
+
+  /**
+   * <p>Builder of a collection property, typed with the element types of the test.</p>
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> PropertyBuilder<T> collectionBuilder(Class<?> rawType) {
+    return (PropertyBuilder<T>) (PropertyBuilder) Proper.tyBuilder(KEY, rawType)
+            .converterProvider(ConverterProviders.defaultConverterProvider());
+  }
+}
@@ -99,6 +99,19 @@ public class ConverterProviderBuilderTest {
             .isEqualTo(Converter.Result.fail("fallback"));
   }
 
+  @Test
+  public void trivialChainsAreNotWrapped() {
+    Converter<Integer> intConverter = Converters.intConverter();
+    ConverterProvider cp = ConverterProviders.builder().add(intConverter).build();
+    assertThat(cp.getConverter(Integer.class)).isSameAs(intConverter);
+    assertThat(cp.getConverter(String.class)).isSameAs(Converters.<String>voidConverter());
+    ValidatorProvider vp = ValidatorProviders.builder().add(Validators.requiredKeyValidator()).build();
+    assertThat(vp.getValidator(Integer.class).beforeConversion("key", null, property("key", Integer.class)).isOk())
+            .isFalse();
+    assertThat(ValidatorProviders.builder().build().getValidator(Integer.class))
+            .isSameAs(Validators.<Integer>voidValidator());
+  }
+
   private static <T> Proper.Info<T> property(String key, Class<T> type) {
     return new Proper.Info<>(key, type, null, Collections.<String, Object>emptyMap());
   }
@@ -0,0 +1,104 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class InterpolatedSourceTest {
+  private final Map<String, String> properties = new HashMap<String, String>() {{
+    put("app.home", "/opt/app");
+    put("base.dir", "${app.home}/data");
+    put("cache.dir", "${base.dir}/cache");
+    put("log.dir", "${log.root:/var/log}/app");
+    put("tmp.dir", "${tmp.root}/app");
+    put("name", "app");
+  }};
+
+  @Test
+  public void placeholdersAreResolved() {
+    InterpolatedSource source = InterpolatedSource.of(properties);
+    assertThat(source.getProperty("base.dir")).isEqualTo("/opt/app/data");
+    assertThat(source.getProperty("cache.dir")).isEqualTo("/opt/app/data/cache");
+    assertThat(source.getProperty("log.dir")).isEqualTo("/var/log/app");
+    assertThat(source.getProperty("tmp.dir")).isEqualTo("${tmp.root}/app");
+    assertThat(source.getProperty("missing")).isNull();
+  }
+
+  @Test
+  public void onlyDependentsAreResolvedAgain() {
+    InterpolatedSource source = InterpolatedSource.of(properties);
+    properties.put("app.home", "/srv/app");
+    assertThat(source.update(properties)).containsOnly("app.home", "base.dir", "cache.dir");
+    assertThat(source.getProperty("cache.dir")).isEqualTo("/srv/app/data/cache");
+    assertThat(source.getProperty("name")).isEqualTo("app");
+
+    properties.put("log.root", "/logs");
+    assertThat(source.update(properties)).containsOnly("log.root", "log.dir");
+    assertThat(source.getProperty("log.dir")).isEqualTo("/logs/app");
+
+    properties.remove("log.root");
+    source.update(properties);
+    assertThat(source.getProperty("log.dir")).isEqualTo("/var/log/app");
+    assertThat(source.update(properties)).isEmpty();
+  }
+
+  @Test
+  public void cyclesAreRejected() {
+    InterpolatedSource source = InterpolatedSource.of(properties);
+    properties.put("app.home", "${cache.dir}");
+    try {
+      source.update(properties);
+      fail("Expected a cycle");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("app.home").contains("base.dir").contains("cache.dir");
+    }
+    assertThat(source.getProperty("base.dir")).isEqualTo("/opt/app/data");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void selfReferencesAreCycles() {
+    InterpolatedSource.of(Collections.singletonMap("a", "x${a}"));
+  }
+
+  @Test
+  public void profileSourcesInterpolate() {
+    ProfileSource source = ProfileSource.builder()
+            .layer("base", properties)
+            .layer("host", Collections.<String, String>emptyMap())
+            .interpolate()
+            .build();
+    assertThat(source.getProperty("cache.dir")).isEqualTo("/opt/app/data/cache");
+    source.setLayer("host", Collections.singletonMap("app.home", "/home/app"));
+    Proper.Ty<String> cacheDir = Proper.tyBuilder("cache.dir", "").propertySource(source).build();
+    assertThat(cacheDir.getValue()).isEqualTo("/home/app/data/cache");
+  }
+}
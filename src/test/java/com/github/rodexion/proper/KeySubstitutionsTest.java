@@ -0,0 +1,100 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class KeySubstitutionsTest {
+  @Test
+  public void noneHasSingleEmptyTuple() {
+    assertThat(KeySubstitutions.none().size()).isEqualTo(1);
+    assertThat(KeySubstitutions.none().get(0)).isEmpty();
+  }
+
+  @Test
+  public void productGeneratesAllCombinationsInOrder() {
+    KeySubstitutions subs = KeySubstitutions.product(Arrays.asList("a", "b", "a"), Arrays.asList(1, 2, 3));
+    assertThat(subs.size()).isEqualTo(6);
+    List<List<Object>> expected = new ArrayList<>();
+    for (String letter : Arrays.asList("a", "b")) {
+      for (int number = 1; number <= 3; number++) {
+        expected.add(Arrays.<Object>asList(letter, number));
+      }
+    }
+    assertThat(toList(subs.iterator(0, subs.size()))).isEqualTo(expected);
+  }
+
+  @Test
+  public void rangesMatchIndexedAccess() {
+    KeySubstitutions subs = KeySubstitutions.product(Arrays.asList(1, 2, 3), Arrays.asList(4, 5), Arrays.asList(6, 7, 8, 9));
+    for (long from = 0; from < subs.size(); from += 5) {
+      Iterator<Object[]> it = subs.iterator(from, Math.min(subs.size(), from + 5));
+      for (long i = from; it.hasNext(); i++) {
+        assertThat(it.next()).isEqualTo(subs.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void emptyValuesProduceNoTuples() {
+    KeySubstitutions subs = KeySubstitutions.product(Arrays.asList(1, 2), Collections.emptyList());
+    assertThat(subs.size()).isEqualTo(0);
+    assertThat(subs.iterator(0, 0).hasNext()).isFalse();
+  }
+
+  @Test
+  public void duplicateTuplesAreIgnored() {
+    KeySubstitutions subs = KeySubstitutions.tuples(Arrays.<Object[]>asList(
+            new String[]{"x", "1"}, new String[]{"y", "2"}, new String[]{"x", "1"}));
+    assertThat(subs.size()).isEqualTo(2);
+    assertThat(subs.get(0)).isEqualTo(new Object[]{"x", "1"});
+    assertThat(subs.get(1)).isEqualTo(new Object[]{"y", "2"});
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void tooManyCombinationsAreRejected() {
+    List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 1 << 16; i++) {
+      values.add(i);
+    }
+    KeySubstitutions.product(values, values, values, values);
+  }
+
+  private static List<List<Object>> toList(Iterator<Object[]> it) {
+    List<List<Object>> list = new ArrayList<>();
+    while (it.hasNext()) {
+      list.add(Arrays.asList(it.next()));
+    }
+    return list;
+  }
+}
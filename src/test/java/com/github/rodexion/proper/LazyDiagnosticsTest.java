@@ -0,0 +1,183 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class LazyDiagnosticsTest {
+  private static final String KEY = "test.lazy.diagnostics";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  @Test
+  public void errorMessagesAreFormattedOnDemandOnlyOnce() {
+    CountingErrorCode code = new CountingErrorCode();
+    Validator.Result result = Validator.Result.fail(code, 5);
+    assertThat(code.formatted).isEqualTo(0);
+    assertThat(result.getErrorCode()).isSameAs(code);
+    assertThat(result.getErrorArgs()).containsOnly(5);
+    assertThat(result.getErrorMessage()).isEqualTo("counted 5");
+    assertThat(result.getErrorMessage()).isEqualTo("counted 5");
+    assertThat(code.formatted).isEqualTo(1);
+
+    Converter.Result<Integer> conversion = Converter.Result.fail(code, 6);
+    assertThat(conversion.isFailure()).isTrue();
+    assertThat(code.formatted).isEqualTo(1);
+    assertThat(conversion.getErrorMessage()).isEqualTo("counted 6");
+  }
+
+  @Test
+  public void preformattedMessagesAreKept() {
+    assertThat(Validator.Result.fail("message").getErrorCode()).isSameAs(ErrorCode.MESSAGE);
+    assertThat(Validator.Result.fail("message").getErrorMessage()).isEqualTo("message");
+    assertThat(Converter.Result.fail("message")).isEqualTo(Converter.Result.fail(ErrorCode.MESSAGE, "message"));
+    assertThat(Validator.Result.ok().getErrorCode()).isNull();
+    assertThat(Converter.Result.ok(1).getErrorMessage()).isNull();
+  }
+
+  @Test
+  public void listenersWantingDetailsGetFormattedMessages() {
+    RecordingListener listener = new RecordingListener(true);
+    Proper.Ty<Integer> prop = property(listener);
+    System.setProperty(KEY, "x");
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.setProperty(KEY, "20");
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.clearProperty(KEY);
+    assertThat(prop.getValue()).isEqualTo(1);
+    assertThat(listener.errors).containsExactly(
+            ConversionException.couldNotConvertMessage("x", KEY, "int"),
+            "20 is greater than 10",
+            "Required property '" + KEY + "' was not found.");
+  }
+
+  @Test
+  public void plainListenersGetFormattedMessages() {
+    final List<String> errors = new ArrayList<>();
+    Proper.Ty<Integer> prop = property(new PropertyListener() {
+      @Override
+      public void notFound(String key, Proper.Info<?> info) {
+      }
+
+      @Override
+      public void validationBeforeConversionFailed(String key, String value, String validationError, Proper.Info<?> info) {
+      }
+
+      @Override
+      public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+        errors.add(conversionError);
+      }
+
+      @Override
+      public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+      }
+
+      @Override
+      public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+      }
+    });
+    System.setProperty(KEY, "x");
+    assertThat(prop.getValue()).isEqualTo(1);
+    assertThat(errors).containsExactly(ConversionException.couldNotConvertMessage("x", KEY, "int"));
+  }
+
+  @Test
+  public void listenersNotWantingDetailsGetErrorCodes() {
+    RecordingListener listener = new RecordingListener(false);
+    Proper.Ty<Integer> prop = property(listener);
+    System.setProperty(KEY, "x");
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.setProperty(KEY, "20");
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.clearProperty(KEY);
+    assertThat(prop.getValue()).isEqualTo(1);
+    assertThat(listener.errors).containsExactly(
+            ErrorCode.CONVERSION_FAILED.getName(),
+            ErrorCode.GREATER_THAN_MAX.getName(),
+            ErrorCode.REQUIRED_PROPERTY_MISSING.getName());
+    assertThat(((FailureDetailsListener) PropertyListeners.voidListener()).wantsFailureDetails()).isFalse();
+  }
+
+  private static Proper.Ty<Integer> property(PropertyListener listener) {
+    return Proper.tyBuilder(KEY, 1)
+            .validatorProvider(ValidatorProviders.builder()
+                    .add(Validators.<Integer>comparableValidatorBuilder().max(10).build())
+                    .add(Validators.requiredKeyValidator())
+                    .build())
+            .propertyListener(listener)
+            .build();
+  }
+
+  private static class CountingErrorCode extends ErrorCode {
+    int formatted;
+
+    CountingErrorCode() {
+      super("counting");
+    }
+
+    @Override
+    public String format(Object[] args) {
+      formatted++;
+      return "counted " + args[0];
+    }
+  }
+
+  private static class RecordingListener extends PropertyListeners.BasePropertyListener {
+    private final boolean wantsFailureDetails;
+    final List<String> errors = new ArrayList<>();
+
+    RecordingListener(boolean wantsFailureDetails) {
+      this.wantsFailureDetails = wantsFailureDetails;
+    }
+
+    @Override
+    public void validationBeforeConversionFailed(String key, String value, String validationError, Proper.Info<?> info) {
+      errors.add(validationError);
+    }
+
+    @Override
+    public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+      errors.add(conversionError);
+    }
+
+    @Override
+    public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+      errors.add(validationError);
+    }
+
+    @Override
+    public boolean wantsFailureDetails() {
+      return wantsFailureDetails;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PatternValidatorsTest {
+  private static final String KEY = "test.pattern";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  @Test
+  public void patternValidator() {
+    Validator<String> validator = Validators.patternValidator("[a-z]+(\\.[a-z]+)*");
+    assertThat(validate(validator, "example.com").isOk()).isTrue();
+    assertThat(validate(validator, null).isOk()).isTrue();
+    Validator.Result result = validate(validator, "example.com:80");
+    assertThat(result.getErrorCode()).isSameAs(ErrorCode.PATTERN_MISMATCH);
+    assertThat(result.getErrorMessage()).isEqualTo("'example.com:80' does not match pattern '[a-z]+(\\.[a-z]+)*'");
+    //Partial matches are mismatches
+    assertThat(validate(Validators.<String>patternValidator(Pattern.compile("[a-z]")), "ab").isOk()).isFalse();
+  }
+
+  @Test
+  public void patternsAreCompiledOnce() {
+    String regex = "test-[0-9]+-" + System.nanoTime();
+    assertThat(PatternValidators.compile(regex)).isSameAs(PatternValidators.compile(regex));
+    for (int i = 0; i < PatternValidators.PATTERN_CACHE_SIZE * 2; i++) {
+      PatternValidators.compile("test-" + i);
+    }
+    assertThat(PatternValidators.cachedPatternCount()).isEqualTo(PatternValidators.PATTERN_CACHE_SIZE);
+  }
+
+  @Test
+  public void lengthValidator() {
+    Validator<String> validator = Validators.lengthValidator(2, 4);
+    assertThat(validate(validator, "ab").isOk()).isTrue();
+    assertThat(validate(validator, "abcd").isOk()).isTrue();
+    assertThat(validate(validator, "a").getErrorMessage()).isEqualTo("Length 1 of 'a' is not between 2 and 4");
+    assertThat(validate(validator, "abcde").getErrorCode()).isSameAs(ErrorCode.LENGTH_OUT_OF_RANGE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidLengthBounds() {
+    Validators.lengthValidator(3, 2);
+  }
+
+  @Test
+  public void charsetValidator() {
+    Validator<String> validator = Validators.charsetValidator("a-z0-9.-");
+    assertThat(validate(validator, "my-host.example1").isOk()).isTrue();
+    Validator.Result result = validate(validator, "my_host");
+    assertThat(result.getErrorCode()).isSameAs(ErrorCode.DISALLOWED_CHARACTER);
+    assertThat(result.getErrorMessage()).isEqualTo("Character '_' at index 2 of 'my_host' is not allowed");
+    assertThat(validate(validator, "Host").isOk()).isFalse();
+
+    Validator<String> unicode = Validators.charsetValidator("a-z\u00e0-\u00ff");
+    assertThat(validate(unicode, "caf\u00e9").isOk()).isTrue();
+    assertThat(validate(unicode, "\u0100").isOk()).isFalse();
+  }
+
+  @Test
+  public void rawValuesAreValidatedBeforeConversion() {
+    Proper.Ty<Integer> prop = Proper.tyBuilder(KEY, 1)
+            .validator(Validators.<Integer>patternValidator("[0-9]{1,3}"))
+            .build();
+    System.setProperty(KEY, "123");
+    assertThat(prop.getValue()).isEqualTo(123);
+    System.setProperty(KEY, "1234");
+    assertThat(prop.getValue()).isEqualTo(1);
+  }
+
+  private static Validator.Result validate(Validator<String> validator, String value) {
+    return validator.beforeConversion(KEY, value,
+            new Proper.Info<>(KEY, String.class, null, Collections.<String, Object>emptyMap()));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class ProfileSourceTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void laterLayersOverrideEarlierOnes() throws Exception {
+    File base = write("base.properties", "pool.size", "10", "pool.timeout", "30");
+    ProfileSource source = ProfileSource.builder()
+            .layer("base", base)
+            .layer("prod", new File(folder.getRoot(), "missing.properties"))
+            .layer("host", Collections.singletonMap("pool.size", "20"))
+            .build();
+    assertThat(source.getProperty("pool.size")).isEqualTo("20");
+    assertThat(source.getProperty("pool.timeout")).isEqualTo("30");
+    assertThat(source.getProperty("pool.name")).isNull();
+    assertThat(source.getProperties()).hasSize(2);
+  }
+
+  @Test
+  public void onlyChangedLayersTriggerMerges() throws Exception {
+    File base = write("base.properties", "pool.size", "10");
+    ProfileSource source = ProfileSource.builder()
+            .layer("base", base)
+            .layer("host", new HashMap<String, String>())
+            .build();
+    Map<String, String> merged = source.getProperties();
+    assertThat(source.reload()).isFalse();
+    assertThat(source.getProperties()).isSameAs(merged);
+
+    write("base.properties", "pool.size", "100", "pool.timeout", "5");
+    assertThat(source.reload()).isTrue();
+    assertThat(source.getProperty("pool.size")).isEqualTo("100");
+
+    source.setLayer("host", Collections.singletonMap("pool.timeout", "7"));
+    assertThat(source.getProperty("pool.timeout")).isEqualTo("7");
+    assertThat(source.reload()).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void onlyMapLayersCanBeSet() throws Exception {
+    ProfileSource.builder()
+            .layer("base", write("base.properties", "pool.size", "10"))
+            .build()
+            .setLayer("base", Collections.<String, String>emptyMap());
+  }
+
+  @Test
+  public void propertiesReadFromProfiles() {
+    Proper.Ty<Integer> size = Proper.tyBuilder("pool.size", 1)
+            .propertySource(ProfileSource.builder()
+                    .layer("base", Collections.singletonMap("pool.size", "10"))
+                    .build())
+            .build();
+    assertThat(size.getValue()).isEqualTo(10);
+  }
+
+  private File write(String name, String... keyValues) throws IOException {
+    Properties properties = new Properties();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      properties.setProperty(keyValues[i], keyValues[i + 1]);
+    }
+    File file = new File(folder.getRoot(), name);
+    try (OutputStream out = new FileOutputStream(file)) {
+      properties.store(out, null);
+    }
+    return file;
+  }
+}
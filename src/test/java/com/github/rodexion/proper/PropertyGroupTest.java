@@ -0,0 +1,105 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertyGroupTest {
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp("test.pool.orders.size", "test.pool.users.size",
+          "test.pool.users.timeout", "test.poolx.size");
+
+  @Test
+  public void keysUnderPrefixAreResolved() {
+    System.setProperty("test.pool.orders.size", "10");
+    System.setProperty("test.pool.users.size", "4");
+    System.setProperty("test.pool.users.timeout", "30");
+    System.setProperty("test.poolx.size", "1");
+    PropertySources.reloadSystemProperties();
+    PropertyGroup<Integer> sizes = Proper.groupBuilder("test.pool.", Integer.class).suffix(".size").build();
+    assertThat(sizes.getValues()).hasSize(2).containsKey("orders").containsKey("users");
+    assertThat(sizes.getValues().get("orders")).isEqualTo(10);
+
+    PropertyGroup<Integer> all = Proper.groupBuilder("test.pool.", Integer.class).build();
+    assertThat(all.getValues().keySet()).containsExactly("orders.size", "users.size", "users.timeout");
+  }
+
+  @Test
+  public void valuesAreCachedUntilKeysUnderPrefixChange() {
+    System.setProperty("test.pool.orders.size", "10");
+    PropertySources.reloadSystemProperties();
+    PropertyGroup<Integer> sizes = Proper.groupBuilder("test.pool.", Integer.class).suffix(".size").build();
+    Map<String, Integer> values = sizes.getValues();
+    assertThat(sizes.getValues()).isSameAs(values);
+    System.setProperty("test.poolx.size", "1");
+    PropertySources.reloadSystemProperties();
+    assertThat(sizes.getValues()).isSameAs(values);
+
+    System.setProperty("test.pool.orders.size", "20");
+    assertThat(sizes.getValues()).isSameAs(values);
+    PropertySources.reloadSystemProperties();
+    assertThat(sizes.getValues()).isNotSameAs(values);
+    assertThat(sizes.getValues().get("orders")).isEqualTo(20);
+  }
+
+  @Test
+  public void invalidValuesAreLeftOut() {
+    final List<String> failures = new ArrayList<>();
+    PropertyGroup<Integer> sizes = Proper.groupBuilder("pool.", Integer.class)
+            .suffix(".size")
+            .validator(Validators.<Integer>comparableValidatorBuilder().max(100).build())
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+                failures.add(key);
+              }
+
+              @Override
+              public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+                failures.add(key);
+              }
+            })
+            .propertySource(ProfileSource.builder()
+                    .layer("base", new HashMap<String, String>() {{
+                      put("pool.a.size", "1");
+                      put("pool.b.size", "x");
+                      put("pool.c.size", "1000");
+                    }})
+                    .build())
+            .build();
+    assertThat(sizes.getValues()).isEqualTo(Collections.singletonMap("a", 1));
+    assertThat(failures).containsOnly("pool.b.size", "pool.c.size");
+  }
+}
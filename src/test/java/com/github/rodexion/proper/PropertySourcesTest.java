@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertySourcesTest {
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp("db.pool.max-size");
+
+  private final Map<String, String> variables = new HashMap<String, String>() {{
+    put("DB_POOL_MAX_SIZE", "20");
+    put("db_pool_min_size", "2");
+    put("PATH", "/bin");
+  }};
+
+  @Test
+  public void relaxedNamesAreMatched() {
+    PropertySource source = PropertySources.relaxed(variables);
+    assertThat(source.getProperty("db.pool.max-size")).isEqualTo("20");
+    assertThat(source.getProperty("DB.POOL.MAX_SIZE")).isEqualTo("20");
+    assertThat(source.getProperty("db.pool.min-size")).isEqualTo("2");
+    assertThat(source.getProperty("path")).isEqualTo("/bin");
+    assertThat(source.getProperty("db.pool.size")).isNull();
+    //Remembered lookups
+    assertThat(source.getProperty("db.pool.max-size")).isEqualTo("20");
+    assertThat(source.getProperty("db.pool.size")).isNull();
+  }
+
+  @Test
+  public void normalizedNamesWinOverOtherSpellings() {
+    variables.put("db.pool.max-size", "30");
+    assertThat(PropertySources.relaxed(variables).getProperty("db.pool.max-size")).isEqualTo("20");
+  }
+
+  @Test
+  public void sourcesAreStackedByPrecedence() {
+    Proper.Ty<Integer> maxSize = Proper.tyBuilder("db.pool.max-size", 10)
+            .propertySource(PropertySources.firstOf(PropertySources.systemProperties(),
+                    PropertySources.relaxed(variables)))
+            .build();
+    assertThat(maxSize.getValue()).isEqualTo(20);
+    System.setProperty("db.pool.max-size", "40");
+    assertThat(maxSize.getValue()).isEqualTo(40);
+    System.clearProperty("db.pool.max-size");
+    assertThat(maxSize.getValue()).isEqualTo(20);
+  }
+
+  @Test
+  public void systemPropertiesAreTheDefaultSource() {
+    Proper.Ty<Integer> maxSize = Proper.tyBuilder("db.pool.max-size", 10).build();
+    assertThat(maxSize.getValue()).isEqualTo(10);
+    System.setProperty("db.pool.max-size", "40");
+    assertThat(maxSize.getValue()).isEqualTo(40);
+  }
+
+  @Test
+  public void listedSystemPropertiesAreReloadedExplicitly() {
+    EnumerablePropertySource source = PropertySources.systemProperties();
+    PropertySources.reloadSystemProperties();
+    Map<String, String> properties = source.getProperties();
+    assertThat(source.getProperties()).isSameAs(properties);
+    PropertySources.reloadSystemProperties();
+    assertThat(source.getProperties()).isSameAs(properties);
+
+    System.setProperty("db.pool.max-size", "40");
+    assertThat(source.getProperty("db.pool.max-size")).isEqualTo("40");
+    assertThat(source.getProperties()).isSameAs(properties).doesNotContain(entry("db.pool.max-size", "40"));
+    PropertySources.reloadSystemProperties();
+    assertThat(source.getProperties()).contains(entry("db.pool.max-size", "40"));
+  }
+
+  @Test
+  public void directlyConstructedPropertiesReadSystemProperties() {
+    LazyValue<Integer> maxSize = new Proper.Ty<>(
+            new Proper.Info<>("db.pool.max-size", Integer.class, 10, Collections.<String, Object>emptyMap()),
+            Converters.intConverter(), Validators.<Integer>voidValidator(), PropertyListeners.voidListener());
+    assertThat(maxSize.getValue()).isEqualTo(10);
+    System.setProperty("db.pool.max-size", "40");
+    assertThat(maxSize.getValue()).isEqualTo(40);
+  }
+
+  @Test
+  public void environmentIsRead() {
+    Map.Entry<String, String> variable = System.getenv().entrySet().iterator().next();
+    assertThat(PropertySources.environment().getProperty(variable.getKey().toLowerCase().replace('_', '.')))
+            .isNotNull();
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertyStoreTest {
+  private final PropertyStore store = new PropertyStore(Collections.singletonMap("pool.name", "main"));
+  private final Proper.Ty<Integer> minSize = Proper.tyBuilder("pool.min", 1)
+          .validator(Validators.<Integer>comparableValidatorBuilder().min(0).build())
+          .propertySource(store)
+          .build();
+  private final Proper.Ty<Integer> maxSize = Proper.tyBuilder("pool.{0}.max", 10)
+          .propertySource(store)
+          .build();
+
+  @Test
+  public void commitsArePublishedAtOnce() {
+    final List<PropertyStore.Batch> batches = new ArrayList<>();
+    store.addListener(new PropertyStore.Listener() {
+      @Override
+      public void committed(PropertyStore.Batch batch) {
+        batches.add(batch);
+      }
+    });
+    PropertyStore.Transaction transaction = store.begin()
+            .set(minSize, "4")
+            .set(maxSize, "16", "orders")
+            .remove("pool.name");
+    assertThat(minSize.getValue()).isEqualTo(1);
+    assertThat(store.getEpoch()).isEqualTo(0);
+
+    assertThat(transaction.commit()).isEqualTo(1);
+    assertThat(minSize.getValue()).isEqualTo(4);
+    assertThat(maxSize.getValue("orders")).isEqualTo(16);
+    assertThat(store.getProperty("pool.name")).isNull();
+    assertThat(batches).hasSize(1);
+    assertThat(batches.get(0).getEpoch()).isEqualTo(1);
+    assertThat(batches.get(0).getChanges()).hasSize(3).containsKey("pool.orders.max");
+  }
+
+  @Test
+  public void invalidValuesRejectTheWholeTransaction() {
+    try {
+      store.begin()
+              .set(minSize, "-1")
+              .set(maxSize, "ten", "orders")
+              .set("pool.name", "other")
+              .commit();
+      fail("Expected validation failure");
+    } catch (ValidationException e) {
+      assertThat(e.getErrors().keySet()).containsOnly("pool.min", "pool.orders.max");
+    }
+    assertThat(store.getEpoch()).isEqualTo(0);
+    assertThat(store.getProperty("pool.name")).isEqualTo("main");
+  }
+
+  @Test
+  public void unchangedValuesDoNotBumpTheEpoch() {
+    assertThat(store.begin().set("pool.name", "main").commit()).isEqualTo(0);
+    assertThat(store.begin().set("pool.name", "other").commit()).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void transactionsAreCommittedOnce() {
+    PropertyStore.Transaction transaction = store.begin().set("a", "b");
+    transaction.commit();
+    transaction.commit();
+  }
+
+  @Test
+  public void absentKeysSkipTheLookup() {
+    final List<String> notFound = new ArrayList<>();
+    Proper.Ty<Integer> limit = Proper.tyBuilder("tenant.{0}.limit", 5)
+            .propertySource(store)
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void notFound(String key, Proper.Info<?> info) {
+                notFound.add(key);
+              }
+            })
+            .build();
+    assertThat(limit.getValue("a")).isEqualTo(5);
+    assertThat(store.mightContain("tenant.a.limit")).isFalse();
+
+    PropertyStore.Transaction transaction = store.begin();
+    for (int i = 0; i < 1000; i++) {
+      transaction.set(limit, String.valueOf(i), "t" + i);
+    }
+    transaction.set(limit, "7", "a").commit();
+    assertThat(limit.getValue("a")).isEqualTo(7);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(store.mightContain("tenant.t" + i + ".limit")).isTrue();
+    }
+    int skipped = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (!store.mightContain("tenant.x" + i + ".limit")) {
+        skipped++;
+      }
+    }
+    assertThat(skipped).isGreaterThan(900);
+    assertThat(limit.getValue("x0")).isEqualTo(5);
+    assertThat(notFound.size()).isLessThanOrEqualTo(1);
+  }
+
+  @Test
+  public void absentRequiredKeysAreStillValidated() {
+    final List<String> failures = new ArrayList<>();
+    Proper.Ty<Integer> limit = Proper.tyBuilder("tenant.{0}.limit", 5)
+            .propertySource(store)
+            .validator(Validators.<Integer>requiredKeyValidator())
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void validationBeforeConversionFailed(String key, String value, String validationError,
+                                                           Proper.Info<?> info) {
+                failures.add(key);
+              }
+            })
+            .build();
+    assertThat(store.mightContain("tenant.a.limit")).isFalse();
+    assertThat(limit.getValue("a")).isEqualTo(5);
+    assertThat(failures).containsExactly("tenant.a.limit");
+
+    store.begin().set(limit, "7", "a").commit();
+    assertThat(limit.getValue("a")).isEqualTo(7);
+    assertThat(failures).containsExactly("tenant.a.limit");
+  }
+
+  @Test
+  public void groupsSeeCommittedProperties() {
+    PropertyGroup<Integer> maxSizes = Proper.groupBuilder("pool.", Integer.class)
+            .suffix(".max")
+            .propertySource(store)
+            .build();
+    assertThat(maxSizes.getValues()).isEmpty();
+    store.begin().set(maxSize, "16", "orders").set(maxSize, "8", "users").commit();
+    assertThat(maxSizes.getValues()).hasSize(2);
+  }
+}
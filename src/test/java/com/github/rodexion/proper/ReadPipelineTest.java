@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Makes sure void stages are left out of the read path, that the others are kept,
+ * and that listeners other than the bound one are still called.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class ReadPipelineTest {
+  private static final String KEY = "test.read.pipeline";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  @Test
+  public void voidStagesAreNeverCalled() {
+    Proper.Ty<String> prop = Proper.tyBuilder(KEY, String.class).build();
+    ReadPipeline<String> pipeline = prop.getPipeline();
+    assertThat(pipeline.isValidated()).isFalse();
+    assertThat(pipeline.isConverting()).isFalse();
+    assertThat(prop.getPropertyListener()).isSameAs(PropertyListeners.voidListener());
+
+    assertThat(prop.getValue()).isNull();
+    System.setProperty(KEY, "value");
+    assertThat(prop.getValue()).isEqualTo("value");
+  }
+
+  @Test
+  public void voidStagesAreDetectedWhenChainsAreEmpty() {
+    Proper.Ty<String> prop = Proper.tyBuilder(KEY, String.class)
+            .converterProvider(ConverterProviders.builder().build())
+            .validatorProvider(ValidatorProviders.builder().build())
+            .build();
+    assertThat(prop.getPipeline().isValidated()).isFalse();
+    assertThat(prop.getPipeline().isConverting()).isFalse();
+  }
+
+  @Test
+  public void stagesWhichAreNotVoidAreCalled() {
+    final List<String> calls = new ArrayList<>();
+    Proper.Ty<String> prop = Proper.tyBuilder(KEY, String.class)
+            .converter(new Converter<String>() {
+              @Override
+              public boolean canConvert(Class<?> type) {
+                return String.class.equals(type);
+              }
+
+              @Override
+              public Result<String> convert(String key, String value, Proper.Info<String> info) {
+                calls.add("convert");
+                return Result.ok(value.toUpperCase());
+              }
+            })
+            .validator(new Validators.BaseValidator<String>(String.class) {
+              @Override
+              public Result beforeConversion(String key, String value, Proper.Info<String> info) {
+                calls.add("beforeConversion");
+                return ok();
+              }
+
+              @Override
+              public Result afterConversion(String key, String value, Proper.Info<String> info) {
+                calls.add("afterConversion");
+                return ok();
+              }
+            })
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+                calls.add("success");
+              }
+            })
+            .build();
+    assertThat(prop.getPipeline().isValidated()).isTrue();
+    assertThat(prop.getPipeline().isConverting()).isTrue();
+
+    System.setProperty(KEY, "value");
+    assertThat(prop.getValue()).isEqualTo("VALUE");
+    assertThat(calls).containsExactly("beforeConversion", "convert", "afterConversion", "success");
+  }
+
+  @Test
+  public void explicitListenersAreCalledInsteadOfTheBoundOne() {
+    final List<String> calls = new ArrayList<>();
+    Proper.Ty<Integer> prop = Proper.tyBuilder(KEY, 1)
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+                calls.add("bound " + value);
+              }
+            })
+            .build();
+    System.setProperty(KEY, "one");
+    assertThat(prop.getValue()).isEqualTo(1);
+    assertThat(prop.getValue(new PropertyListeners.BasePropertyListener() {
+      @Override
+      public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+        calls.add("explicit " + value);
+      }
+    })).isEqualTo(1);
+    assertThat(prop.getValue(PropertyListeners.voidListener())).isEqualTo(1);
+    assertThat(calls).containsExactly("bound one", "explicit one");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void stageExceptionsAreNotWrapped() {
+    Proper.Ty<String> prop = Proper.tyBuilder(KEY, String.class)
+            .validator(new Validators.BaseValidator<String>(String.class) {
+              @Override
+              public Result beforeConversion(String key, String value, Proper.Info<String> info) {
+                throw new IllegalStateException("broken");
+              }
+            })
+            .build();
+    prop.getValue();
+  }
+}
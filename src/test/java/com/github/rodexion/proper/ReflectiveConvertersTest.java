@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.net.URI;
+import java.util.Collections;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class ReflectiveConvertersTest {
+  private static final String KEY = "test.reflective";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  @Test
+  public void factoriesAreFoundInOrderOfPreference() {
+    assertThat(convert(ValueOfAndConstructor.class, "a").source).isEqualTo("valueOf");
+    assertThat(convert(ParseOnly.class, "b").value).isEqualTo("b");
+    assertThat(convert(OfOnly.class, "c").value).isEqualTo("c");
+    assertThat(convert(ConstructorOnly.class, "d").value).isEqualTo("d");
+    assertThat(convert(Boolean.class, "true")).isTrue();
+    assertThat(convert(StringBuilder.class, "e").toString()).isEqualTo("e");
+  }
+
+  @Test
+  public void inaccessibleFactoriesAreSkipped() {
+    assertThat(convert(InheritedFactory.class, "f").source).isEqualTo("constructor");
+  }
+
+  @Test
+  public void typesWithoutUsableFactoryAreSkipped() {
+    assertThat(Converters.reflectiveConverter(NoFactory.class).canConvert(NoFactory.class)).isFalse();
+    assertThat(Converters.reflectiveConverter(WrongReturnType.class).canConvert(WrongReturnType.class)).isFalse();
+    assertThat(Converters.reflectiveConverter(int.class).canConvert(int.class)).isFalse();
+    assertThat(Converters.reflectiveConverter(Runnable.class).canConvert(Runnable.class)).isFalse();
+  }
+
+  @Test
+  public void factoryExceptionsAreConversionFailures() {
+    Converter.Result<Integer> result = Converters.reflectiveConverter(Integer.class)
+            .convert(KEY, "x", info(Integer.class));
+    assertThat(result.isFailure()).isTrue();
+    assertThat(result.getErrorCode()).isSameAs(ErrorCode.CONVERSION_FAILED);
+    //Checked exception
+    assertThat(Converters.reflectiveConverter(URI.class).convert(KEY, "a b", info(URI.class)).isFailure()).isTrue();
+  }
+
+  @Test
+  public void providerCachesConvertersPerType() {
+    ConverterProvider provider = ConverterProviders.reflectiveConverterProvider();
+    assertThat(provider.getConverter(OfOnly.class)).isSameAs(provider.getConverter(OfOnly.class));
+    assertThat(provider.getConverter(NoFactory.class).canConvert(NoFactory.class)).isFalse();
+  }
+
+  @Test
+  public void propertiesUseReflectiveConverters() {
+    Proper.Ty<OfOnly> prop = Proper.tyBuilder(KEY, new OfOnly("default"))
+            .converterProvider(ConverterProviders.builder()
+                    .allFrom(ConverterProviders.defaultConverterProvider())
+                    .allFrom(ConverterProviders.reflectiveConverterProvider())
+                    .build())
+            .build();
+    assertThat(prop.getValue().value).isEqualTo("default");
+    System.setProperty(KEY, "set");
+    assertThat(prop.getValue().value).isEqualTo("set");
+  }
+
+  private static <T> T convert(Class<T> type, String value) {
+    Converter.Result<T> result = Converters.reflectiveConverter(type).convert(KEY, value, info(type));
+    assertThat(result.isOk()).isTrue();
+    return result.getValue();
+  }
+
+  private static <T> Proper.Info<T> info(Class<T> type) {
+    return new Proper.Info<>(KEY, type, null, Collections.<String, Object>emptyMap());
+  }
+
+  public static class ValueOfAndConstructor {
+    final String source;
+
+    public ValueOfAndConstructor(String value) {
+      this.source = "constructor";
+    }
+
+    private ValueOfAndConstructor() {
+      this.source = "valueOf";
+    }
+
+    public static ValueOfAndConstructor valueOf(String value) {
+      return new ValueOfAndConstructor();
+    }
+  }
+
+  static class HiddenFactory {
+    public static InheritedFactory valueOf(String value) {
+      return new InheritedFactory("valueOf");
+    }
+  }
+
+  /**
+   * <p>Public <code>valueOf</code>, but declared by a non-public class</p>
+   */
+  public static class InheritedFactory extends HiddenFactory {
+    final String source;
+
+    public InheritedFactory(String value) {
+      this.source = "valueOf".equals(value) ? value : "constructor";
+    }
+  }
+
+  public static class ParseOnly {
+    final String value;
+
+    private ParseOnly(String value) {
+      this.value = value;
+    }
+
+    public static ParseOnly parse(CharSequence value) {
+      return new ParseOnly(value.toString());
+    }
+  }
+
+  public static class OfOnly {
+    final String value;
+
+    OfOnly(String value) {
+      this.value = value;
+    }
+
+    public static OfOnly of(String value) {
+      return new OfOnly(value);
+    }
+  }
+
+  public static class ConstructorOnly {
+    final String value;
+
+    public ConstructorOnly(String value) {
+      this.value = value;
+    }
+  }
+
+  public static class NoFactory {
+    NoFactory(String value) {
+    }
+  }
+
+  public static class WrongReturnType {
+    public static String valueOf(String value) {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.github.rodexion.proper.util.Opt;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+
+/**
+ * <p>Makes sure reads of properties with cached conversions do not allocate
+ * in the steady state, by measuring bytes allocated by the current thread.</p>
+ *
+ * @author rodexion
+ * @since 0.1
+ */
+public class ZeroAllocationTest {
+  private static final String KEY = "test.zero.alloc";
+  private static final int WARMUP_READS = 200_000;
+  private static final int MEASURED_READS = 1_000_000;
+  /**
+   * <p>Allowance for one-off allocations unrelated to the reads themselves, e.g. on JIT
+   * deoptimization. Allocating even a single object per read would exceed it by far.</p>
+   */
+  private static final long ALLOWED_BYTES = 64 * 1024;
+
+  enum TestEnum {
+    One, Two, Three
+  }
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY, KEY + ".dyn");
+
+  private com.sun.management.ThreadMXBean threadBean;
+  private Object sink;
+
+  @Before
+  public void setUp() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  public void optOfNullDoesNotAllocate() {
+    assertThat(Opt.of(null)).isSameAs(Opt.none());
+    assertThat(Validator.Result.ok()).isSameAs(Validator.Result.ok());
+    assertThat(Converter.Result.skip()).isSameAs(Converter.Result.skip());
+  }
+
+  @Test
+  public void cachedReadsOfAllDefaultTypesDoNotAllocate() {
+    checkNoAllocation(String.class, "some string");
+    checkNoAllocation(Byte.class, "12");
+    checkNoAllocation(byte.class, "12");
+    checkNoAllocation(Short.class, "1234");
+    checkNoAllocation(short.class, "1234");
+    checkNoAllocation(Integer.class, " 123456 ");
+    checkNoAllocation(int.class, " 123456 ");
+    checkNoAllocation(Long.class, "1234567890123");
+    checkNoAllocation(long.class, "1234567890123");
+    checkNoAllocation(Float.class, "123.5");
+    checkNoAllocation(float.class, "123.5");
+    checkNoAllocation(Double.class, "-123.25");
+    checkNoAllocation(double.class, "-123.25");
+    checkNoAllocation(Character.class, "x");
+    checkNoAllocation(char.class, "x");
+    checkNoAllocation(BigDecimal.class, "1234567890.0987654321");
+    checkNoAllocation(BigInteger.class, "12345678909876543210");
+    checkNoAllocation(File.class, "/tmp/some/file");
+    checkNoAllocation(Path.class, "/tmp/some/file");
+    checkNoAllocation(TestEnum.class, "two");
+  }
+
+  @Test
+  public void cachedReadsWithValidatorsAndListenersDoNotAllocate() {
+    System.setProperty(KEY, "500");
+    final Proper.Ty<Integer> prop = Proper.tyBuilder(KEY, 1)
+            .cacheConversions(true)
+            .validatorProvider(ValidatorProviders.builder()
+                    .add(Validators.<Integer>comparableValidatorBuilder().min(0).max(1000).build())
+                    .add(Validators.requiredKeyValidator())
+                    .build())
+            .propertyListener(new PropertyListeners.BasePropertyListener())
+            .build();
+    assertThat(prop.getValue()).isEqualTo(500);
+    assertNoAllocation(new Runnable() {
+      @Override
+      public void run() {
+        sink = prop.getValue();
+      }
+    });
+  }
+
+  @Test
+  public void changedValuesAreConvertedAgain() {
+    Proper.Ty<Integer> prop = Proper.tyBuilder(KEY, 1).cacheConversions(true).build();
+    System.setProperty(KEY, "2");
+    assertThat(prop.getValue()).isEqualTo(2);
+    System.setProperty(KEY, "3");
+    assertThat(prop.getValue()).isEqualTo(3);
+    System.setProperty(KEY, "x");
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.clearProperty(KEY);
+    assertThat(prop.getValue()).isEqualTo(1);
+    System.setProperty(KEY, "3");
+    assertThat(prop.getValue()).isEqualTo(3);
+
+    Proper.Ty<Integer> dynamicProp = Proper.tyBuilder(KEY + ".{0}", 1).cacheConversions(true).build();
+    System.setProperty(KEY + ".dyn", "3");
+    assertThat(dynamicProp.getValue("dyn")).isEqualTo(3);
+    assertThat(dynamicProp.getValue("other")).isEqualTo(1);
+  }
+
+  private <T> void checkNoAllocation(Class<T> type, String value) {
+    System.setProperty(KEY, value);
+    final Proper.Ty<T> prop = Proper.tyBuilder(KEY, type)
+            .converterProvider(ConverterProviders.defaultConverterProvider())
+            .cacheConversions(true)
+            .build();
+    assertThat(prop.getValue()).as(type.getName()).isNotNull();
+    assertNoAllocation(new Runnable() {
+      @Override
+      public void run() {
+        sink = prop.getValue();
+      }
+    });
+  }
+
+  private void assertNoAllocation(Runnable read) {
+    for (int i = 0; i < WARMUP_READS; i++) {
+      read.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < MEASURED_READS; i++) {
+      read.run();
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+    assertThat(allocated).as("bytes allocated by " + MEASURED_READS + " reads of " + sink)
+            .isLessThan(ALLOWED_BYTES);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.profile;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.RuleUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class ReadProfilerTest {
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp("test.profiled.int");
+
+  @Test
+  public void histogramBucketsAreContiguous() {
+    for (long v = 0; v < 100000; v++) {
+      int index = LatencyHistogram.indexOf(v);
+      assertThat(LatencyHistogram.lowestValueIn(index)).isLessThanOrEqualTo(v);
+      assertThat(LatencyHistogram.highestValueIn(index)).isGreaterThanOrEqualTo(v);
+    }
+    assertThat(LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void histogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertThat(histogram.getTotalCount()).isEqualTo(1000);
+    assertThat(histogram.getMax()).isEqualTo(1000000);
+    assertThat(histogram.getMean()).isEqualTo(500500d);
+    assertThat(histogram.getValueAtPercentile(50)).isGreaterThanOrEqualTo(500000).isLessThan(535000);
+    assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000000);
+
+    histogram.reset();
+    assertThat(histogram.getTotalCount()).isZero();
+    assertThat(histogram.getValueAtPercentile(99)).isZero();
+  }
+
+  @Test
+  public void everyReadIsProfiledPerStage() {
+    ReadProfiler profiler = ReadProfiler.everyRead();
+    Proper.Ty<Integer> prop = Proper.tyBuilder("test.profiled.int", 1).profiler(profiler).build();
+    System.setProperty("test.profiled.int", "2");
+    for (int i = 0; i < 10; i++) {
+      assertThat(prop.getValue()).isEqualTo(2);
+    }
+    System.clearProperty("test.profiled.int");
+    assertThat(prop.getValue()).isEqualTo(1);
+
+    PropertyProfile profile = profiler.getProfile("test.profiled.int");
+    assertThat(profiler.getProfiles()).containsOnly(profile);
+    assertThat(profile.getSampleCount()).isEqualTo(11);
+    assertThat(profile.getHistogram(Stage.KEY_FORMAT).getTotalCount()).isEqualTo(11);
+    assertThat(profile.getHistogram(Stage.LOOKUP).getTotalCount()).isEqualTo(11);
+    assertThat(profile.getHistogram(Stage.VALIDATION).getTotalCount()).isEqualTo(11);
+    assertThat(profile.getHistogram(Stage.LISTENER).getTotalCount()).isEqualTo(11);
+    //missing property is never converted
+    assertThat(profile.getHistogram(Stage.CONVERSION).getTotalCount()).isEqualTo(10);
+
+    profiler.reset();
+    assertThat(profile.getSampleCount()).isZero();
+  }
+
+  @Test
+  public void samplingProfilerMeasuresSubsetOfReads() {
+    ReadProfiler profiler = ReadProfiler.sampling(10);
+    Proper.Ty<Integer> prop = Proper.tyBuilder("test.profiled.int", 1).profiler(profiler).build();
+    for (int i = 0; i < 10000; i++) {
+      prop.getValue();
+    }
+    assertThat(profiler.getProfile("test.profiled.int").getSampleCount()).isGreaterThan(500).isLessThan(2000);
+  }
+
+  @Test
+  public void profilingIsDisabledByDefault() {
+    Proper.Ty<Integer> prop = Proper.tyBuilder("test.profiled.int", 1).build();
+    prop.getValue();
+    assertThat(ReadProfiler.disabled().getProfiles()).isEmpty();
+    assertThat(ReadProfiler.disabled().register(prop.getInfo())).isSameAs(PropertyProfile.NONE);
+  }
+}
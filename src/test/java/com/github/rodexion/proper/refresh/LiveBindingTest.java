@@ -0,0 +1,140 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.PropertyListeners;
+import com.github.rodexion.proper.RuleUtils;
+import com.github.rodexion.proper.Validators;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class LiveBindingTest {
+  private static final String KEY = "test.live";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  private final RefreshScheduler scheduler = RefreshScheduler.builder()
+          .interval(10, TimeUnit.MILLISECONDS)
+          .build();
+
+  @After
+  public void closeScheduler() {
+    scheduler.close();
+  }
+
+  @Test
+  public void valuesAreUpdatedInPlace() throws Exception {
+    System.setProperty(KEY, "1");
+    LiveInt value = Proper.tyBuilder(KEY, 0).bindInt(scheduler);
+    assertThat(value.get()).isEqualTo(1);
+
+    System.setProperty(KEY, "2");
+    awaitValue(value, 2);
+    System.clearProperty(KEY);
+    awaitValue(value, 0);
+  }
+
+  @Test
+  public void invalidValuesKeepThePreviousValue() throws Exception {
+    final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+    System.setProperty(KEY, "5");
+    LiveInt value = Proper.tyBuilder(KEY, 0)
+            .validator(Validators.<Integer>comparableValidatorBuilder().max(10).build())
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void validationAfterConversionFailed(String key, Object value, String validationError, Proper.Info<?> info) {
+                failures.add(validationError);
+              }
+
+              @Override
+              public void conversionFailed(String key, String value, String conversionError, Proper.Info<?> info) {
+                failures.add(conversionError);
+              }
+            })
+            .bindInt(scheduler);
+
+    System.setProperty(KEY, "11");
+    awaitRejections(value, 1);
+    assertThat(value.get()).isEqualTo(5);
+    System.setProperty(KEY, "not a number");
+    awaitRejections(value, value.getRejectedCount() + 1);
+    assertThat(value.get()).isEqualTo(5);
+    assertThat(failures).isNotEmpty();
+
+    System.setProperty(KEY, "7");
+    awaitValue(value, 7);
+  }
+
+  @Test
+  public void referenceValues() throws Exception {
+    System.setProperty(KEY, "a");
+    LiveValue<String> value = Proper.tyBuilder(KEY, "default").bind(scheduler);
+    assertThat(value.get()).isEqualTo("a");
+    System.clearProperty(KEY);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!"default".equals(value.get()) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(value.get()).isEqualTo("default");
+  }
+
+  @Test
+  public void primitiveHoldersStartFromDefault() {
+    assertThat(Proper.tyBuilder(KEY, 3L).bindLong(scheduler).get()).isEqualTo(3L);
+    assertThat(Proper.tyBuilder(KEY, 0.5d).bindDouble(scheduler).get()).isEqualTo(0.5d);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void primitiveBindingChecksType() {
+    Proper.tyBuilder(KEY, "text").bindInt(scheduler);
+  }
+
+  private static void awaitValue(LiveInt value, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (value.get() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(value.get()).isEqualTo(expected);
+  }
+
+  private static void awaitRejections(LiveBinding<?> value, long expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (value.getRejectedCount() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(value.getRejectedCount()).isGreaterThanOrEqualTo(expected);
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.RuleUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertyPublisherTest {
+  private static final String KEY = "test.publisher";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  private final RefreshScheduler scheduler = RefreshScheduler.builder()
+          .interval(10, TimeUnit.MILLISECONDS)
+          .build();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      return new Thread(r, "subscriber-thread");
+    }
+  });
+
+  @After
+  public void shutdown() {
+    scheduler.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void changesAreDeliveredOnTheExecutor() throws Exception {
+    System.setProperty(KEY, "1");
+    PropertyPublisher<Integer> publisher = Proper.tyBuilder(KEY, 0).publisher(scheduler, executor);
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(subscriber);
+    await(subscriber, 1);
+
+    System.setProperty(KEY, "2");
+    await(subscriber, 2);
+    assertThat(subscriber.items).containsExactly(1, 2);
+    assertThat(subscriber.threadName).isEqualTo("subscriber-thread");
+  }
+
+  @Test
+  public void slowSubscribersOnlySeeTheLatestValue() throws Exception {
+    System.setProperty(KEY, "1");
+    PropertyPublisher<Integer> publisher = Proper.tyBuilder(KEY, 0).publisher(scheduler, executor);
+    RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    publisher.subscribe(subscriber);
+    await(subscriber, 1);
+
+    System.setProperty(KEY, "2");
+    awaitPublished(publisher, 2);
+    System.setProperty(KEY, "3");
+    awaitPublished(publisher, 3);
+    assertThat(subscriber.items).containsExactly(1);
+
+    subscriber.subscription.request(1);
+    await(subscriber, 2);
+    assertThat(subscriber.items).containsExactly(1, 3);
+  }
+
+  @Test
+  public void invalidRequestsFailTheSubscription() throws Exception {
+    PropertyPublisher<Integer> publisher = Proper.tyBuilder(KEY, 0).publisher(scheduler, executor);
+    RecordingSubscriber subscriber = new RecordingSubscriber(0);
+    publisher.subscribe(subscriber);
+    awaitSubscribed(subscriber);
+    subscriber.subscription.request(-1);
+    awaitTerminated(subscriber);
+    assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    assertThat(publisher.getSubscriberCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void cancellingThePublisherCompletesSubscribers() throws Exception {
+    PropertyPublisher<Integer> publisher = Proper.tyBuilder(KEY, 0).publisher(scheduler, executor);
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(subscriber);
+    await(subscriber, 1);
+    publisher.cancel();
+    awaitTerminated(subscriber);
+    assertThat(subscriber.completed).isTrue();
+    assertThat(subscriber.items).containsExactly(0);
+  }
+
+  @Test
+  public void subscribersNeverSeeOlderValuesThanTheyGot() throws Exception {
+    final PropertyPublisher<Integer> publisher = new PropertyPublisher<>(Proper.tyBuilder(KEY, 0).build(),
+            TimeUnit.HOURS.toNanos(1), new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    });
+    final AtomicBoolean subscribing = new AtomicBoolean(true);
+    final AtomicInteger last = new AtomicInteger();
+    Thread publishing = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (subscribing.get()) {
+          publisher.publish(last.incrementAndGet());
+        }
+      }
+    });
+    List<RecordingSubscriber> subscribers = new ArrayList<>();
+    publishing.start();
+    for (int i = 0; i < 1000; i++) {
+      RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+      publisher.subscribe(subscriber);
+      subscribers.add(subscriber);
+    }
+    subscribing.set(false);
+    publishing.join();
+    for (RecordingSubscriber subscriber : subscribers) {
+      List<Integer> items = subscriber.items;
+      for (int i = 1; i < items.size(); i++) {
+        assertThat(items.get(i)).isGreaterThan(items.get(i - 1));
+      }
+      assertThat(items.get(items.size() - 1)).isEqualTo(last.get());
+    }
+  }
+
+  private static void await(RecordingSubscriber subscriber, int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (subscriber.items.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(subscriber.items).hasSize(count);
+  }
+
+  private static void awaitPublished(PropertyPublisher<Integer> publisher, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (publisher.get() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(publisher.get()).isEqualTo(expected);
+  }
+
+  private static void awaitSubscribed(RecordingSubscriber subscriber) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (null == subscriber.subscription && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(subscriber.subscription).isNotNull();
+  }
+
+  private static void awaitTerminated(RecordingSubscriber subscriber) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!subscriber.completed && null == subscriber.error && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static final class RecordingSubscriber implements Flow.Subscriber<Integer> {
+    private final long initialRequest;
+    private final List<Integer> items = new CopyOnWriteArrayList<>();
+    private volatile Flow.Subscription subscription;
+    private volatile String threadName;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) {
+        subscription.request(initialRequest);
+      }
+    }
+
+    @Override
+    public void onNext(Integer item) {
+      threadName = Thread.currentThread().getName();
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.refresh;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.PropertyListeners;
+import com.github.rodexion.proper.PropertySources;
+import com.github.rodexion.proper.RuleUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class RefreshSchedulerTest {
+  private static final String KEY = "test.refresh";
+
+  @Rule
+  public TestRule tmpProps = RuleUtils.tmpSysProp(KEY);
+
+  private final RefreshScheduler scheduler = RefreshScheduler.builder()
+          .interval(10, TimeUnit.MILLISECONDS)
+          .jitter(0.5)
+          .build();
+
+  @After
+  public void closeScheduler() {
+    scheduler.close();
+  }
+
+  @Test
+  public void valuesArePublishedInTheBackground() throws Exception {
+    System.setProperty(KEY, "1");
+    RefreshedValue<Integer> value = scheduler.register(Proper.tyBuilder(KEY, 0).build());
+    assertThat(value.getValue()).isEqualTo(1);
+
+    System.setProperty(KEY, "2");
+    awaitValue(value, 2);
+    System.clearProperty(KEY);
+    awaitValue(value, 0);
+    assertThat(value.getAge(TimeUnit.SECONDS)).isLessThan(1);
+  }
+
+  @Test
+  public void listenersAreCalledOnSchedulerThread() {
+    final String[] threadName = new String[1];
+    System.setProperty(KEY, "1");
+    scheduler.register(Proper.tyBuilder(KEY, 0)
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+                threadName[0] = Thread.currentThread().getName();
+              }
+            })
+            .build());
+    assertThat(threadName[0]).startsWith("proper-refresh-");
+  }
+
+  @Test(timeout = 5000)
+  public void propertiesCanBeRegisteredOnSchedulerThread() throws Exception {
+    final List<RefreshedValue<Integer>> nested = new CopyOnWriteArrayList<>();
+    System.setProperty(KEY, "1");
+    scheduler.register(Proper.tyBuilder(KEY, 0)
+            .propertyListener(new PropertyListeners.BasePropertyListener() {
+              @Override
+              public void success(String key, String stringValue, Object convertedValue, Proper.Info<?> info) {
+                if (nested.isEmpty()) {
+                  nested.add(scheduler.register(Proper.tyBuilder(KEY, 0).build()));
+                }
+              }
+            })
+            .build());
+    assertThat(nested).hasSize(1);
+    assertThat(nested.get(0).getValue()).isEqualTo(1);
+    System.setProperty(KEY, "2");
+    awaitValue(nested.get(0), 2);
+  }
+
+  @Test
+  public void perPropertyIntervals() throws Exception {
+    System.setProperty(KEY, "1");
+    RefreshedValue<Integer> slow = scheduler.register(Proper.tyBuilder(KEY, 0).build(), 1, TimeUnit.HOURS);
+    RefreshedValue<Integer> fast = scheduler.register(Proper.tyBuilder(KEY, 0).build());
+    assertThat(slow.getIntervalNanos()).isEqualTo(TimeUnit.HOURS.toNanos(1));
+    System.setProperty(KEY, "2");
+    awaitValue(fast, 2);
+    assertThat(slow.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void cancelledValuesKeepTheirLastValue() throws Exception {
+    System.setProperty(KEY, "1");
+    RefreshedValue<Integer> value = scheduler.register(Proper.tyBuilder(KEY, 0).build());
+    value.cancel();
+    System.setProperty(KEY, "2");
+    Thread.sleep(100);
+    assertThat(value.isCancelled()).isTrue();
+    assertThat(value.getValue()).isEqualTo(1);
+    //Dynamic keys are resolved by the caller
+    assertThat(value.getValue(new Object[]{"unused"})).isEqualTo(2);
+  }
+
+  @Test
+  public void systemPropertiesAreReloadedPeriodically() throws Exception {
+    Refreshable reload = scheduler.reloadSystemProperties();
+    System.setProperty(KEY, "1");
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!"1".equals(PropertySources.systemProperties().getProperties().get(KEY)) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(PropertySources.systemProperties().getProperties().get(KEY)).isEqualTo("1");
+    reload.cancel();
+    assertThat(reload.isCancelled()).isTrue();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedSchedulerRejectsRegistrations() {
+    scheduler.close();
+    scheduler.register(Proper.tyBuilder(KEY, 0).build());
+  }
+
+  private static void awaitValue(RefreshedValue<Integer> value, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (value.getValue() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(value.getValue()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class KeyTemplateMatcherTest {
+  private final KeyTemplateMatcher matcher = KeyTemplateMatcher.compile(Arrays.asList(
+          "my.setting.for.{0}.{1}",
+          "my.setting.for.{0}",
+          "my.setting.for.default",
+          "db.pool.max",
+          "db.pool.min",
+          "it''s.{0,number,integer}.quoted",
+          "literal.'{0}'"));
+
+  @Test
+  public void mostSpecificTemplateMatches() {
+    assertThat(matcher.match("my.setting.for.x.y").get()).isEqualTo("my.setting.for.{0}.{1}");
+    assertThat(matcher.match("my.setting.for.x").get()).isEqualTo("my.setting.for.{0}");
+    assertThat(matcher.match("my.setting.for.default").get()).isEqualTo("my.setting.for.default");
+    assertThat(matcher.match("db.pool.max").get()).isEqualTo("db.pool.max");
+    assertThat(matcher.match("it's.1,000.quoted").get()).isEqualTo("it''s.{0,number,integer}.quoted");
+    assertThat(matcher.match("literal.{0}").get()).isEqualTo("literal.'{0}'");
+  }
+
+  @Test
+  public void placeholdersMatchAtLeastOneCharacter() {
+    assertThat(matcher.match("my.setting.for.").isNone()).isTrue();
+    assertThat(matcher.match("db.pool.maxx").isNone()).isTrue();
+    assertThat(matcher.match("literal.x").isNone()).isTrue();
+    assertThat(matcher.match("").isNone()).isTrue();
+  }
+
+  @Test
+  public void classifyReportsUnknownKeysWithSuggestions() {
+    KeyClassification classification = matcher.classify(Arrays.asList(
+            "db.pool.max", "db.pool.mxa", "my.settings.for.x", "java.version"));
+    assertThat(classification.getMatches()).hasSize(1);
+    assertThat(classification.getUnknownKeys()).containsExactly("db.pool.mxa", "my.settings.for.x", "java.version");
+    assertThat(classification.getSuggestions("db.pool.mxa")).containsExactly("db.pool.max", "db.pool.min");
+    assertThat(classification.getSuggestions("my.settings.for.x").get(0)).isEqualTo("my.setting.for.{0}");
+    assertThat(classification.getSuggestions("java.version")).isEmpty();
+  }
+
+  @Test
+  public void automatonAgreesWithRegexMatching() {
+    List<String> templates = new ArrayList<>();
+    List<Pattern> patterns = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String template = "app." + (i % 7) + ".{0}." + (i % 13) + (i % 2 == 0 ? ".{1}" : "") + ".k" + i;
+      templates.add(template);
+      patterns.add(Pattern.compile(Pattern.quote(template)
+              .replace("{0}", "\\E.+\\Q").replace("{1}", "\\E.+\\Q")));
+    }
+    KeyTemplateMatcher bigMatcher = KeyTemplateMatcher.compile(templates);
+    for (int i = 0; i < 200; i++) {
+      String key = "app." + (i % 7) + ".a.b." + (i % 13) + ".c.k" + i;
+      boolean expected = false;
+      for (Pattern pattern : patterns) {
+        expected |= pattern.matcher(key).matches();
+      }
+      assertThat(!bigMatcher.match(key).isNone()).as(key).isEqualTo(expected);
+    }
+    assertThat(bigMatcher.match("app.1.x.1.k1").get()).isEqualTo("app.1.{0}.1.k1");
+  }
+}
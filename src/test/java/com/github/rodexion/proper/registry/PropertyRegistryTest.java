@@ -0,0 +1,158 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.registry;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.github.rodexion.proper.AttributeKey;
+import com.github.rodexion.proper.Proper;
+import com.github.rodexion.proper.bus.ProperLocation;
+import com.github.rodexion.proper.scanner.ProperDecl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class PropertyRegistryTest {
+  private static final AttributeKey<String> OWNER = AttributeKey.of("test.owner", String.class);
+
+  private PropertyRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new PropertyRegistry();
+    register("db.pool.min", 1, "Db.java", 10);
+    register("db.pool.max", 10, "Db.java", 11);
+    register("db.cache.max", 100L, "Cache.java", 5);
+    register("db.url", "jdbc:", "Db.java", 12);
+    register("dbx", "x", "Other.java", 1);
+    register("region.{0}.shard", 1, "Other.java", 2);
+    registry.register(decl(Proper.tyBuilder("db.url", "jdbc:").attribute(OWNER, "ops").build(), "Ops.java", 3));
+  }
+
+  @Test
+  public void exactKeyLookup() {
+    assertThat(keys(registry.getByKey("db.pool.max"))).containsExactly("db.pool.max");
+    assertThat(keys(registry.getByKey("db.url"))).containsExactly("db.url", "db.url");
+    assertThat(registry.getByKey("db.pool")).isEmpty();
+    assertThat(registry.getByKey("db.pool.maximum")).isEmpty();
+    assertThat(registry.getByKey("region.{0}.shard")).hasSize(1);
+    assertThat(registry.size()).isEqualTo(7);
+  }
+
+  @Test
+  public void prefixLookupIsOrderedByKey() {
+    assertThat(keys(registry.getByPrefix("db.pool."))).containsExactly("db.pool.max", "db.pool.min");
+    assertThat(keys(registry.getByPrefix("db.p"))).containsExactly("db.pool.max", "db.pool.min");
+    assertThat(keys(registry.getByPrefix("db"))).containsExactly(
+            "db.cache.max", "db.pool.max", "db.pool.min", "db.url", "db.url", "dbx");
+    assertThat(registry.getByPrefix("db.poolx")).isEmpty();
+    assertThat(registry.getByPrefix("x")).isEmpty();
+    assertThat(registry.getAll()).hasSize(7);
+  }
+
+  @Test
+  public void globLookup() {
+    assertThat(keys(registry.getByGlob("db.*.max"))).containsExactly("db.cache.max", "db.pool.max");
+    assertThat(keys(registry.getByGlob("db.*"))).containsExactly("db.url", "db.url");
+    assertThat(keys(registry.getByGlob("db.**"))).containsExactly(
+            "db.cache.max", "db.pool.max", "db.pool.min", "db.url", "db.url");
+    assertThat(keys(registry.getByGlob("db?"))).containsExactly("dbx");
+    assertThat(keys(registry.getByGlob("*.{0}.*"))).containsExactly("region.{0}.shard");
+    assertThat(keys(registry.getByGlob("db.url"))).containsExactly("db.url", "db.url");
+  }
+
+  @Test
+  public void lookupByTypeAttributeAndLocation() {
+    assertThat(keys(registry.getByType(Integer.class))).containsExactly("db.pool.max", "db.pool.min", "region.{0}.shard");
+    assertThat(keys(registry.getByType(Long.class))).containsExactly("db.cache.max");
+    assertThat(registry.getByType(Double.class)).isEmpty();
+    assertThat(registry.getByAttribute(OWNER)).hasSize(1);
+    assertThat(registry.getByAttribute(OWNER, "ops")).hasSize(1);
+    assertThat(registry.getByAttribute(OWNER, "dev")).isEmpty();
+    assertThat(keys(registry.getByFileName("Db.java"))).containsExactly("db.pool.max", "db.pool.min", "db.url");
+    assertThat(keys(registry.getByLocation(new ProperLocation("Db.java", 10)))).containsExactly("db.pool.min");
+  }
+
+  @Test
+  public void globalRegistryIsUpdatedAsPropertiesAreBuilt() {
+    assertThat(PropertyRegistry.global().getByKey("test.registry.built")).isEmpty();
+    Proper.tyBuilder("test.registry.built", 1).build();
+    assertThat(PropertyRegistry.global().getByKey("test.registry.built")).hasSize(1);
+    assertThat(keys(PropertyRegistry.global().getByPrefix("test.registry."))).contains("test.registry.built");
+  }
+
+  @Test
+  public void trieAgreesWithSortedMap() {
+    Random random = new Random(42);
+    RadixTrie<String> trie = new RadixTrie<>();
+    TreeMap<String, String> expected = new TreeMap<>();
+    for (int i = 0; i < 5000; i++) {
+      StringBuilder key = new StringBuilder();
+      int length = random.nextInt(8);
+      for (int j = 0; j < length; j++) {
+        key.append("ab.c".charAt(random.nextInt(4)));
+      }
+      String value = String.valueOf(i);
+      assertThat(trie.put(key.toString(), value)).isEqualTo(expected.put(key.toString(), value));
+    }
+    assertThat(trie.size()).isEqualTo(expected.size());
+    for (Map.Entry<String, String> entry : expected.entrySet()) {
+      assertThat(trie.get(entry.getKey())).isEqualTo(entry.getValue());
+    }
+    for (String prefix : new String[]{"", "a", "ab", "ab.", "c.c", "bbbb", "x"}) {
+      List<String> values = new ArrayList<>();
+      trie.collectPrefixed(prefix, values);
+      List<String> expectedValues = new ArrayList<>();
+      for (Map.Entry<String, String> entry : expected.tailMap(prefix).entrySet()) {
+        if (!entry.getKey().startsWith(prefix)) {
+          break;
+        }
+        expectedValues.add(entry.getValue());
+      }
+      assertThat(values).isEqualTo(expectedValues);
+    }
+  }
+
+  private void register(String key, Object defaultValue, String fileName, int lineNumber) {
+    registry.register(decl(Proper.tyBuilder(key, defaultValue).build(), fileName, lineNumber));
+  }
+
+  private static ProperDecl decl(Proper.Ty<?> property, String fileName, int lineNumber) {
+    return new ProperDecl(property, new ProperLocation(fileName, lineNumber));
+  }
+
+  private static List<String> keys(List<ProperDecl> decls) {
+    List<String> keys = new ArrayList<>();
+    for (ProperDecl decl : decls) {
+      keys.add(decl.getProperty().getInfo().getKey());
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class BloomFilterTest {
+  @Test
+  public void addedKeysAreAlwaysFound() {
+    BloomFilter filter = new BloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      filter.add("tenant." + i + ".limit");
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertThat(filter.mightContain("tenant." + i + ".limit")).isTrue();
+    }
+  }
+
+  @Test
+  public void falsePositivesStayRare() {
+    BloomFilter filter = new BloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      filter.add("tenant." + i + ".limit");
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (filter.mightContain("tenant." + i + ".other")) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(300);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidRate() {
+    new BloomFilter(10, 1);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.github.rodexion.proper.util;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author rodexion
+ * @since 0.1
+ */
+public class NumberParserTest {
+  private static final String[] SAMPLES = {
+          "0", "-0", "+0", "1", "-1", "+1", "007", "12345", "-2147483648", "2147483647", "2147483648",
+          "-2147483649", "9223372036854775807", "-9223372036854775808", "9223372036854775808",
+          "99999999999999999999", "127", "128", "-128", "-129", "32767", "32768",
+          "", "+", "-", "--1", "1-", "1 2", "abc", "1a", "0x10", "١٢",
+          "1.5", ".5", "5.", ".", "1e10", "1E-10", "1e", "1e+", "-1.5e-3", "1.5f", "1.5D", "1.5x",
+          "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "infinity", "nan",
+          "0x1.8p1", "0X1P-2", "0x1.8", "0x", "0xp1",
+          "3.4028235e38", "3.4028236e38", "1.4e-45", "1e-46", "4.9e-324", "1e-400", "1e400",
+          "0.1", "0.000001", "123456789012345678901234567890", "1.00000000000000000000000001",
+          "9007199254740993", "2.2250738585072011e-308", "1e22", "1e23", "16777217", "0.30000000000000004"};
+
+  @Test
+  public void integersMatchJdk() {
+    NumberParser parser = new NumberParser();
+    for (String sample : SAMPLES) {
+      checkLong(parser, sample, Byte.MIN_VALUE, Byte.MAX_VALUE);
+      checkLong(parser, sample, Short.MIN_VALUE, Short.MAX_VALUE);
+      checkLong(parser, sample, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      checkLong(parser, sample, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    assertThat(parser.parseLong("2147483648", 0, 10, Integer.MIN_VALUE, Integer.MAX_VALUE))
+            .isEqualTo(NumberParser.OUT_OF_RANGE);
+    assertThat(parser.parseLong("99999999999x", 0, 12, Integer.MIN_VALUE, Integer.MAX_VALUE))
+            .isEqualTo(NumberParser.SYNTAX_ERROR);
+  }
+
+  @Test
+  public void floatingPointMatchesJdk() {
+    NumberParser parser = new NumberParser();
+    for (String sample : SAMPLES) {
+      checkDouble(parser, sample);
+      checkFloat(parser, sample);
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      String sample = randomDecimal(random);
+      checkDouble(parser, sample);
+      checkFloat(parser, sample);
+    }
+  }
+
+  @Test
+  public void parsesRanges() {
+    NumberParser parser = new NumberParser();
+    String value = "x=-12.5e1;";
+    assertThat(parser.parseDouble(value, 2, 9)).isEqualTo(NumberParser.OK);
+    assertThat(parser.getDoubleValue()).isEqualTo(-125.0);
+    assertThat(parser.parseLong(value, 2, 5, Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(NumberParser.OK);
+    assertThat(parser.getLongValue()).isEqualTo(-12L);
+  }
+
+  private static String randomDecimal(Random random) {
+    switch (random.nextInt(3)) {
+      case 0:
+        return Double.toString(Double.longBitsToDouble(random.nextLong()));
+      case 1:
+        return Float.toString(random.nextFloat() * (float) Math.pow(10, random.nextInt(20) - 10));
+      default:
+        StringBuilder sb = new StringBuilder();
+        int digits = 1 + random.nextInt(20);
+        int dot = random.nextInt(digits + 1);
+        for (int i = 0; i < digits; i++) {
+          if (i == dot) {
+            sb.append('.');
+          }
+          sb.append((char) ('0' + random.nextInt(10)));
+        }
+        if (random.nextBoolean()) {
+          sb.append('e').append(random.nextInt(60) - 30);
+        }
+        return sb.toString();
+    }
+  }
+
+  private static void checkLong(NumberParser parser, String sample, long min, long max) {
+    Long expected;
+    try {
+      long value = Long.parseLong(sample);
+      expected = value < min || value > max ? null : value;
+    } catch (NumberFormatException e) {
+      expected = null;
+    }
+    int status = parser.parseLong(sample, 0, sample.length(), min, max);
+    assertThat(status == NumberParser.OK).as(sample + " in [" + min + ", " + max + "]").isEqualTo(null != expected);
+    if (null != expected) {
+      assertThat(parser.getLongValue()).as(sample).isEqualTo(expected);
+    }
+  }
+
+  private static void checkDouble(NumberParser parser, String sample) {
+    Double expected;
+    try {
+      expected = Double.parseDouble(sample);
+    } catch (NumberFormatException e) {
+      expected = null;
+    }
+    int status = parser.parseDouble(sample, 0, sample.length());
+    assertThat(status == NumberParser.OK).as(sample).isEqualTo(null != expected);
+    if (null != expected) {
+      assertThat(Double.doubleToLongBits(parser.getDoubleValue())).as(sample)
+              .isEqualTo(Double.doubleToLongBits(expected));
+    }
+  }
+
+  private static void checkFloat(NumberParser parser, String sample) {
+    Float expected;
+    try {
+      expected = Float.parseFloat(sample);
+    } catch (NumberFormatException e) {
+      expected = null;
+    }
+    int status = parser.parseFloat(sample, 0, sample.length());
+    assertThat(status == NumberParser.OK).as(sample).isEqualTo(null != expected);
+    if (null != expected) {
+      assertThat(Float.floatToIntBits(parser.getFloatValue())).as(sample)
+              .isEqualTo(Float.floatToIntBits(expected));
+    }
+  }
+}
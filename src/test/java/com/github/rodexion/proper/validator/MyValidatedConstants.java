@@ -23,11 +23,17 @@ package com.github.rodexion.proper.validator;
 import static com.github.rodexion.proper.Examples.MyProper;
 import static com.github.rodexion.proper.Examples.MyProper.Unit;
 
+import com.github.rodexion.proper.AsyncValidator;
+import com.github.rodexion.proper.KeySubstitutions;
 import com.github.rodexion.proper.LazyValue;
 import com.github.rodexion.proper.Proper;
 import com.github.rodexion.proper.Validators;
 import com.github.rodexion.proper.annotations.ProperScannable;
 
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author rodexion
  * @since 0.1
@@ -37,7 +43,7 @@ public class MyValidatedConstants {
   public static final int validInt = MyProper.ty("test.valid.int", 888, "A valid int", Unit.Int)
           .build().getValue();
 
-  public static final int invalidIntLineNumber = 42;
+  public static final int invalidIntLineNumber = 48;
   public static final String invalidIntProp = "test.invalid.int";
   public static final int invalidInt = MyProper.ty(invalidIntProp, 333, "An invalid int", Unit.Int)
           .validator(Validators.<Integer>comparableValidatorBuilder().max(500).build())
@@ -60,4 +66,27 @@ public class MyValidatedConstants {
             }
           })
           .build();
+
+  @ProperScannable
+  public static final String productProp = "test.product.{0}.{1}";
+  public static final LazyValue<Integer> productInt = Proper.tyBuilder(productProp, 1)
+          .attribute(Proper.DYNAMIC_KEY_VALUES, KeySubstitutions.product(
+                  Arrays.asList("a", "b", "c"), Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)))
+          .validator(Validators.<Integer>comparableValidatorBuilder().max(500).build())
+          .build();
+
+  @ProperScannable
+  public static final String asyncProp = "test.async.{0}";
+  public static final CyclicBarrier asyncBarrier = new CyclicBarrier(4);
+  public static final LazyValue<Integer> asyncInt = Proper.tyBuilder(asyncProp, 1)
+          .attribute(Proper.DYNAMIC_KEY_VALUES, KeySubstitutions.product(Arrays.asList(1, 2, 3, 4)))
+          .validator(new AsyncValidator<Integer>(Integer.class, 5, TimeUnit.SECONDS) {
+            @Override
+            protected Result check(String key, Integer value, Proper.Info<Integer> info) throws Exception {
+              //Only passes when the checks of all four keys run at the same time
+              asyncBarrier.await();
+              return value < 0 ? Result.fail("negative: " + key) : Result.ok();
+            }
+          })
+          .build();
 }
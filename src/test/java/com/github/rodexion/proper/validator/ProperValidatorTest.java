@@ -30,6 +30,10 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author rodexion
@@ -66,6 +70,69 @@ public class ProperValidatorTest {
     });
   }
 
+  @Test
+  public void allCombinationsOfKeyValuesAreValidated() {
+    String invalid1 = MessageFormat.format(MyValidatedConstants.productProp, "b", 7);
+    String invalid2 = MessageFormat.format(MyValidatedConstants.productProp, "c", 10);
+    System.setProperty(invalid1, "501");
+    System.setProperty(invalid2, "502");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<ValidationResult.Error> errors = productPropErrors(
+              ProperValidators.validator(TestConstants.PROPER_BASE_PACKAGE).validate());
+      assertThat(errors).hasSize(2);
+      assertThat(errors.get(0).getErrorMessage()).isEqualTo("501 is greater than 500");
+      assertThat(errors.get(1).getErrorMessage()).isEqualTo("502 is greater than 500");
+
+      List<ValidationResult.Error> parallelErrors = productPropErrors(
+              ProperValidators.validator(TestConstants.PROPER_BASE_PACKAGE, executor).validate());
+      assertThat(parallelErrors).isEqualTo(errors);
+    } finally {
+      executor.shutdown();
+      System.clearProperty(invalid1);
+      System.clearProperty(invalid2);
+    }
+  }
+
+  @Test
+  public void asyncChecksOfAllPropertiesRunConcurrently() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 1; i <= 4; i++) {
+      keys.add(MessageFormat.format(MyValidatedConstants.asyncProp, i));
+      System.setProperty(keys.get(i - 1), i == 3 ? "-1" : "1");
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<ValidationResult.Error> errors = propErrors(MyValidatedConstants.asyncProp,
+              ProperValidators.validator(TestConstants.PROPER_BASE_PACKAGE).validate());
+      assertThat(errors).hasSize(1);
+      assertThat(errors.get(0).getErrorMessage()).isEqualTo("negative: " + keys.get(2));
+
+      List<ValidationResult.Error> parallelErrors = propErrors(MyValidatedConstants.asyncProp,
+              ProperValidators.validator(TestConstants.PROPER_BASE_PACKAGE, executor).validate());
+      assertThat(parallelErrors).isEqualTo(errors);
+    } finally {
+      executor.shutdown();
+      for (String key : keys) {
+        System.clearProperty(key);
+      }
+    }
+  }
+
+  private static List<ValidationResult.Error> productPropErrors(ValidationResult result) {
+    return propErrors(MyValidatedConstants.productProp, result);
+  }
+
+  private static List<ValidationResult.Error> propErrors(String key, ValidationResult result) {
+    List<ValidationResult.Error> errors = new ArrayList<>();
+    for (ValidationResult.Error error : result.getValidationErrors()) {
+      if (error.getProperty().getInfo().getKey().equals(key)) {
+        errors.add(error);
+      }
+    }
+    return errors;
+  }
+
   private Condition<ValidationResult.Error> intPropCondition() {
     return new Condition<ValidationResult.Error>() {
       @Override